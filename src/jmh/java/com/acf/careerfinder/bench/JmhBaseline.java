@@ -0,0 +1,195 @@
+package com.acf.careerfinder.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and prints one line per
+ * benchmark/mode/params: score, p50/p99 for sample-time modes, allocated bytes/op from
+ * -prof gc, and the change against the baseline.
+ *
+ * The baseline is a summary, not the raw JMH dump: a header with the JDK, JMH settings and
+ * machine it was recorded on, then one entry per benchmark/mode/params with score, error,
+ * unit, p50/p99 and bytes/op.
+ *
+ * Args: result baseline thresholdPercent update fail
+ *   update=true  writes the result's summary as the new baseline (run on the reference machine only);
+ *   fail=true    exits 1 when any score or bytes/op moved the wrong way by more than the threshold.
+ *
+ * Scores are only comparable between runs on the same hardware and JVM.
+ */
+public final class JmhBaseline {
+    private JmhBaseline() {}
+
+    private static final ObjectMapper M = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+        boolean update = Boolean.parseBoolean(args[3]);
+        boolean fail = Boolean.parseBoolean(args[4]);
+
+        if (!Files.exists(result)) {
+            System.out.println("No JMH result at " + result + "; nothing to compare.");
+            return;
+        }
+        JsonNode raw = M.readTree(result.toFile());
+        if (update) {
+            Files.createDirectories(baseline.getParent());
+            M.writeValue(baseline.toFile(), summary(raw));
+            System.out.println("Baseline updated: " + baseline);
+            return;
+        }
+
+        Map<String, JsonNode> base = new HashMap<>();
+        if (Files.exists(baseline)) {
+            for (JsonNode e : M.readTree(baseline.toFile()).path("benchmarks")) base.put(key(e), e);
+        }
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-70s %14s %10s %10s %12s %9s %9s%n",
+                "benchmark", "score", "p50", "p99", "B/op", "Δscore", "ΔB/op");
+        for (JsonNode e : entries(raw)) {
+            String k = key(e);
+            JsonNode b = base.get(k);
+            boolean higherIsBetter = "thrpt".equals(e.path("mode").asText());
+
+            double score = e.path("score").asDouble();
+            Double alloc = number(e, "allocBytesPerOp");
+            Double dScore = null, dAlloc = null;
+            if (b != null) {
+                dScore = pct(score, b.path("score").asDouble());
+                Double bAlloc = number(b, "allocBytesPerOp");
+                if (alloc != null && bAlloc != null) dAlloc = pct(alloc, bAlloc);
+            }
+
+            boolean worse = dScore != null && (higherIsBetter ? -dScore : dScore) > threshold
+                    || dAlloc != null && dAlloc > threshold;
+            if (worse) regressions++;
+
+            System.out.printf(Locale.ROOT, "%-70s %14.3f %10s %10s %12s %9s %9s%s%n",
+                    k, score,
+                    fmt3(number(e, "p50")), fmt3(number(e, "p99")),
+                    alloc == null ? "-" : String.format(Locale.ROOT, "%.1f", alloc),
+                    fmt(dScore), fmt(dAlloc),
+                    b == null ? "  (no baseline)" : worse ? "  REGRESSION" : "");
+        }
+
+        System.out.println(regressions + " regression(s) beyond " + threshold + "% against " + baseline);
+        if (fail && regressions > 0) System.exit(1);
+    }
+
+    /** Header (JDK, JMH settings, this machine) + one entry per benchmark/mode/params. */
+    private static ObjectNode summary(JsonNode raw) {
+        ObjectNode out = M.createObjectNode();
+        out.put("recorded", LocalDate.now().toString());
+        JsonNode first = raw.path(0);
+        ObjectNode jvm = out.putObject("jvm");
+        jvm.put("jdkVersion", first.path("jdkVersion").asText());
+        jvm.put("vmName", first.path("vmName").asText());
+        jvm.put("vmVersion", first.path("vmVersion").asText());
+        jvm.set("jvmArgs", first.path("jvmArgs"));
+        ObjectNode jmh = out.putObject("jmh");
+        jmh.put("version", first.path("jmhVersion").asText());
+        jmh.put("forks", first.path("forks").asInt());
+        jmh.put("threads", first.path("threads").asInt());
+        jmh.put("warmup", first.path("warmupIterations").asInt() + " x " + first.path("warmupTime").asText());
+        jmh.put("measurement", first.path("measurementIterations").asInt() + " x " + first.path("measurementTime").asText());
+        ObjectNode machine = out.putObject("machine");
+        machine.put("cpu", cpuModel());
+        machine.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        machine.put("memoryMiB", physicalMemoryMiB());
+        machine.put("os", System.getProperty("os.name") + " " + System.getProperty("os.version")
+                + " " + System.getProperty("os.arch"));
+        out.set("benchmarks", entries(raw));
+        return out;
+    }
+
+    private static ArrayNode entries(JsonNode raw) {
+        ArrayNode out = M.createArrayNode();
+        for (JsonNode n : raw) {
+            JsonNode pm = n.path("primaryMetric");
+            ObjectNode e = out.addObject();
+            e.put("benchmark", n.path("benchmark").asText().replace("com.acf.careerfinder.", ""));
+            e.put("mode", n.path("mode").asText());
+            if (n.path("params").isObject()) e.set("params", n.get("params"));
+            e.put("score", pm.path("score").asDouble());
+            e.put("error", pm.path("scoreError").asDouble());
+            e.put("unit", pm.path("scoreUnit").asText());
+            if ("sample".equals(n.path("mode").asText())) {
+                e.put("p50", pm.path("scorePercentiles").path("50.0").asDouble());
+                e.put("p99", pm.path("scorePercentiles").path("99.0").asDouble());
+            }
+            Double alloc = allocNorm(n);
+            if (alloc != null) e.put("allocBytesPerOp", alloc);
+        }
+        return out;
+    }
+
+    /** benchmark + mode + sorted params: stable across runs. */
+    private static String key(JsonNode e) {
+        StringBuilder sb = new StringBuilder(e.path("benchmark").asText());
+        sb.append(" [").append(e.path("mode").asText());
+        JsonNode params = e.path("params");
+        if (params.isObject()) {
+            Map<String, String> sorted = new TreeMap<>();
+            params.fields().forEachRemaining(p -> sorted.put(p.getKey(), p.getValue().asText()));
+            sorted.forEach((pk, pv) -> sb.append(' ').append(pk).append('=').append(pv));
+        }
+        return sb.append(']').toString();
+    }
+
+    /** Bytes allocated per op; JMH names it with or without the "·" prefix depending on version. */
+    private static Double allocNorm(JsonNode n) {
+        JsonNode sec = n.path("secondaryMetrics");
+        for (String name : List.of("gc.alloc.rate.norm", "·gc.alloc.rate.norm")) {
+            JsonNode m = sec.get(name);
+            if (m != null) return m.path("score").asDouble();
+        }
+        return null;
+    }
+
+    private static String cpuModel() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/cpuinfo"))) {
+                if (line.startsWith("model name")) return line.substring(line.indexOf(':') + 1).trim();
+            }
+        } catch (Exception ignored) {
+            // not Linux; arch and processor count still identify the machine
+        }
+        return System.getProperty("os.arch");
+    }
+
+    private static long physicalMemoryMiB() {
+        var os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.OperatingSystemMXBean sun
+                ? sun.getTotalMemorySize() / (1024 * 1024) : -1;
+    }
+
+    private static Double number(JsonNode e, String field) {
+        JsonNode v = e.get(field);
+        return v == null || !v.isNumber() ? null : v.asDouble();
+    }
+
+    private static double pct(double now, double before) {
+        return before == 0 ? 0 : (now - before) * 100.0 / before;
+    }
+
+    private static String fmt3(Double d) {
+        return d == null ? "-" : String.format(Locale.ROOT, "%.3f", d);
+    }
+
+    private static String fmt(Double d) {
+        return d == null ? "-" : String.format(Locale.ROOT, "%+.1f%%", d);
+    }
+}
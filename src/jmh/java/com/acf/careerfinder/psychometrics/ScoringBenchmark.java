@@ -0,0 +1,64 @@
+package com.acf.careerfinder.psychometrics;
+
+import com.acf.careerfinder.model.QItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trait scoring: the compiled-plan core behind ScoringService.scoreForUser (answers already
+ * loaded), and the bank compile that runs on every admin edit.
+ *
+ * Answer maps are pre-generated and cycled so one user's map never stays hot in cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final int USERS = 1024;
+
+    /** IPIP items per domain (5 domains). */
+    @Param({"10"})
+    int ipipPerDomain;
+
+    /** SJT items per trait (12 traits). */
+    @Param({"6", "30"})
+    int sjtPerTrait;
+
+    List<QItem> items;
+    ScoringPlan plan;
+    Map<String, String>[] answers;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = SyntheticBank.items(ipipPerDomain, sjtPerTrait, false);
+        plan = ScoringPlan.compile(items);
+        Random rnd = new Random(42);
+        answers = new Map[USERS];
+        for (int i = 0; i < USERS; i++) answers[i] = SyntheticBank.answers(items, rnd);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+        int next() { return i = (i + 1) & (USERS - 1); }
+    }
+
+    @Benchmark
+    public TraitProfile scoreForUser(Cursor c) {
+        return ScoringService.score(plan, answers[c.next()]);
+    }
+
+    @Benchmark
+    public ScoringPlan compilePlan() {
+        return ScoringPlan.compile(items);
+    }
+}
@@ -0,0 +1,106 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.psychometrics.ScoringPlan;
+import com.acf.careerfinder.psychometrics.ScoringService;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.sector.EligibilityService.Cand;
+import com.acf.careerfinder.sector.SectorRankingService.RankedResult;
+import com.acf.careerfinder.sector.SectorScoringService.ScoredSector;
+import com.acf.careerfinder.sector.model1.SectorGates;
+import com.acf.careerfinder.service.ResultSnapshotService;
+import com.acf.careerfinder.service.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sector scoring, eligibility and ranking against the real config_sectors_v1 files
+ * (the paths application.properties uses), for synthetic users: trait scores from the
+ * synthetic bank plus gating answers. Services are wired by hand, no Spring context; ranking
+ * includes its stage timer (in-memory registry), as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SectorBenchmark {
+
+    private static final int USERS = 1024;
+
+    SectorConfigService cfg;
+    EligibilityService eligibility;
+    SectorScoringService scoring;
+    SectorRankingService ranking;
+    List<SectorGates.SectorGate> gates;
+
+    Map<String, String>[] answers;
+    Map<String, Double>[] traits;
+    Cand[] cands;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setUp() {
+        cfg = new SectorConfigService();
+        ReflectionTestUtils.setField(cfg, "catalogPath", "config_sectors_v1/SectorCatalog_v1.json");
+        ReflectionTestUtils.setField(cfg, "gatesPath", "config_sectors_v1/SectorGates_v1.json");
+        ReflectionTestUtils.setField(cfg, "weightsPath", "config_sectors_v1/SectorWeights_v2_3.json");
+        ReflectionTestUtils.setField(cfg, "rowTolerance", 0.001);
+        eligibility = new EligibilityService();
+        scoring = new SectorScoringService(cfg);
+        StageMetrics stages = new StageMetrics(new SimpleMeterRegistry());
+        ranking = new SectorRankingService(cfg, eligibility, stages);
+        ReflectionTestUtils.setField(ranking, "topN", 5);
+        gates = cfg.gates().sectors();
+
+        List<QItem> items = SyntheticBank.items(10, 6, false);
+        ScoringPlan plan = ScoringPlan.compile(items);
+        ScoringService scorer = new ScoringService(null, null, stages);
+        Random rnd = new Random(42);
+        answers = new Map[USERS];
+        traits = new Map[USERS];
+        cands = new Cand[USERS];
+        for (int i = 0; i < USERS; i++) {
+            Map<String, String> a = new HashMap<>(SyntheticBank.answers(items, rnd));
+            a.putAll(SyntheticBank.gateAnswers(rnd));
+            answers[i] = a;
+            traits[i] = ResultSnapshotService.toTCodeMap(scorer.scoreAnswers(plan, a).traitFinal0to100());
+            cands[i] = eligibility.deriveCand(a);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+        int next() { return i = (i + 1) & (USERS - 1); }
+    }
+
+    @Benchmark
+    public List<ScoredSector> computeAll(Cursor c) {
+        return scoring.computeAll(traits[c.next()]);
+    }
+
+    @Benchmark
+    public Cand deriveCand(Cursor c) {
+        return eligibility.deriveCand(answers[c.next()]);
+    }
+
+    /** Eager per-sector check (the non-ranking path), over every sector's gate. */
+    @Benchmark
+    public void checkEligibility(Cursor c, Blackhole bh) {
+        Cand cand = cands[c.next()];
+        for (SectorGates.SectorGate g : gates) bh.consume(eligibility.checkEligibility(cand, g.req()));
+    }
+
+    @Benchmark
+    public RankedResult rankingBuild(Cursor c) {
+        int i = c.next();
+        return ranking.build(answers[i], traits[i]);
+    }
+}
@@ -0,0 +1,176 @@
+package com.acf.careerfinder.loadtest;
+
+import com.acf.careerfinder.CareerfinderApplication;
+import com.acf.careerfinder.admin.QuestionAdminService;
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.support.StubLlmServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classroom load test: N students log in within a short ramp and each walks the whole journey
+ * (gating with autosave, every questionnaire page with autosave, submit, result + narrative
+ * polling, sector advice). Reports p50/p95/p99 and error rate per route.
+ *
+ * By default everything is local and self-contained: embedded PostgreSQL (zonky binaries, no
+ * Docker), the stub LLM server, the app itself started in this JVM on a random port, and the
+ * synthetic question bank seeded through the admin service. Set loadtest.target to run the
+ * same journey against an app that is already running (its own DB, bank and LLM settings).
+ *
+ * Settings (system properties): loadtest.students (100), loadtest.ramp (PT10S),
+ * loadtest.think-ms (300), loadtest.llm-latency-ms (800), loadtest.narrative-polls (10),
+ * loadtest.seed (1), loadtest.target (blank), loadtest.report (target/loadtest-report.csv),
+ * loadtest.max-error-pct (1.0; exit code 1 above it).
+ */
+public final class ClassroomLoadTest {
+    private ClassroomLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int students = Integer.getInteger("loadtest.students", 100);
+        Duration ramp = Duration.parse(System.getProperty("loadtest.ramp", "PT10S"));
+        long thinkMs = Long.getLong("loadtest.think-ms", 300);
+        long llmLatencyMs = Long.getLong("loadtest.llm-latency-ms", 800);
+        int narrativePolls = Integer.getInteger("loadtest.narrative-polls", 10);
+        long seed = Long.getLong("loadtest.seed", 1);
+        String target = System.getProperty("loadtest.target", "").trim();
+        Path report = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.csv"));
+        double maxErrorPct = Double.parseDouble(System.getProperty("loadtest.max-error-pct", "1.0"));
+
+        StubLlmServer stub = null;
+        EmbeddedPostgres pg = null;
+        ConfigurableApplicationContext app = null;
+        int exit = 0;
+        try {
+            String base = target;
+            if (base.isEmpty()) {
+                stub = new StubLlmServer(0, llmLatencyMs);
+                pg = EmbeddedPostgres.builder().start();
+                app = startApp(pg, stub);
+                seedBank(app);
+                base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                System.out.println("App on " + base + ", stub LLM on " + stub.url());
+            }
+            if (base.endsWith("/")) base = base.substring(0, base.length() - 1);
+
+            double errorPct = run(base, students, ramp, thinkMs, narrativePolls, seed, report);
+            if (stub != null) System.out.println("Stub LLM requests: " + stub.requests());
+            if (errorPct > maxErrorPct) {
+                System.out.printf(Locale.ROOT, "Error rate %.2f%% above loadtest.max-error-pct=%.2f%%%n", errorPct, maxErrorPct);
+                exit = 1;
+            }
+        } finally {
+            if (app != null) app.close();
+            if (pg != null) pg.close();
+            if (stub != null) stub.close();
+        }
+        System.exit(exit); // HTTP client threads are not daemons
+    }
+
+    private static double run(String base, int students, Duration ramp, long thinkMs, int narrativePolls,
+                              long seed, Path report) throws Exception {
+        LatencyStats stats = new LatencyStats();
+        HttpClient http = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+
+        List<Student> cls = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            cls.add(new Student(i, http, base, stats, seed, thinkMs, narrativePolls));
+        }
+
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(students, r -> {
+            Thread t = new Thread(r, "student-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            // Accounts first (not part of the class start), then everyone logs in within the ramp
+            register(pool, cls);
+
+            long start = System.nanoTime();
+            long stepNanos = students <= 1 ? 0 : ramp.toNanos() / (students - 1);
+            AtomicInteger aborted = new AtomicInteger();
+            List<Callable<Void>> journeys = new ArrayList<>();
+            for (int i = 0; i < cls.size(); i++) {
+                Student s = cls.get(i);
+                long at = start + i * stepNanos;
+                journeys.add(() -> {
+                    long wait = at - System.nanoTime();
+                    if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                    try {
+                        s.journey();
+                    } catch (Student.Aborted e) {
+                        aborted.incrementAndGet();
+                        System.out.println(s.email + " stopped: " + e.getMessage());
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(journeys)) f.get();
+            double wallSec = (System.nanoTime() - start) / 1e9;
+
+            List<LatencyStats.Row> rows = stats.rows();
+            System.out.printf(Locale.ROOT, "%n%d students, ramp %s, %d journeys aborted, %.1f s wall%n%n",
+                    students, ramp, aborted.get(), wallSec);
+            stats.print(System.out, rows);
+            stats.writeCsv(report, rows);
+            System.out.println("\nReport: " + report.toAbsolutePath());
+            return LatencyStats.errorPct(rows);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Create every account in parallel; a failed registration is counted as an error on its route. */
+    private static void register(ExecutorService pool, List<Student> cls) throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Student s : cls) {
+            tasks.add(() -> {
+                try {
+                    s.register();
+                } catch (Student.Aborted e) {
+                    System.out.println(s.email + " registration failed: " + e.getMessage());
+                }
+                return null;
+            });
+        }
+        for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+    }
+
+    private static ConfigurableApplicationContext startApp(EmbeddedPostgres pg, StubLlmServer stub) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("spring.datasource.url", pg.getJdbcUrl("postgres", "postgres"));
+        props.put("spring.datasource.username", "postgres");
+        props.put("spring.datasource.password", "");
+        props.put("server.port", "0");
+        props.put("openai.api.url", stub.url());
+        props.put("openai.api.key", "stub");
+        props.put("admin.secret", "loadtest");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+        return new SpringApplicationBuilder(CareerfinderApplication.class)
+                .properties(props)
+                .run();
+    }
+
+    /** Synthetic IPIP/SJT bank (10 per domain, 6 per trait ≈ 11 pages), through the admin validation path. */
+    private static void seedBank(ConfigurableApplicationContext app) {
+        QuestionAdminService admin = app.getBean(QuestionAdminService.class);
+        for (QItem q : SyntheticBank.items(10, 6, false)) {
+            admin.upsert(SyntheticBank.adminDto(q));
+        }
+    }
+}
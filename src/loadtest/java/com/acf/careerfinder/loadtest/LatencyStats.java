@@ -0,0 +1,104 @@
+package com.acf.careerfinder.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route latency samples and error counts. Every sample is kept (a classroom run is a few
+ * tens of thousands of requests), so percentiles are exact nearest-rank values.
+ */
+final class LatencyStats {
+
+    /** Summary of one route; latencies in milliseconds. */
+    record Row(String route, int count, int errors, double p50, double p95, double p99, double max) {
+        double errorPct() { return count == 0 ? 0 : errors * 100.0 / count; }
+    }
+
+    private static final class Route {
+        private long[] nanos = new long[256];
+        private int n;
+        private int errors;
+
+        synchronized void add(long t, boolean ok) {
+            if (n == nanos.length) nanos = Arrays.copyOf(nanos, n * 2);
+            nanos[n++] = t;
+            if (!ok) errors++;
+        }
+
+        synchronized Row summary(String route) {
+            long[] s = Arrays.copyOf(nanos, n);
+            Arrays.sort(s);
+            return new Row(route, n, errors, pct(s, 50), pct(s, 95), pct(s, 99),
+                    n == 0 ? 0 : s[n - 1] / 1e6);
+        }
+
+        private static double pct(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, idx)] / 1e6;
+        }
+    }
+
+    /** First-seen order, so the report follows the journey. */
+    private final Map<String, Route> routes = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Route> index = new ConcurrentHashMap<>();
+
+    void record(String route, long nanos, boolean ok) {
+        Route r = index.get(route);
+        if (r == null) {
+            synchronized (routes) {
+                r = index.computeIfAbsent(route, k -> {
+                    Route fresh = new Route();
+                    routes.put(k, fresh);
+                    return fresh;
+                });
+            }
+        }
+        r.add(nanos, ok);
+    }
+
+    List<Row> rows() {
+        List<Row> out = new ArrayList<>();
+        synchronized (routes) {
+            routes.forEach((k, r) -> out.add(r.summary(k)));
+        }
+        return out;
+    }
+
+    void print(PrintStream out, List<Row> rows) {
+        out.printf(Locale.ROOT, "%-34s %8s %7s %7s %9s %9s %9s %9s%n",
+                "route", "count", "errors", "err%", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        int count = 0, errors = 0;
+        for (Row r : rows) {
+            out.printf(Locale.ROOT, "%-34s %8d %7d %7.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    r.route(), r.count(), r.errors(), r.errorPct(), r.p50(), r.p95(), r.p99(), r.max());
+            count += r.count();
+            errors += r.errors();
+        }
+        out.printf(Locale.ROOT, "%-34s %8d %7d %7.2f%n", "TOTAL", count, errors,
+                count == 0 ? 0 : errors * 100.0 / count);
+    }
+
+    void writeCsv(Path file, List<Row> rows) throws IOException {
+        StringBuilder sb = new StringBuilder("route,count,errors,error_pct,p50_ms,p95_ms,p99_ms,max_ms\n");
+        for (Row r : rows) {
+            sb.append(String.format(Locale.ROOT, "\"%s\",%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    r.route(), r.count(), r.errors(), r.errorPct(), r.p50(), r.p95(), r.p99(), r.max()));
+        }
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.writeString(file, sb.toString());
+    }
+
+    static double errorPct(List<Row> rows) {
+        int count = 0, errors = 0;
+        for (Row r : rows) {
+            count += r.count();
+            errors += r.errors();
+        }
+        return count == 0 ? 0 : errors * 100.0 / count;
+    }
+}
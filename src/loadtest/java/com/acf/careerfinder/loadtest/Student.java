@@ -0,0 +1,228 @@
+package com.acf.careerfinder.loadtest;
+
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One simulated student: the browser journey from login to sector advice, as plain HTTP
+ * (session cookie kept by hand, redirects not followed so each call is timed on its own).
+ *
+ * Questionnaire answers come from whatever the rendered pages offer, so the journey works
+ * against any question bank. A failed step aborts the rest of this student's journey.
+ */
+final class Student {
+
+    /** Step failed; the journey cannot continue meaningfully. */
+    static final class Aborted extends RuntimeException {
+        Aborted(String msg) { super(msg, null, false, false); }
+    }
+
+    private record Res(int status, String location, String body) {
+        boolean redirectTo(String path) {
+            return status == 302 && location != null && location.contains(path);
+        }
+    }
+
+    private static final ObjectMapper M = new ObjectMapper();
+
+    private static final Pattern TOTAL_PAGES = Pattern.compile("Page (\\d+) of (\\d+)");
+    private static final Pattern SINGLE_OPT = Pattern.compile("name=\"answers\\[([^\\]]+)\\]\"\\s+value=\"([^\"]*)\"");
+    private static final Pattern MULTI_OPT = Pattern.compile("data-key=\"([^\"]+)\"\\s+value=\"([^\"]*)\"");
+    private static final Pattern SECTOR = Pattern.compile("data-sector-id=\"([^\"]+)\"\\s+data-detail=\"(full|brief)\"");
+
+    private final HttpClient http;
+    private final String base;
+    private final LatencyStats stats;
+    private final Random rnd;
+    private final long thinkMs;
+    private final int narrativePolls;
+
+    final String email;
+    private final String password;
+    private String cookie;
+
+    Student(int id, HttpClient http, String base, LatencyStats stats, long seed, long thinkMs, int narrativePolls) {
+        this.http = http;
+        this.base = base;
+        this.stats = stats;
+        this.rnd = new Random(seed + id);
+        this.thinkMs = thinkMs;
+        this.narrativePolls = narrativePolls;
+        this.email = "student" + id + "-" + seed + "@loadtest.local";
+        this.password = "pass" + id + "word";
+    }
+
+    void register() {
+        form("POST /CreateUser", "/CreateUser",
+                Map.of("email", email, "username", email.substring(0, email.indexOf('@')), "userpassword", password),
+                r -> r.redirectTo("/resume"));
+        cookie = null; // log in again with the class
+    }
+
+    void journey() {
+        // --- login + gating ---
+        form("POST /CheckLogin", "/CheckLogin", Map.of("email", email, "password", password),
+                r -> r.redirectTo("/resume"));
+        think();
+        get("GET /gating", "/gating", r -> r.status() == 200);
+
+        Map<String, String> gate = SyntheticBank.gateAnswers(rnd);
+        for (Map<String, String> chunk : chunks(gate, 3)) {
+            autosave("GATING", chunk, 1);
+            think();
+        }
+        Map<String, String> gateForm = new LinkedHashMap<>();
+        gateForm.put("answers[gate.Q25_state]", "MH");
+        gate.forEach((k, v) -> gateForm.put("answers[" + k + "]", v));
+        for (int q = 1; q <= 24; q++) gateForm.putIfAbsent("answers[gate.Q" + q + "]", "A"); // form requires all
+        form("POST /gating", "/gating", gateForm, r -> r.redirectTo("/questionnaire"));
+
+        // --- questionnaire: every page, autosave per page, submit from the last ---
+        Map<String, String> lastPage = Map.of();
+        int total = 1;
+        for (int page = 1; page <= total; page++) {
+            Res r = get("GET /questionnaire", "/questionnaire?page=" + page, x -> x.status() == 200);
+            Matcher m = TOTAL_PAGES.matcher(r.body());
+            if (m.find()) total = Integer.parseInt(m.group(2));
+
+            lastPage = answerPage(r.body());
+            for (Map<String, String> chunk : chunks(lastPage, 2)) {
+                autosave("QUESTIONNAIRE", chunk, page);
+                think();
+            }
+        }
+        Map<String, String> submit = new LinkedHashMap<>();
+        lastPage.forEach((k, v) -> submit.put("answers[" + k + "]", v));
+        form("POST /questionnaire/submit", "/questionnaire/submit", submit, r -> r.redirectTo("/result"));
+
+        // --- result, narrative, advice for the cards a student opens ---
+        Res result = get("GET /result", "/result", r -> r.status() == 200);
+        for (int i = 0; i < narrativePolls; i++) {
+            Res s = get("GET /result/narrative", "/result/narrative", r -> r.status() == 200);
+            if (s.body().contains("DONE")) break;
+            sleep(1000);
+        }
+
+        List<String[]> cards = new ArrayList<>();
+        Matcher sm = SECTOR.matcher(result.body());
+        while (sm.find()) cards.add(new String[] { sm.group(1), sm.group(2) });
+        int full = 0, brief = 0;
+        for (String[] c : cards) {
+            boolean isFull = "full".equals(c[1]);
+            if (isFull ? full++ >= 2 : brief++ >= 1) continue;
+            think();
+            get("GET /api/sector-advice", "/api/sector-advice?sectorId=" + enc(c[0]) + "&detail=" + c[1],
+                    r -> r.status() == 200 && r.body().contains("\"sectorId\""));
+        }
+    }
+
+    /** Random answer for every question on the page (1–3 picks for multi-select). */
+    private Map<String, String> answerPage(String html) {
+        Map<String, List<String>> single = options(SINGLE_OPT, html);
+        Map<String, List<String>> multi = options(MULTI_OPT, html);
+        Map<String, String> out = new LinkedHashMap<>();
+        single.forEach((k, opts) -> out.put(k, opts.get(rnd.nextInt(opts.size()))));
+        multi.forEach((k, opts) -> {
+            List<String> shuffled = new ArrayList<>(opts);
+            Collections.shuffle(shuffled, rnd);
+            out.put(k, String.join(",", shuffled.subList(0, 1 + rnd.nextInt(Math.min(3, shuffled.size())))));
+        });
+        return out;
+    }
+
+    private static Map<String, List<String>> options(Pattern p, String html) {
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        Matcher m = p.matcher(html);
+        while (m.find()) out.computeIfAbsent(m.group(1), k -> new ArrayList<>()).add(m.group(2));
+        return out;
+    }
+
+    private void autosave(String section, Map<String, String> answers, int page) {
+        try {
+            byte[] body = M.writeValueAsBytes(Map.of("section", section, "answers", answers, "page", page));
+            send("POST /api/progress", request("/api/progress")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(body)),
+                    r -> r.status() == 200);
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Res get(String route, String path, Predicate<Res> ok) {
+        return send(route, request(path).GET(), ok);
+    }
+
+    private Res form(String route, String path, Map<String, String> fields, Predicate<Res> ok) {
+        StringJoiner body = new StringJoiner("&");
+        fields.forEach((k, v) -> body.add(enc(k) + "=" + enc(v)));
+        return send(route, request(path)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())), ok);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(base + path)).timeout(Duration.ofSeconds(60));
+        if (cookie != null) b.header("Cookie", cookie);
+        return b;
+    }
+
+    private Res send(String route, HttpRequest.Builder b, Predicate<Res> ok) {
+        long t0 = System.nanoTime();
+        Res res;
+        try {
+            HttpResponse<String> r = http.send(b.build(), HttpResponse.BodyHandlers.ofString());
+            r.headers().allValues("Set-Cookie").stream()
+                    .filter(c -> c.startsWith("JSESSIONID="))
+                    .findFirst()
+                    .ifPresent(c -> cookie = c.substring(0, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()));
+            res = new Res(r.statusCode(), r.headers().firstValue("Location").orElse(null), r.body());
+        } catch (Exception e) {
+            stats.record(route, System.nanoTime() - t0, false);
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new Aborted(route + ": " + e);
+        }
+        boolean good = ok.test(res);
+        stats.record(route, System.nanoTime() - t0, good);
+        if (!good) throw new Aborted(route + ": HTTP " + res.status() + (res.location() == null ? "" : " → " + res.location()));
+        return res;
+    }
+
+    private static List<Map<String, String>> chunks(Map<String, String> all, int parts) {
+        List<Map<String, String>> out = new ArrayList<>();
+        for (int i = 0; i < parts; i++) out.add(new LinkedHashMap<>());
+        int i = 0;
+        for (Map.Entry<String, String> e : all.entrySet()) out.get(i++ % parts).put(e.getKey(), e.getValue());
+        out.removeIf(Map::isEmpty);
+        return out;
+    }
+
+    private void think() {
+        if (thinkMs > 0) sleep(rnd.nextInt((int) Math.min(Integer.MAX_VALUE, 2 * thinkMs)));
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Aborted("interrupted");
+        }
+    }
+
+    private static String enc(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+}
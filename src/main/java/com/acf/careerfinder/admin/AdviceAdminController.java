@@ -0,0 +1,61 @@
+package com.acf.careerfinder.admin;
+
+import com.acf.careerfinder.advice.AdvicePrecomputeService;
+import com.acf.careerfinder.advice.AdvicePrecomputeService.RunStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Offline sector advice precompute: start a run over the advice matrix and poll its progress. */
+@RestController
+@RequestMapping(path = "/admin/advice/precompute", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AdviceAdminController {
+
+    private final AdvicePrecomputeService precompute;
+    private final AdminGuard guard;
+
+    public AdviceAdminController(AdvicePrecomputeService precompute, AdminGuard guard) {
+        this.precompute = precompute;
+        this.guard = guard;
+    }
+
+    /** Starts a run (or returns the one already running). Results land in sector_advice_precomputed. */
+    @PostMapping
+    public Map<String, Object> start(@RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                     @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        return view(precompute.start());
+    }
+
+    @GetMapping("/{runId}")
+    public Map<String, Object> status(@PathVariable("runId") String runId,
+                                      @RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                      @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        return precompute.status(runId).map(AdviceAdminController::view)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown run: " + runId));
+    }
+
+    private static Map<String, Object> view(RunStatus st) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("runId", st.runId);
+        out.put("state", st.state().name());
+        out.put("version", st.version);
+        out.put("total", st.total());
+        out.put("skipped", st.skipped());
+        out.put("done", st.done());
+        out.put("failed", st.failed());
+        out.put("startedAt", st.startedAt.toString());
+        out.put("finishedAt", st.finishedAt() == null ? null : st.finishedAt().toString());
+        out.put("error", st.error());
+        return out;
+    }
+
+    private static String first(String a, String b) {
+        return (a != null && !a.isBlank()) ? a : b;
+    }
+}
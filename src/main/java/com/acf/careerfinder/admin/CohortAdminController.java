@@ -0,0 +1,60 @@
+package com.acf.careerfinder.admin;
+
+import com.acf.careerfinder.service.CohortRankingService;
+import com.acf.careerfinder.service.CohortRankingService.RunStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Offline cohort re-ranking: start a run over all completed users and poll its progress. */
+@RestController
+@RequestMapping(path = "/admin/cohort/runs", produces = MediaType.APPLICATION_JSON_VALUE)
+public class CohortAdminController {
+
+    private final CohortRankingService cohort;
+    private final AdminGuard guard;
+
+    public CohortAdminController(CohortRankingService cohort, AdminGuard guard) {
+        this.cohort = cohort;
+        this.guard = guard;
+    }
+
+    /** Starts a run (or returns the one already running). Results land in sector_ranking_run. */
+    @PostMapping
+    public Map<String, Object> start(@RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                     @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        return view(cohort.start());
+    }
+
+    @GetMapping("/{runId}")
+    public Map<String, Object> status(@PathVariable("runId") String runId,
+                                      @RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                      @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        return cohort.status(runId).map(CohortAdminController::view)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown run: " + runId));
+    }
+
+    private static Map<String, Object> view(RunStatus st) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("runId", st.runId);
+        out.put("state", st.state().name());
+        out.put("users", st.users());
+        out.put("failed", st.failed());
+        out.put("scoringVersion", st.scoringVersion);
+        out.put("sectorVersion", st.sectorVersion);
+        out.put("startedAt", st.startedAt.toString());
+        out.put("finishedAt", st.finishedAt() == null ? null : st.finishedAt().toString());
+        out.put("error", st.error());
+        return out;
+    }
+
+    private static String first(String a, String b) {
+        return (a != null && !a.isBlank()) ? a : b;
+    }
+}
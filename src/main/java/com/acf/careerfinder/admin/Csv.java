@@ -0,0 +1,93 @@
+package com.acf.careerfinder.admin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Minimal RFC 4180 CSV: quoted fields, doubled quotes, commas and line breaks inside quotes. */
+final class Csv {
+    private Csv() {}
+
+    /** One record, newline-terminated; fields quoted only when needed. Null is written as empty. */
+    static String line(List<String> fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) sb.append(',');
+            String f = fields.get(i) == null ? "" : fields.get(i);
+            if (f.indexOf(',') >= 0 || f.indexOf('"') >= 0 || f.indexOf('\n') >= 0 || f.indexOf('\r') >= 0) {
+                sb.append('"').append(f.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(f);
+            }
+        }
+        return sb.append('\n').toString();
+    }
+
+    /** Streaming record reader; blank lines are skipped. */
+    static final class Reader {
+        private final BufferedReader in;
+        private long line = 1;
+        private long recordLine;
+
+        Reader(BufferedReader in) {
+            this.in = in;
+        }
+
+        /** Physical line the last record returned by {@link #next()} started on (1-based). */
+        long recordLine() {
+            return recordLine;
+        }
+
+        /**
+         * Next record, or null at end of input.
+         * @throws IllegalArgumentException if a quoted field is never closed (the rest of the input is consumed)
+         */
+        List<String> next() throws IOException {
+            int c = in.read();
+            while (c == '\r' || c == '\n') {
+                if (c == '\n') line++;
+                c = in.read();
+            }
+            if (c == -1) return null;
+            recordLine = line;
+
+            List<String> out = new ArrayList<>();
+            StringBuilder f = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) throw new IllegalArgumentException("Unterminated quoted field in record starting on line " + recordLine);
+                    if (c == '"') {
+                        int d = in.read();
+                        if (d != '"') {        // closing quote
+                            quoted = false;
+                            c = d;
+                            continue;
+                        }
+                        f.append('"');         // "" inside quotes
+                    } else {
+                        if (c == '\n') line++;
+                        f.append((char) c);
+                    }
+                } else if (c == '"' && f.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    out.add(f.toString());
+                    f.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    out.add(f.toString());
+                    if (c == '\r') {
+                        in.mark(1);
+                        if (in.read() != '\n') in.reset();
+                    }
+                    line++;
+                    return out;
+                } else {
+                    f.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+}
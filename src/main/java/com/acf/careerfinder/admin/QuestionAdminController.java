@@ -1,12 +1,20 @@
 package com.acf.careerfinder.admin;
 
+import com.acf.careerfinder.admin.QuestionBankTransferService.Format;
+import com.acf.careerfinder.admin.QuestionBankTransferService.ImportReport;
 import com.acf.careerfinder.model.QItem;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
@@ -16,10 +24,14 @@ import java.util.Optional;
 public class QuestionAdminController {
 
     private final QuestionAdminService service;
+    private final QuestionBankTransferService transfer;
     private final AdminGuard guard;
 
-    public QuestionAdminController(QuestionAdminService service, AdminGuard guard) {
+    public QuestionAdminController(QuestionAdminService service,
+                                   QuestionBankTransferService transfer,
+                                   AdminGuard guard) {
         this.service = service;
+        this.transfer = transfer;
         this.guard = guard;
     }
 
@@ -64,6 +76,37 @@ public class QuestionAdminController {
                 .orElseThrow(() -> new IllegalArgumentException("Not found: " + qkey));
     }
 
+    /**
+     * Bulk import: NDJSON or CSV body (format from ?format= or Content-Type). All rows are
+     * validated first; nothing is written unless every row is valid (422 with the row errors).
+     * dryRun=true only validates.
+     */
+    @PostMapping(path = "/import", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<ImportReport> importBank(InputStream body,
+                                                   @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                   @RequestParam(value = "format", required = false) String format,
+                                                   @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun,
+                                                   @RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                                   @RequestParam(value = "secret", required = false) String paramSecret) throws IOException {
+        guard.check(first(hdrSecret, paramSecret));
+        ImportReport report = transfer.importBank(body, Format.of(format, contentType), dryRun);
+        return ResponseEntity.status(report.ok() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY).body(report);
+    }
+
+    /** Streams the whole bank (all locales) as NDJSON (default) or CSV, importable as-is. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", required = false) String format,
+                                                        @RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                                        @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        Format f = Format.of(format, null);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(f.mediaType + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"question-bank." + f.extension + "\"")
+                .body(out -> transfer.export(f, out));
+    }
+
     @GetMapping("/list")
     public String list(@RequestParam(value = "lang", required = false) String lang,
                        HttpSession session,
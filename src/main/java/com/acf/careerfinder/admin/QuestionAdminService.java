@@ -8,6 +8,7 @@ import com.acf.careerfinder.repository.QItemRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -20,20 +21,37 @@ public class QuestionAdminService {
 
     private final QItemRepository qItemRepo;
     private final QItemLocaleRepository qItemLocaleRepo;
+    private final ApplicationEventPublisher events;
     private static final ObjectMapper M = new ObjectMapper();
 
     private static final Pattern IPIP = Pattern.compile("^ipip\\.(O|C|E|A|ES)\\.\\d{2}$", Pattern.CASE_INSENSITIVE);
     private static final Pattern SJT  = Pattern.compile("^sjt\\.T\\d{2}\\.\\d{2}$", Pattern.CASE_INSENSITIVE);
 
     public QuestionAdminService(QItemRepository qItemRepo,
-                                QItemLocaleRepository qItemLocaleRepo) {
+                                QItemLocaleRepository qItemLocaleRepo,
+                                ApplicationEventPublisher events) {
         this.qItemRepo = qItemRepo;
         this.qItemLocaleRepo = qItemLocaleRepo;
+        this.events = events;
     }
 
+    /** A row that passed {@link #validate}: the normalized form and its resolved qtype. */
+    public record ValidQuestion(AdminQuestionDTO dto, QItem.QType qtype) {}
+
+    /** Outcome of {@link #applyAll}. */
+    public record Applied(int created, int updated) {}
+
     /** Create or update a question, with strong validation. */
     @Transactional
     public void upsert(AdminQuestionDTO dto) {
+        applyAll(List.of(validate(dto)));
+    }
+
+    /**
+     * Every admin rule for one question; normalizes {@code dto} in place (qkey, section, qtype,
+     * meta, hi/mr fallbacks). No DB access. Throws IllegalArgumentException with the reason.
+     */
+    public ValidQuestion validate(AdminQuestionDTO dto) {
         if (blank(dto.getQkey())) throw new IllegalArgumentException("qkey required");
 
         normalizeQkeyAndSection(dto);                 // canonicalize qkey + section
@@ -41,26 +59,71 @@ public class QuestionAdminService {
         QItem.QType qtype = normalizeAndCheckQType(dto, meta); // align qtype with meta, enforce kind vs qkey
         ensureOptionsConsistency(dto, qtype, meta);  // stable values + required sets
         ensureQuestionsPresent(dto);                 // ensure texts exist; hi/mr inherit en
+        return new ValidQuestion(dto, qtype);
+    }
 
-        // Upsert item
-        QItem item = qItemRepo.findByQkey(dto.getQkey()).orElseGet(QItem::new);
-        if (item.getQkey() == null) item.setQkey(dto.getQkey());
-        item.setSectionKey(dto.getSectionKey());
-        item.setOrderIndex(dto.getOrderIndex() == null ? 0 : dto.getOrderIndex());
-        item.setQtype(qtype);
-        item.setRequired(dto.isRequired());
-        item.setActive(dto.isActive());
-        item.setMetaJson(dto.getMetaJson());
-        item = qItemRepo.save(item);
+    /**
+     * Write validated questions with their en/hi/mr locales: two reads for the whole set
+     * (items by qkey, then their locales), inserts/updates batched at flush, and a single
+     * QuestionBankChangedEvent. qkeys must be unique within {@code rows}.
+     */
+    @Transactional
+    public Applied applyAll(List<ValidQuestion> rows) {
+        if (rows.isEmpty()) return new Applied(0, 0);
+
+        Set<String> qkeys = new HashSet<>();
+        for (ValidQuestion r : rows) {
+            if (!qkeys.add(r.dto().getQkey())) throw new IllegalArgumentException("Duplicate qkey: " + r.dto().getQkey());
+        }
+        Map<String, QItem> existing = qItemRepo.findByQkeyIn(qkeys).stream()
+                .collect(Collectors.toMap(QItem::getQkey, Function.identity()));
+        Map<String, QItemLocale> locales = new HashMap<>();
+        if (!existing.isEmpty()) {
+            List<Long> ids = existing.values().stream().map(QItem::getId).toList();
+            for (QItemLocale l : qItemLocaleRepo.findByItemIdIn(ids)) {
+                locales.put(localeKey(l.getItem().getId(), l.getLocale()), l);
+            }
+        }
+
+        // Upsert items
+        List<QItem> items = new ArrayList<>(rows.size());
+        int created = 0;
+        for (ValidQuestion r : rows) {
+            AdminQuestionDTO dto = r.dto();
+            QItem item = existing.get(dto.getQkey());
+            if (item == null) {
+                item = new QItem();
+                item.setQkey(dto.getQkey());
+                created++;
+            }
+            item.setSectionKey(dto.getSectionKey());
+            item.setOrderIndex(dto.getOrderIndex() == null ? 0 : dto.getOrderIndex());
+            item.setQtype(r.qtype());
+            item.setRequired(dto.isRequired());
+            item.setActive(dto.isActive());
+            item.setMetaJson(dto.getMetaJson());
+            items.add(item);
+        }
+        items = qItemRepo.saveAll(items);
 
         // Upsert locales (mr/hi inherit English options json when blank)
-        upsertLocale(item, "en", dto.getEnQuestion(), dto.getEnOptionsJson());
-        upsertLocale(item, "hi",
-                orElse(dto.getHiQuestion(), dto.getEnQuestion()),
-                orElse(dto.getHiOptionsJson(), dto.getEnOptionsJson()));
-        upsertLocale(item, "mr",
-                orElse(dto.getMrQuestion(), dto.getEnQuestion()),
-                orElse(dto.getMrOptionsJson(), dto.getEnOptionsJson()));
+        List<QItemLocale> rowsOut = new ArrayList<>(items.size() * 3);
+        for (int i = 0; i < items.size(); i++) {
+            QItem item = items.get(i);
+            AdminQuestionDTO dto = rows.get(i).dto();
+            rowsOut.add(locale(locales, item, "en", dto.getEnQuestion(), dto.getEnOptionsJson()));
+            rowsOut.add(locale(locales, item, "hi",
+                    orElse(dto.getHiQuestion(), dto.getEnQuestion()),
+                    orElse(dto.getHiOptionsJson(), dto.getEnOptionsJson())));
+            rowsOut.add(locale(locales, item, "mr",
+                    orElse(dto.getMrQuestion(), dto.getEnQuestion()),
+                    orElse(dto.getMrOptionsJson(), dto.getEnOptionsJson())));
+        }
+        qItemLocaleRepo.saveAll(rowsOut);
+
+        // compiled copies of the bank (scoring plan etc.) rebuild after commit
+        events.publishEvent(new QuestionBankChangedEvent(rows.size() == 1 ? rows.get(0).dto().getQkey() : null));
+        return new Applied(created, rows.size() - created);
     }
 
     @Transactional
@@ -69,18 +132,24 @@ public class QuestionAdminService {
                 .orElseThrow(() -> new IllegalArgumentException("Unknown qkey: " + qkey));
         qItemLocaleRepo.deleteByItemId(item.getId());
         qItemRepo.delete(item);
+        events.publishEvent(new QuestionBankChangedEvent(qkey));
     }
 
     // ---------- helpers ----------
 
-    private void upsertLocale(QItem item, String locale, String questionText, String optionsJson) {
-        QItemLocale row = qItemLocaleRepo.findByItemIdAndLocale(item.getId(), locale)
-                .orElseGet(QItemLocale::new);
+    private static QItemLocale locale(Map<String, QItemLocale> existing, QItem item, String locale,
+                                      String questionText, String optionsJson) {
+        QItemLocale row = existing.get(localeKey(item.getId(), locale));
+        if (row == null) row = new QItemLocale();
         row.setItem(item);
         row.setLocale(locale);
         row.setQuestionText(nonNull(questionText));
         row.setOptionsJson(nonNull(optionsJson));
-        qItemLocaleRepo.save(row);
+        return row;
+    }
+
+    private static String localeKey(Long itemId, String locale) {
+        return itemId + ":" + locale;
     }
 
     public Optional<QItem> findByQkey(String qkey) { return qItemRepo.findByQkey(qkey); }
@@ -0,0 +1,9 @@
+package com.acf.careerfinder.admin;
+
+/**
+ * Published by {@link QuestionAdminService} whenever the q_item bank is written.
+ * Listeners that keep compiled/in-memory copies of the bank rebuild on it
+ * (use @TransactionalEventListener so they only see committed rows).
+ * qkey is the single item written, or null for a bulk import.
+ */
+public record QuestionBankChangedEvent(String qkey) {}
@@ -0,0 +1,315 @@
+package com.acf.careerfinder.admin;
+
+import com.acf.careerfinder.admin.QuestionAdminService.Applied;
+import com.acf.careerfinder.admin.QuestionAdminService.ValidQuestion;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+
+/**
+ * Bulk question bank transfer (/admin/questions/import and /export).
+ *
+ * Import reads NDJSON (one JSON object per line) or CSV (header row) row by row, with the
+ * columns in {@link #COLUMNS}. Every row goes through {@link QuestionAdminService#validate};
+ * a qkey may appear once per file. Only when every row is valid is the whole set written by
+ * {@link QuestionAdminService#applyAll} in one transaction; otherwise nothing is written and
+ * the report lists each bad row (line, qkey, reason).
+ *
+ * Export streams q_item joined with its en/hi/mr locales through a server-side cursor, one
+ * row at a time, in the same columns, so an export can be edited and imported again.
+ */
+@Service
+public class QuestionBankTransferService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        public final String mediaType;
+        public final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        /** Explicit ?format= wins; else text/csv → CSV; anything else is NDJSON. */
+        public static Format of(String param, String contentType) {
+            if (param != null && !param.isBlank()) {
+                try {
+                    return valueOf(param.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("format must be ndjson or csv");
+                }
+            }
+            return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv") ? CSV : NDJSON;
+        }
+    }
+
+    /** Field names (NDJSON keys / CSV header), as in {@link AdminQuestionDTO}. */
+    public static final List<String> COLUMNS = List.of(
+            "qkey", "sectionKey", "qtype", "orderIndex", "required", "active", "metaJson",
+            "enQuestion", "enOptionsJson", "hiQuestion", "hiOptionsJson", "mrQuestion", "mrOptionsJson");
+
+    /** Reported errors are capped; errorCount has the total. */
+    private static final int MAX_REPORTED_ERRORS = 500;
+
+    public record RowError(long line, String qkey, String error) {}
+
+    public record ImportReport(Format format, boolean dryRun, int rows, int valid, int created, int updated,
+                               int errorCount, List<RowError> errors) {
+        public boolean ok() { return errorCount == 0; }
+    }
+
+    private static final String EXPORT_SQL = """
+            SELECT q.qkey, q.section_key, q.qtype, q.order_index, q.required, q.active, q.meta_json,
+                   en.question_text, en.options_json, hi.question_text, hi.options_json,
+                   mr.question_text, mr.options_json
+              FROM q_item q
+              LEFT JOIN q_item_locale en ON en.q_item_id = q.id AND en.locale = 'en'
+              LEFT JOIN q_item_locale hi ON hi.q_item_id = q.id AND hi.locale = 'hi'
+              LEFT JOIN q_item_locale mr ON mr.q_item_id = q.id AND mr.locale = 'mr'
+             ORDER BY q.section_key, q.order_index, q.qkey
+            """;
+
+    private final QuestionAdminService admin;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readTx;
+    private final ObjectMapper M = new ObjectMapper();
+
+    private final int maxRows;
+    private final int fetchSize;
+
+    public QuestionBankTransferService(QuestionAdminService admin,
+                                       JdbcTemplate jdbc,
+                                       PlatformTransactionManager txManager,
+                                       @Value("${admin.import.max-rows:5000}") int maxRows,
+                                       @Value("${admin.export.fetch-size:500}") int fetchSize) {
+        this.admin = admin;
+        this.jdbc = jdbc;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true); // PG only streams with a cursor inside a transaction
+        this.maxRows = Math.max(1, maxRows);
+        this.fetchSize = Math.max(50, fetchSize);
+    }
+
+    /* -------------------- import -------------------- */
+
+    /** Collects valid rows and errors while the input is read. */
+    private final class Collector {
+        final List<ValidQuestion> valid = new ArrayList<>();
+        final List<RowError> errors = new ArrayList<>();
+        final Set<String> seen = new HashSet<>();
+        int rows;
+        int errorCount;
+
+        /** Count one data row; false once max-rows is exceeded (reading stops). */
+        private boolean row(long line) {
+            if (++rows > maxRows) {
+                error(line, null, "More than " + maxRows + " rows (admin.import.max-rows); split the file");
+                return false;
+            }
+            return true;
+        }
+
+        /** A row that parsed into fields; false once max-rows is exceeded. */
+        boolean accept(long line, Map<String, String> fields) {
+            if (!row(line)) return false;
+            String qkey = fields.get("qkey");
+            try {
+                ValidQuestion v = admin.validate(toDto(fields));
+                if (!seen.add(v.dto().getQkey())) {
+                    throw new IllegalArgumentException("Duplicate qkey " + v.dto().getQkey() + " in this file");
+                }
+                valid.add(v);
+            } catch (RuntimeException e) {
+                error(line, qkey, e.getMessage());
+            }
+            return true;
+        }
+
+        /** A row that did not parse (bad JSON, wrong field count); counts against max-rows like any other. */
+        boolean reject(long line, String msg) {
+            if (!row(line)) return false;
+            error(line, null, msg);
+            return true;
+        }
+
+        void error(long line, String qkey, String msg) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RowError(line, qkey, msg));
+        }
+    }
+
+    /** Validate every row; unless dryRun or any row failed, write them all in one transaction. */
+    public ImportReport importBank(InputStream body, Format format, boolean dryRun) throws IOException {
+        Collector c = new Collector();
+        BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        if (format == Format.CSV) readCsv(in, c);
+        else readNdjson(in, c);
+
+        Applied applied = (dryRun || c.errorCount > 0 || c.valid.isEmpty())
+                ? new Applied(0, 0)
+                : admin.applyAll(c.valid);
+        return new ImportReport(format, dryRun, Math.min(c.rows, maxRows), c.valid.size(),
+                applied.created(), applied.updated(), c.errorCount, c.errors);
+    }
+
+    private void readNdjson(BufferedReader in, Collector c) throws IOException {
+        long line = 0;
+        for (String text; (text = in.readLine()) != null; ) {
+            line++;
+            if (text.isBlank()) continue;
+            Map<String, String> fields;
+            try {
+                fields = fields(M.readTree(text));
+            } catch (IOException | IllegalArgumentException e) {
+                if (!c.reject(line, e instanceof IOException ? "Bad JSON: " + e.getMessage() : e.getMessage())) return;
+                continue;
+            }
+            if (!c.accept(line, fields)) return;
+        }
+    }
+
+    /** JSON object → column values; metaJson / *OptionsJson may be given as JSON or as a string. */
+    private static Map<String, String> fields(JsonNode n) {
+        if (!n.isObject()) throw new IllegalArgumentException("Each line must be a JSON object");
+        Map<String, String> out = new HashMap<>();
+        for (Iterator<String> it = n.fieldNames(); it.hasNext(); ) {
+            String name = it.next();
+            if (!COLUMNS.contains(name)) throw new IllegalArgumentException("Unknown field: " + name);
+            JsonNode v = n.get(name);
+            out.put(name, v.isNull() ? null : v.isContainerNode() ? v.toString() : v.asText());
+        }
+        return out;
+    }
+
+    private void readCsv(BufferedReader in, Collector c) throws IOException {
+        Csv.Reader csv = new Csv.Reader(in);
+        try {
+            readCsv(csv, c);
+        } catch (IllegalArgumentException malformed) { // unterminated quote: ran to end of input
+            c.reject(csv.recordLine(), malformed.getMessage());
+        }
+    }
+
+    private void readCsv(Csv.Reader csv, Collector c) throws IOException {
+        List<String> header = csv.next();
+        if (header == null) return;
+        header = header.stream().map(h -> h.replace("\uFEFF", "").trim()).toList();
+        for (String h : header) {
+            if (!COLUMNS.contains(h)) {
+                c.error(csv.recordLine(), null, "Unknown column: " + h);
+                return;
+            }
+        }
+        if (!header.contains("qkey")) {
+            c.error(csv.recordLine(), null, "Header must contain qkey");
+            return;
+        }
+
+        for (List<String> rec; (rec = csv.next()) != null; ) {
+            if (rec.size() != header.size()) {
+                if (!c.reject(csv.recordLine(), "Expected " + header.size() + " fields, got " + rec.size())) return;
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) fields.put(header.get(i), rec.get(i));
+            if (!c.accept(csv.recordLine(), fields)) return;
+        }
+    }
+
+    /** required/active default to true when absent; orderIndex must be an integer if given. */
+    private static AdminQuestionDTO toDto(Map<String, String> f) {
+        AdminQuestionDTO dto = new AdminQuestionDTO();
+        dto.setQkey(f.get("qkey"));
+        dto.setSectionKey(f.get("sectionKey"));
+        dto.setQtype(f.get("qtype"));
+        String order = f.get("orderIndex");
+        if (order != null && !order.isBlank()) {
+            try {
+                dto.setOrderIndex(Integer.parseInt(order.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("orderIndex must be an integer, got: " + order);
+            }
+        }
+        dto.setRequired(bool(f.get("required"), "required"));
+        dto.setActive(bool(f.get("active"), "active"));
+        dto.setMetaJson(f.get("metaJson"));
+        dto.setEnQuestion(f.get("enQuestion"));
+        dto.setEnOptionsJson(f.get("enOptionsJson"));
+        dto.setHiQuestion(f.get("hiQuestion"));
+        dto.setHiOptionsJson(f.get("hiOptionsJson"));
+        dto.setMrQuestion(f.get("mrQuestion"));
+        dto.setMrOptionsJson(f.get("mrOptionsJson"));
+        return dto;
+    }
+
+    private static boolean bool(String v, String name) {
+        if (v == null || v.isBlank()) return true;
+        return switch (v.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "t", "1", "yes", "y" -> true;
+            case "false", "f", "0", "no", "n" -> false;   // t/f: PostgreSQL's text form (older exports)
+            default -> throw new IllegalArgumentException(name + " must be true or false, got: " + v);
+        };
+    }
+
+    /* -------------------- export -------------------- */
+
+    /** Write the whole bank to {@code out}, one row at a time (never the whole bank in memory). */
+    public void export(Format format, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) w.write(Csv.line(COLUMNS));
+        try {
+            readTx.executeWithoutResult(tx -> jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    String row = format == Format.CSV ? Csv.line(csvRow(rs)) : ndjsonRow(rs);
+                    w.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client went away: stop reading
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        w.flush();
+    }
+
+    private static List<String> csvRow(ResultSet rs) throws java.sql.SQLException {
+        List<String> row = new ArrayList<>(COLUMNS.size());
+        for (int i = 1; i <= COLUMNS.size(); i++) {
+            // booleans as true/false; getString would give PostgreSQL's t/f
+            row.add(i == 5 || i == 6 ? String.valueOf(rs.getBoolean(i)) : rs.getString(i));
+        }
+        return row;
+    }
+
+    private String ndjsonRow(ResultSet rs) throws java.sql.SQLException, IOException {
+        ObjectNode n = M.createObjectNode();
+        n.put("qkey", rs.getString(1));
+        n.put("sectionKey", rs.getString(2));
+        n.put("qtype", rs.getString(3));
+        n.put("orderIndex", rs.getInt(4));
+        n.put("required", rs.getBoolean(5));
+        n.put("active", rs.getBoolean(6));
+        for (int i = 7; i <= COLUMNS.size(); i++) n.put(COLUMNS.get(i - 1), rs.getString(i));
+        return M.writeValueAsString(n) + "\n";
+    }
+}
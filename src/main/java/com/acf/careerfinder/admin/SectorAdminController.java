@@ -0,0 +1,90 @@
+package com.acf.careerfinder.admin;
+
+import com.acf.careerfinder.sector.SectorConfigService;
+import com.acf.careerfinder.sector.SectorConfigSnapshot;
+import com.acf.careerfinder.service.SectorWhatIfService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Sector config: inspect the live snapshot and hot-reload it from its configured paths. */
+@RestController
+@RequestMapping(path = "/admin/sectors", produces = MediaType.APPLICATION_JSON_VALUE)
+public class SectorAdminController {
+
+    private final SectorConfigService cfg;
+    private final SectorWhatIfService whatIf;
+    private final AdminGuard guard;
+    private final ObjectMapper M = new ObjectMapper();
+
+    public SectorAdminController(SectorConfigService cfg, SectorWhatIfService whatIf, AdminGuard guard) {
+        this.cfg = cfg;
+        this.whatIf = whatIf;
+        this.guard = guard;
+    }
+
+    @GetMapping("/config")
+    public Map<String, Object> current(@RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                       @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        SectorConfigSnapshot s = cfg.snapshot();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("version", s.version());
+        out.put("sectorCount", s.matrix().size());
+        out.put("loadedAt", s.loadedAt().toString());
+        out.put("paths", cfg.paths());
+        return out;
+    }
+
+    /** Validate-then-swap; on any problem the previous snapshot stays live. */
+    @PostMapping("/reload")
+    public Map<String, Object> reload(@RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                      @RequestParam(value = "secret", required = false) String paramSecret) {
+        guard.check(first(hdrSecret, paramSecret));
+        SectorConfigService.ReloadResult r = cfg.reload();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("ok", r.report().ok());
+        out.put("swapped", r.swapped());
+        out.put("version", r.version());
+        out.put("previousVersion", r.previousVersion());
+        out.put("sectorCount", r.report().sectorCount());
+        out.put("problems", r.report().problems());
+        return out;
+    }
+
+    /**
+     * Diff the cohort's rankings under live config vs a candidate.
+     * Body: {"gates": {...}, "weights": {...}} — either may be omitted to keep the live file.
+     */
+    @PostMapping(path = "/whatif", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public SectorWhatIfService.WhatIfReport whatIf(@RequestBody JsonNode body,
+                                                   @RequestParam(value = "sample", defaultValue = "100") int samplePercent,
+                                                   @RequestHeader(value = "X-Admin-Secret", required = false) String hdrSecret,
+                                                   @RequestParam(value = "secret", required = false) String paramSecret)
+            throws JsonProcessingException {
+        guard.check(first(hdrSecret, paramSecret));
+        SectorConfigService.Candidate candidate;
+        try {
+            candidate = cfg.candidate(bytes(body.get("gates")), bytes(body.get("weights")));
+        } catch (IllegalStateException e) {
+            // Candidate JSON did not parse into gates/weights; failures while diffing stay 5xx
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return whatIf.diff(candidate, samplePercent);
+    }
+
+    private byte[] bytes(JsonNode n) throws JsonProcessingException {
+        return (n == null || n.isNull()) ? null : M.writeValueAsBytes(n);
+    }
+
+    private static String first(String a, String b) {
+        return (a != null && !a.isBlank()) ? a : b;
+    }
+}
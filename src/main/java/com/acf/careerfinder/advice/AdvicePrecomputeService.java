@@ -0,0 +1,331 @@
+package com.acf.careerfinder.advice;
+
+import com.acf.careerfinder.advice.PrecomputedAdviceStore.Cell;
+import com.acf.careerfinder.advice.PrecomputedAdviceStore.Row;
+import com.acf.careerfinder.advice.SectorAdviceService.Prompt;
+import com.acf.careerfinder.geo.MHLocation;
+import com.acf.careerfinder.sector.model1.SectorCatalog;
+import com.acf.careerfinder.service.ChatService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offline precompute of the sector advice matrix:
+ * sectors × MH districts × languages × brief/full × DL × 2W, age left out of the prompt.
+ *
+ * Cells already stored for the current {@link SectorAdviceService#version()} are skipped, so an
+ * interrupted run resumes where it stopped. Calls go through ChatService.askJsonBatch (same
+ * timeouts and breaker as live traffic, but the separate openai.batch.max-concurrent slots, so a
+ * run cannot take the live bulkhead) from a small pool, paced to a fixed request rate;
+ * failed calls are retried with backoff. Results are written to sector_advice_precomputed in
+ * JDBC batches. Point openai.api.url at a local stub server to run it without the real API.
+ *
+ * advice.precompute.sectors limits a run to the listed sector ids (comma-separated; empty = all).
+ *
+ * One run at a time. A run whose calls have not finished within advice.precompute.drain-timeout
+ * after the last cell was submitted is stopped and marked FAILED; cells computed so far are still
+ * stored, so the next run resumes. Status is kept for the last {@value #RETAINED_RUNS} runs.
+ */
+@Service
+public class AdvicePrecomputeService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdvicePrecomputeService.class);
+
+    public enum State { RUNNING, DONE, FAILED }
+
+    /** Finished runs whose status stays queryable. */
+    static final int RETAINED_RUNS = 50;
+
+    /** Live progress of one run; counters update while it runs. */
+    public static final class RunStatus {
+        public final String runId;
+        public final String version;
+        public final Instant startedAt;
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile int total;
+        private volatile int skipped;
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        RunStatus(String runId, String version) {
+            this.runId = runId;
+            this.version = version;
+            this.startedAt = Instant.now();
+        }
+
+        /** Cells to compute in this run (excludes skipped). */
+        public int total() { return total; }
+        /** Cells already stored before the run started. */
+        public int skipped() { return skipped; }
+        public int done() { return done.get(); }
+        public int failed() { return failed.get(); }
+        public State state() { return state; }
+        public Instant finishedAt() { return finishedAt; }
+        public String error() { return error; }
+    }
+
+    /** A cell plus the display district the prompt uses. */
+    private record Task(Cell cell, String district) {}
+
+    private final SectorAdviceService adviceService;
+    private final PrecomputedAdviceStore store;
+    private final ChatService chatService;
+    private final ObjectMapper M = new ObjectMapper();
+
+    private final int threads;
+    private final double ratePerSecond;
+    private final int batchSize;
+    private final int retries;
+    private final Duration retryBackoff;
+    private final int maxConsecutiveFailures;
+    private final Duration drainTimeout;
+    private final Set<String> onlySectors;   // empty = every catalog sector
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "advice-precompute");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicReference<RunStatus> current = new AtomicReference<>();
+    private final Map<String, RunStatus> runs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RunStatus> eldest) {
+            return size() > RETAINED_RUNS; // insertion order: the running (newest) run is never dropped
+        }
+    });
+
+    public AdvicePrecomputeService(SectorAdviceService adviceService,
+                                   PrecomputedAdviceStore store,
+                                   ChatService chatService,
+                                   @Value("${advice.precompute.threads:4}") int threads,
+                                   @Value("${advice.precompute.rate-per-second:2}") double ratePerSecond,
+                                   @Value("${advice.precompute.batch-size:100}") int batchSize,
+                                   @Value("${advice.precompute.retries:2}") int retries,
+                                   @Value("${advice.precompute.retry-backoff:PT2S}") Duration retryBackoff,
+                                   @Value("${advice.precompute.max-consecutive-failures:20}") int maxConsecutiveFailures,
+                                   @Value("${advice.precompute.drain-timeout:PT1H}") Duration drainTimeout,
+                                   @Value("${advice.precompute.sectors:}") String sectors) {
+        this.adviceService = adviceService;
+        this.store = store;
+        this.chatService = chatService;
+        this.threads = Math.max(1, threads);
+        this.ratePerSecond = ratePerSecond;
+        this.batchSize = Math.max(1, batchSize);
+        this.retries = Math.max(0, retries);
+        this.retryBackoff = retryBackoff;
+        this.maxConsecutiveFailures = Math.max(1, maxConsecutiveFailures);
+        this.drainTimeout = drainTimeout;
+        this.onlySectors = new LinkedHashSet<>();
+        for (String id : sectors.split(",")) {
+            if (!id.isBlank()) onlySectors.add(id.trim());
+        }
+    }
+
+    /** Start a run in the background; returns the already running one if any. */
+    public RunStatus start() {
+        RunStatus st = new RunStatus(UUID.randomUUID().toString(), adviceService.version());
+        if (!current.compareAndSet(null, st)) return current.get();
+
+        runs.put(st.runId, st);
+        runner.execute(() -> {
+            try {
+                run(st);
+                st.state = State.DONE;
+            } catch (RuntimeException e) {
+                st.error = e.toString();
+                st.state = State.FAILED;
+                log.error("Advice precompute {} failed", st.runId, e);
+            } finally {
+                st.finishedAt = Instant.now();
+                current.set(null);
+            }
+        });
+        return st;
+    }
+
+    public Optional<RunStatus> status(String runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    private void run(RunStatus st) {
+        long t0 = System.nanoTime();
+        Set<Cell> have = store.cells(st.version);
+        List<Task> todo = new ArrayList<>();
+        int skipped = 0;
+        for (SectorCatalog.Sector s : adviceService.sectors()) {
+            if (!onlySectors.isEmpty() && !onlySectors.contains(s.id())) continue;
+            for (String district : MHLocation.districts()) {
+                String dk = SectorAdviceService.districtKey(district);
+                for (String lang : SectorAdviceService.LANGS) {
+                    for (String detail : SectorAdviceService.DETAILS) {
+                        for (boolean dl : new boolean[] { false, true }) {
+                            for (boolean tw : new boolean[] { false, true }) {
+                                Cell c = new Cell(s.id(), dk, lang, detail, dl, tw);
+                                if (have.contains(c)) skipped++;
+                                else todo.add(new Task(c, district));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        st.skipped = skipped;
+        st.total = todo.size();
+        log.info("Advice precompute {}: {} cells to compute, {} already stored (version {})",
+                st.runId, todo.size(), skipped, st.version);
+
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "advice-llm-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Semaphore inFlight = new Semaphore(threads * 2);
+        Pacer pacer = new Pacer(ratePerSecond);
+        Writer writer = new Writer(st);
+        AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        try {
+            for (Task task : todo) {
+                if (consecutiveFailures.get() >= maxConsecutiveFailures) {
+                    throw new IllegalStateException(maxConsecutiveFailures
+                            + " LLM calls failed in a row; stopping (is openai.api.url reachable and the key set?)");
+                }
+                inFlight.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        writer.add(new Row(task.cell(), compute(task, pacer)));
+                        consecutiveFailures.set(0);
+                    } catch (RuntimeException ex) {
+                        st.failed.incrementAndGet();
+                        consecutiveFailures.incrementAndGet();
+                        log.warn("Advice precompute {}: {} failed: {}", st.runId, task.cell(), ex.toString());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            try {
+                drain(pool);
+            } finally {
+                writer.flush(); // stored cells are complete; a rerun skips them
+            }
+        }
+
+        log.info("Advice precompute {}: {} stored, {} failed in {} ms",
+                st.runId, st.done(), st.failed(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** Wait for submitted calls; on timeout or interrupt stop the pool and fail the run. */
+    private void drain(ExecutorService pool) {
+        pool.shutdown();
+        try {
+            if (pool.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) return;
+            pool.shutdownNow();
+            throw new IllegalStateException("LLM calls still running " + drainTimeout + " after the last cell was submitted; run stopped");
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for LLM calls; run stopped", e);
+        }
+    }
+
+    /** One LLM call (paced), validated into the DTO exactly like live advice; retried with backoff. */
+    private String compute(Task task, Pacer pacer) {
+        Cell c = task.cell();
+        Prompt p = adviceService.prompt(c.sectorId(), c.detail(), c.lang(), task.district(), c.hasDL(), c.has2W());
+        for (int attempt = 0; ; attempt++) {
+            pacer.await();
+            try {
+                SectorAdviceDTO dto = adviceService.toDto(p, chatService.askJsonBatch(p.system(), p.user()));
+                return M.writeValueAsString(dto);
+            } catch (Exception e) {
+                if (attempt >= retries) {
+                    throw e instanceof RuntimeException re ? re : new IllegalStateException(e);
+                }
+                LockSupport.parkNanos(retryBackoff.toNanos() * (attempt + 1));
+            }
+        }
+    }
+
+    /** Spaces call starts {@code 1/rate} seconds apart across all threads (no bursts). */
+    private static final class Pacer {
+        private final long intervalNanos;
+        private long next = System.nanoTime();
+
+        Pacer(double ratePerSecond) {
+            this.intervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0L;
+        }
+
+        void await() {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long at = Math.max(now, next);
+                next = at + intervalNanos;
+                wait = at - now;
+            }
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+    }
+
+    /** Shared buffer; whichever worker fills it writes the batch (outside the lock). */
+    private final class Writer {
+        private final RunStatus st;
+        private List<Row> buf = new ArrayList<>();
+
+        Writer(RunStatus st) { this.st = st; }
+
+        void add(Row r) {
+            List<Row> full = null;
+            synchronized (this) {
+                buf.add(r);
+                if (buf.size() >= batchSize) {
+                    full = buf;
+                    buf = new ArrayList<>(batchSize);
+                }
+            }
+            if (full != null) write(full);
+        }
+
+        void flush() {
+            List<Row> rest;
+            synchronized (this) {
+                rest = buf;
+                buf = new ArrayList<>();
+            }
+            if (!rest.isEmpty()) write(rest);
+        }
+
+        private void write(List<Row> rows) {
+            try {
+                store.insert(st.version, rows);
+                st.done.addAndGet(rows.size());
+            } catch (DataAccessException e) {
+                st.failed.addAndGet(rows.size());
+                log.warn("Advice precompute {}: batch of {} rows not written: {}", st.runId, rows.size(), e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
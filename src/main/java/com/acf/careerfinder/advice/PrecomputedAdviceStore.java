@@ -0,0 +1,82 @@
+package com.acf.careerfinder.advice;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JDBC access to sector_advice_precomputed: single-row reads by the full key (unique index)
+ * for serving, batch inserts for the precompute job.
+ */
+@Component
+public class PrecomputedAdviceStore {
+
+    private static final String FIND_SQL = """
+            SELECT advice_json FROM sector_advice_precomputed
+             WHERE version = ? AND sector_id = ? AND district = ? AND lang = ? AND detail = ?
+               AND has_dl = ? AND has_2w = ?
+            """;
+
+    private static final String KEYS_SQL = """
+            SELECT sector_id, district, lang, detail, has_dl, has_2w
+              FROM sector_advice_precomputed WHERE version = ?
+            """;
+
+    /** A concurrent or repeated run may already have written the key; the first row wins. */
+    private static final String INSERT_SQL = """
+            INSERT INTO sector_advice_precomputed (version, sector_id, district, lang, detail,
+                                                   has_dl, has_2w, advice_json, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (version, sector_id, district, lang, detail, has_dl, has_2w) DO NOTHING
+            """;
+
+    /** One cell of the advice matrix; {@code district} is a {@link SectorAdviceService#districtKey} value. */
+    public record Cell(String sectorId, String district, String lang, String detail, boolean hasDL, boolean has2W) {}
+
+    public record Row(Cell cell, String adviceJson) {}
+
+    private final JdbcTemplate jdbc;
+
+    public PrecomputedAdviceStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public Optional<String> find(String version, String sectorId, String district, String lang, String detail,
+                                 boolean hasDL, boolean has2W) {
+        List<String> hit = jdbc.queryForList(FIND_SQL, String.class,
+                version, sectorId, district, lang, detail, hasDL, has2W);
+        return hit.isEmpty() ? Optional.empty() : Optional.of(hit.get(0));
+    }
+
+    /** Cells already stored for {@code version}, so an interrupted run can resume where it stopped. */
+    public Set<Cell> cells(String version) {
+        Set<Cell> out = new HashSet<>();
+        jdbc.query(KEYS_SQL, rs -> {
+            out.add(new Cell(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getBoolean(5), rs.getBoolean(6)));
+        }, version);
+        return out;
+    }
+
+    public void insert(String version, List<Row> rows) {
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        jdbc.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, r) -> {
+            Cell c = r.cell();
+            ps.setString(1, version);
+            ps.setString(2, c.sectorId());
+            ps.setString(3, c.district());
+            ps.setString(4, c.lang());
+            ps.setString(5, c.detail());
+            ps.setBoolean(6, c.hasDL());
+            ps.setBoolean(7, c.has2W());
+            ps.setString(8, r.adviceJson());
+            ps.setTimestamp(9, createdAt);
+        });
+    }
+}
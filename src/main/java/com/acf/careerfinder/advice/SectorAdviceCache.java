@@ -0,0 +1,103 @@
+package com.acf.careerfinder.advice;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Sector advice keyed by the normalized prompt inputs (TTL + size bound).
+ *
+ * Single-flight: the first caller for a key runs the loader on its own thread and
+ * every concurrent caller for that key waits on the same future. Failed loads are
+ * never cached (the future is removed before it completes exceptionally).
+ */
+@Component
+public class SectorAdviceCache {
+
+    /** Everything the advice prompt depends on. */
+    public record Key(String sectorId, String district, String lang, String detail,
+                      boolean hasDL, boolean has2W) {
+        public static Key of(String sectorId, String district, String lang, String detail,
+                             boolean hasDL, boolean has2W) {
+            return new Key(
+                    sectorId == null ? "" : sectorId.trim(),
+                    district == null ? "" : district.trim().toLowerCase(Locale.ROOT),
+                    lang,
+                    "brief".equalsIgnoreCase(detail) ? "brief" : "full",
+                    hasDL, has2W);
+        }
+    }
+
+    private final AsyncCache<Key, SectorAdviceDTO> cache;
+
+    public SectorAdviceCache(@Value("${advice.cache.ttl:PT12H}") Duration ttl,
+                             @Value("${advice.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .buildAsync();
+    }
+
+    /**
+     * Cached advice for {@code key}, or the result of {@code loader} (run at most once
+     * per key at a time). The returned object is shared: callers must not mutate it.
+     * Loader exceptions propagate unwrapped to every waiting caller.
+     */
+    public SectorAdviceDTO get(Key key, Supplier<SectorAdviceDTO> loader) {
+        CompletableFuture<SectorAdviceDTO> mine = new CompletableFuture<>();
+        CompletableFuture<SectorAdviceDTO> prior = cache.asMap().putIfAbsent(key, mine);
+        if (prior == null) {
+            try {
+                mine.complete(loader.get());
+            } catch (RuntimeException e) {
+                cache.asMap().remove(key, mine);
+                mine.completeExceptionally(e);
+            }
+            return join(mine);
+        }
+        return join(prior);
+    }
+
+    /**
+     * Non-blocking form of {@link #get}: the cached or in-flight future for {@code key}, else the
+     * future returned by {@code starter} (called only when this caller owns the load).
+     * Failed loads are removed as in {@link #get}.
+     */
+    public CompletableFuture<SectorAdviceDTO> getAsync(Key key, Supplier<CompletableFuture<SectorAdviceDTO>> starter) {
+        CompletableFuture<SectorAdviceDTO> mine = new CompletableFuture<>();
+        CompletableFuture<SectorAdviceDTO> prior = cache.asMap().putIfAbsent(key, mine);
+        if (prior != null) return prior;
+
+        CompletableFuture<SectorAdviceDTO> load;
+        try {
+            load = starter.get();
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((dto, ex) -> {
+            if (ex == null) {
+                mine.complete(dto);
+            } else {
+                cache.asMap().remove(key, mine);
+                mine.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return mine;
+    }
+
+    private static SectorAdviceDTO join(CompletableFuture<SectorAdviceDTO> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
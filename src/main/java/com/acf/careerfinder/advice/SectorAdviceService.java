@@ -0,0 +1,339 @@
+package com.acf.careerfinder.advice;
+
+import com.acf.careerfinder.geo.MHLocation;
+import com.acf.careerfinder.sector.SectorConfigService;
+import com.acf.careerfinder.sector.model1.SectorCatalog;
+import com.acf.careerfinder.service.ChatService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Per-sector advice for the result page.
+ *
+ * Lookup order: in-memory cache → precomputed store (AdvicePrecomputeService) → live LLM call.
+ * Anything that fails on the way yields the static fallback, so callers always get a DTO.
+ *
+ * Age is not a prompt input, so live prompts, the cache key and the precomputed matrix share
+ * the same inputs and a stored row serves every user with them. Rows belong to
+ * {@link #version()} and go stale as a whole when the prompt text or the sector catalog changes.
+ */
+@Service
+public class SectorAdviceService {
+
+    private static final Logger log = LoggerFactory.getLogger(SectorAdviceService.class);
+
+    /** Bump whenever the prompt text below changes: stored advice from older prompts is then ignored. */
+    static final String PROMPT_VERSION = "p2";
+
+    public static final List<String> LANGS = List.of("en", "hi", "mr");
+    public static final List<String> DETAILS = List.of("full", "brief");
+
+    private final SectorConfigService sectorConfig;
+    private final ChatService chatService;
+    private final SectorAdviceCache adviceCache;
+    private final PrecomputedAdviceStore store;
+    private final boolean usePrecomputed;
+
+    private final ObjectMapper M = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    private record Versioned(SectorCatalog catalog, String version) {}
+    private volatile Versioned versioned;
+
+    public SectorAdviceService(SectorConfigService sectorConfig,
+                               ChatService chatService,
+                               SectorAdviceCache adviceCache,
+                               PrecomputedAdviceStore store,
+                               @Value("${advice.precomputed.enabled:true}") boolean usePrecomputed) {
+        this.sectorConfig = sectorConfig;
+        this.chatService = chatService;
+        this.adviceCache = adviceCache;
+        this.store = store;
+        this.usePrecomputed = usePrecomputed;
+    }
+
+    /** Prompt inputs derived from the saved answers (also the precomputed matrix dimensions). */
+    public record Inputs(String district, boolean hasDL, boolean has2W) {
+
+        public static Inputs from(Map<String, String> ans) {
+            String district0 = coalesce(ans.get("gate.Q25_district"), ans.get("gate.DISTRICT"));
+            return new Inputs(
+                    isBlank(district0) ? "Pune" : district0,                 // safe default
+                    hasValidDL(ans.get("gate.Q12")),                         // C/D/E => true
+                    "A".equalsIgnoreCase(norm(ans.get("gate.Q13"))));        // Yes
+        }
+
+        SectorAdviceCache.Key key(String sectorId, String lang, String detail) {
+            return SectorAdviceCache.Key.of(sectorId, district, lang, detail, hasDL, has2W);
+        }
+    }
+
+    /** Everything one advice call needs: both prompts plus the values used to patch defaults. */
+    public record Prompt(String sectorId, String lang, String district, String sectorName,
+                         List<String> fallbackCities, String system, String user) {}
+
+    /** Advice for these inputs; never throws (LLM/parse failures are not cached and yield the fallback). */
+    public SectorAdviceDTO advice(String sectorId, String detail, String lang, Inputs in) {
+        try {
+            return adviceCache.get(in.key(sectorId, lang, detail),
+                    () -> stored(sectorId, detail, lang, in).orElseGet(() -> {
+                        Prompt p = prompt(sectorId, detail, lang, in.district(), in.hasDL(), in.has2W());
+                        return toDto(p, chatService.askJson(p.system(), p.user()));
+                    }));
+        } catch (RuntimeException ex) {
+            return fallback(sectorId, lang, in.district());
+        }
+    }
+
+    /**
+     * Non-blocking form of {@link #advice}: LLM tokens go to {@code deltas} as they arrive.
+     * Cached, in-flight and precomputed advice complete without any delta. Never completes exceptionally.
+     */
+    public CompletableFuture<SectorAdviceDTO> adviceStreaming(String sectorId, String detail, String lang, Inputs in,
+                                                              Consumer<String> deltas) {
+        return adviceCache.getAsync(in.key(sectorId, lang, detail), () -> {
+                    Optional<SectorAdviceDTO> hit = stored(sectorId, detail, lang, in);
+                    if (hit.isPresent()) return CompletableFuture.completedFuture(hit.get());
+                    Prompt p = prompt(sectorId, detail, lang, in.district(), in.hasDL(), in.has2W());
+                    return chatService.askJsonStreamingAsync(p.system(), p.user(), deltas)
+                            .thenApply(json -> toDto(p, json));
+                })
+                .handle((dto, ex) -> ex == null ? dto : fallback(sectorId, lang, in.district()));
+    }
+
+    /** Precomputed advice for these inputs, if the store has it for the current version. */
+    private Optional<SectorAdviceDTO> stored(String sectorId, String detail, String lang, Inputs in) {
+        if (!usePrecomputed) return Optional.empty();
+        String districtKey = districtKey(in.district());
+        if (districtKey == null) return Optional.empty();
+        try {
+            return store.find(version(), sectorId, districtKey, lang, normDetail(detail), in.hasDL(), in.has2W())
+                    .map(json -> {
+                        try {
+                            return M.readValue(json, SectorAdviceDTO.class);
+                        } catch (Exception e) {
+                            log.warn("Unreadable precomputed advice for {}/{}: {}", sectorId, districtKey, e.toString());
+                            return null;
+                        }
+                    });
+        } catch (DataAccessException e) {
+            log.debug("Precomputed advice lookup failed: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Version of the precomputed matrix that matches the live prompts: prompt version plus a
+     * fingerprint of the sector catalog (ids and names feed the prompt).
+     */
+    public String version() {
+        SectorCatalog catalog = sectorConfig.catalog();
+        Versioned v = versioned;
+        if (v == null || v.catalog() != catalog) {
+            v = new Versioned(catalog, PROMPT_VERSION + "-" + fingerprint(catalog));
+            versioned = v;
+        }
+        return v.version();
+    }
+
+    /** Sectors of the live catalog, in catalog order. */
+    public List<SectorCatalog.Sector> sectors() {
+        return sectorConfig.catalog().sectors();
+    }
+
+    /** Store key for a district: canonical MH name, lower-cased; null when it is not an MH district. */
+    public static String districtKey(String district) {
+        if (!MHLocation.isValidDistrict(district)) return null;
+        return MHLocation.canonicalize(district).toLowerCase(Locale.ROOT);
+    }
+
+    public static String normDetail(String detail) {
+        return "brief".equalsIgnoreCase(detail) ? "brief" : "full";
+    }
+
+    public SectorAdviceDTO fallback(String sectorId, String lang, String district) {
+        String sectorName = sectorNameFor(sectorId);
+        List<String> fallbackCities = fallbackForDistrict(district);
+        SectorAdviceDTO dto = minimalFallback(lang, district, sectorId, sectorName, fallbackCities);
+        dto.applyDefaults(lang, district, sectorId, sectorName, fallbackCities);
+        return dto;
+    }
+
+    public Prompt prompt(String sectorId, String detail, String lang, String district,
+                         boolean hasDL, boolean has2W) {
+        // --- sector name from catalog or humanized id ---
+        String sectorName = sectorNameFor(sectorId);
+
+        // --- MH fallback hubs for district (simple guide) ---
+        List<String> fallbackCities = fallbackForDistrict(district);
+
+        // --- prompts ---
+        String system = """
+            You are a Maharashtra-focused jobs advisor for NSDC/Skill India pathways.
+            Always answer in %s. Return ONLY a single JSON object using EXACT keys:
+
+            sectorId, sectorName, language, userDistrict,
+            cityFocus (array of cities in Maharashtra),
+            whyFit (array of 2-3 short bullets),
+            entryRoles (array of {title, notes}),
+            startingSalaryINR { district, nearby:[{city, range}], note },
+            whereToApply (array of {label, url} to official resources only),
+            nearbyIfSparse { explanation, suggestedCities[] },
+            gatingReminders (array),
+            checklistWeek1 (array),
+            disclaimers (array).
+
+            Prioritize district '%s'. If roles there are thin, include nearby Maharashtra cities from the provided list.
+            DO NOT filter or judge by the user's commute distance. It is OK to suggest cities that are farther away.
+            Keep salaries typical for entry roles in Maharashtra and in INR per month.
+            Use official sources only (NSDC/Skill India, Sector Skill Councils, Apprenticeship India, MahaSwayam).
+            Do not add extra top-level keys.
+            """.formatted(langName(lang), district);
+
+        String user = """
+            sectorId: %s
+            sectorName: %s
+            userDistrict: %s
+            language: %s
+            userHasDL: %s
+            userHas2W: %s
+            detailLevel: %s   # "full" for Top-5, "brief" for near-miss (shorter lists)
+            fallbackCities (MH only): %s
+
+            Produce strictly-valid JSON with those exact keys. For "brief", keep only 1-2 roles and 2-3 whereToApply items.
+            """.formatted(
+                sectorId, sectorName, district, lang,
+                hasDL, has2W,
+                normDetail(detail),
+                fallbackCities.toString()
+        );
+
+        return new Prompt(sectorId, lang, district, sectorName, fallbackCities, system, user);
+    }
+
+    /** Validate the LLM JSON into the DTO; throws on unreadable JSON. */
+    public SectorAdviceDTO toDto(Prompt p, String json) {
+        SectorAdviceDTO dto;
+        try {
+            dto = M.readValue(json, SectorAdviceDTO.class);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unreadable advice JSON for " + p.sectorId(), ex);
+        }
+
+        // --- patch defaults & enforce minimum (before caching: cached DTOs are shared) ---
+        dto.applyDefaults(p.lang(), p.district(), p.sectorId(), p.sectorName(), p.fallbackCities());
+        return dto;
+    }
+
+    /* ---------------- helpers ---------------- */
+
+    private static String fingerprint(SectorCatalog catalog) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (SectorCatalog.Sector s : catalog.sectors()) {
+                md.update((s.id() + '\u0001' + s.name() + '\u0000').getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest()).substring(0, 16);
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static String langName(String lang) {
+        return switch (lang) { case "hi" -> "Hindi"; case "mr" -> "Marathi"; default -> "English"; };
+    }
+    private static String norm(String s) { return s == null ? null : s.trim().toUpperCase(Locale.ROOT); }
+    private static boolean hasValidDL(String q12) {
+        String v = norm(q12);
+        return "C".equals(v) || "D".equals(v) || "E".equals(v);
+    }
+    private static boolean isBlank(String s) { return s == null || s.trim().isEmpty(); }
+    private static String coalesce(String a, String b) { return !isBlank(a) ? a : (!isBlank(b) ? b : null); }
+
+    private String sectorNameFor(String id) {
+        try {
+            return sectorConfig.catalog().sectors().stream()
+                    .filter(s -> Objects.equals(s.id(), id))
+                    .findFirst()
+                    .map(SectorCatalog.Sector::name)
+                    .orElse(humanize(id));
+        } catch (Exception ignore) {
+            return humanize(id);
+        }
+    }
+    private static String humanize(String id) {
+        if (id == null) return "Selected sector";
+        return id.replace('_',' ').replaceAll("\\s+"," ").trim();
+    }
+
+    private static List<String> fallbackForDistrict(String dist) {
+        String d = dist == null ? "" : dist.trim().toLowerCase(Locale.ROOT);
+        Map<String,List<String>> map = Map.ofEntries(
+                Map.entry("solapur", List.of("Solapur","Pune","Sangli","Kolhapur")),
+                Map.entry("pune",    List.of("Pune","Mumbai","Nashik")),
+                Map.entry("kolhapur",List.of("Kolhapur","Sangli","Pune")),
+                Map.entry("sangli",  List.of("Sangli","Kolhapur","Pune")),
+                Map.entry("mumbai",  List.of("Mumbai","Thane","Navi Mumbai")),
+                Map.entry("thane",   List.of("Thane","Mumbai","Navi Mumbai")),
+                Map.entry("nagpur",  List.of("Nagpur","Amravati","Wardha")),
+                Map.entry("nashik",  List.of("Nashik","Mumbai","Pune"))
+        );
+        List<String> hubs = map.getOrDefault(d, List.of(cap(dist), "Pune", "Mumbai", "Nagpur", "Nashik"));
+        // ensure district is first
+        if (!hubs.isEmpty() && !hubs.get(0).equalsIgnoreCase(dist)) {
+            List<String> copy = new ArrayList<>();
+            copy.add(cap(dist));
+            for (String c : hubs) if (!c.equalsIgnoreCase(dist)) copy.add(c);
+            return copy;
+        }
+        return hubs;
+    }
+    private static String cap(String s) {
+        if (s == null || s.isBlank()) return "Pune";
+        return s.substring(0,1).toUpperCase(Locale.ROOT) + s.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private static SectorAdviceDTO minimalFallback(String lang, String district,
+                                                   String sectorId, String sectorName,
+                                                   List<String> fallbackCities) {
+        SectorAdviceDTO d = new SectorAdviceDTO();
+        d.sectorId = sectorId;
+        d.sectorName = sectorName;
+        d.language = lang;
+        d.userDistrict = district;
+        d.cityFocus = new ArrayList<>(fallbackCities);
+        d.whyFit = new ArrayList<>();
+        d.entryRoles = new ArrayList<>();
+        d.whereToApply = new ArrayList<>();
+        // inject official links + defaults via applyDefaults(), but set note now
+        SectorAdviceDTO.StartingSalary sal = new SectorAdviceDTO.StartingSalary();
+        sal.note = switch (lang) {
+            case "hi" -> "शिफ्ट/इंसेंटिव के आधार पर बदल सकता है";
+            case "mr" -> "शिफ्ट/इन्सेंटिवनुसार बदलू शकते";
+            default -> "Varies by shift and incentives";
+        };
+        d.startingSalaryINR = sal;
+        d.nearbyIfSparse = new SectorAdviceDTO.NearbyIfSparse();
+        d.nearbyIfSparse.explanation = switch (lang) {
+            case "hi" -> "यदि ज़िले में अवसर कम हैं, तो पास के महाराष्ट्र शहर देखें।";
+            case "mr" -> "जिल्ह्यात संधी कमी असतील तर जवळचे महाराष्ट्र शहर पहा.";
+            default -> "If few roles in your district, consider nearby MH hubs.";
+        };
+        d.nearbyIfSparse.suggestedCities = new ArrayList<>(fallbackCities);
+        d.gatingReminders = new ArrayList<>();
+        d.checklistWeek1 = new ArrayList<>();
+        d.disclaimers = new ArrayList<>();
+        return d;
+    }
+}
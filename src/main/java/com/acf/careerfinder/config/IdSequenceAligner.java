@@ -0,0 +1,40 @@
+package com.acf.careerfinder.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * q_item and q_item_locale take their ids from pooled sequences (allocation 50) instead of
+ * IDENTITY, which forces one INSERT ... RETURNING per row and disables JDBC batching.
+ *
+ * ddl-auto creates those sequences at 1, also on databases whose rows were numbered by the
+ * old identity columns; before the web server takes requests each sequence is moved past
+ * max(id) of its table (never backwards).
+ */
+@Component
+@DependsOn("entityManagerFactory") // schema update (sequence creation) has run
+public class IdSequenceAligner {
+
+    /** sequence → table; both are fixed identifiers, never user input. */
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "q_item_seq", "q_item",
+            "q_item_locale_seq", "q_item_locale");
+
+    private final JdbcTemplate jdbc;
+
+    public IdSequenceAligner(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    void align() {
+        SEQUENCES.forEach((seq, table) -> jdbc.queryForObject(
+                "SELECT setval('" + seq + "', GREATEST((SELECT COALESCE(MAX(id), 0) FROM " + table + "),"
+                        + " (SELECT last_value FROM " + seq + ")))",
+                Long.class));
+    }
+}
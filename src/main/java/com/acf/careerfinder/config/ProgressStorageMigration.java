@@ -0,0 +1,94 @@
+package com.acf.careerfinder.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps user_progress.answers_json in the column type progress.storage expects: jsonb for
+ * "jsonb", TEXT for "text" (ddl-auto never changes a column type). Runs before the web server
+ * takes requests, in one transaction with a lock timeout, so a failure leaves the column as it was.
+ *
+ * Before converting to jsonb, rows that are not a JSON object (which the text path already reads
+ * as empty answers) are reset to {} and their ids logged, so the cast cannot abort startup.
+ * Reverting is switching progress.storage back to text: the column is converted back on the next start.
+ */
+@Component
+@DependsOn("entityManagerFactory") // schema update has created user_progress
+public class ProgressStorageMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressStorageMigration.class);
+    private static final TypeReference<Map<String, String>> MAP_TYPE = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final String storage;        // "text" | "jsonb"
+    private final Duration lockTimeout;
+
+    public ProgressStorageMigration(JdbcTemplate jdbc,
+                                    PlatformTransactionManager txManager,
+                                    @Value("${progress.storage:text}") String storage,
+                                    @Value("${progress.storage.lock-timeout:PT10S}") Duration lockTimeout) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.storage = storage;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @PostConstruct
+    void align() {
+        boolean wantJsonb = "jsonb".equalsIgnoreCase(storage);
+        List<String> type = jdbc.queryForList("""
+                SELECT data_type FROM information_schema.columns
+                 WHERE table_schema = current_schema() AND table_name = 'user_progress' AND column_name = 'answers_json'
+                """, String.class);
+        if (type.isEmpty()) return;
+        boolean isJsonb = "jsonb".equalsIgnoreCase(type.get(0));
+        if (isJsonb == wantJsonb) return;
+
+        tx.executeWithoutResult(s -> {
+            jdbc.execute("SET LOCAL lock_timeout = " + lockTimeout.toMillis());
+            if (wantJsonb) {
+                repairInvalidRows();
+                log.info("Converting user_progress.answers_json from {} to jsonb", type.get(0));
+                jdbc.execute("ALTER TABLE user_progress ALTER COLUMN answers_json TYPE jsonb USING answers_json::jsonb");
+            } else {
+                log.info("Converting user_progress.answers_json from jsonb back to text");
+                jdbc.execute("ALTER TABLE user_progress ALTER COLUMN answers_json TYPE text USING answers_json::text");
+            }
+        });
+    }
+
+    /** Reset rows the jsonb cast would reject (or that are not an answer object) to {}. */
+    private void repairInvalidRows() {
+        List<Long> bad = new ArrayList<>();
+        jdbc.query("SELECT id, answers_json FROM user_progress", (RowCallbackHandler) rs -> {
+            try {
+                mapper.readValue(rs.getString(2), MAP_TYPE);
+            } catch (Exception e) {
+                bad.add(rs.getLong(1));
+            }
+        });
+        if (bad.isEmpty()) return;
+        log.warn("Resetting answers_json to an empty object on {} user_progress row(s) that are not a JSON answer object: ids {}",
+                bad.size(), bad);
+        jdbc.batchUpdate("UPDATE user_progress SET answers_json = '{}' WHERE id = ?", bad, 500,
+                (ps, id) -> ps.setLong(1, id));
+    }
+}
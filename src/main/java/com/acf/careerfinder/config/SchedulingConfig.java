@@ -0,0 +1,10 @@
+package com.acf.careerfinder.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables @Scheduled jobs (progress write-behind flush). */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -85,7 +85,7 @@ public class WebConfig implements WebMvcConfigurer {
                     // Logged-in users: never allow ?lang to override account language.
                     chosen = sessionLang;
                     if (chosen == null) {
-                        chosen = normalizeLang(userService.getUiLang(email).orElse(null));
+                        chosen = normalizeLang(userService.getUiLang(email).orElse(null)); // cached
                         if (chosen == null) chosen = "en";
                         session.setAttribute("uiLang", chosen);
                     }
@@ -119,6 +119,8 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(localeInterceptor(localeResolver()));
+        // Static assets carry no text: skip locale resolution (and its session/account lookups) for them
+        registry.addInterceptor(localeInterceptor(localeResolver()))
+                .excludePathPatterns("/images/**", "/css/**", "/js/**", "/webjars/**", "/favicon.ico");
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.acf.careerfinder.controller;
 
-import com.acf.careerfinder.model.UserData;
 import com.acf.careerfinder.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +11,6 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.Locale;
-import java.util.Optional;
 import java.util.Set;
 
 @Controller
@@ -42,8 +40,7 @@ public class LanguageController {
         String email = (String) session.getAttribute("USER_EMAIL");
         if (email == null || email.isBlank()) return "redirect:/login";
 
-        Optional<UserData> u = users.findByEmail(email);
-        String dbLang = u.map(UserData::getUiLang).orElse(null);
+        String dbLang = users.getUiLang(email).orElse(null);
 
         String current = (dbLang != null && !dbLang.isBlank())
                 ? normalizeLang(dbLang)
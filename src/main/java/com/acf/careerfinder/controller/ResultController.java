@@ -1,21 +1,26 @@
 package com.acf.careerfinder.controller;
 
 import com.acf.careerfinder.model.Recommendation;
-import com.acf.careerfinder.psychometrics.ScoringService;
-import com.acf.careerfinder.psychometrics.Trait;
-import com.acf.careerfinder.psychometrics.TraitProfile;
-import com.acf.careerfinder.sector.SectorRankingService;
+import com.acf.careerfinder.service.NarrativeJobService;
 import com.acf.careerfinder.service.QuestionnaireService;
 import com.acf.careerfinder.service.RecommendationService;
+import com.acf.careerfinder.service.ResultSnapshotService;
+import com.acf.careerfinder.web.SseEvents;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.LinkedHashMap;
+import java.time.Duration;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Controller
 public class ResultController {
@@ -33,17 +38,20 @@ public class ResultController {
 
     private final QuestionnaireService questionnaireService;
     private final RecommendationService recommendationService;
-    private final ScoringService scoringService;
-    private final SectorRankingService sectorRankingService;
+    private final ResultSnapshotService resultSnapshotService;
+    private final NarrativeJobService narrativeJobs;
+
+    @Value("${result.stream.timeout:PT2M}")
+    private Duration streamTimeout;
 
     public ResultController(QuestionnaireService questionnaireService,
                             RecommendationService recommendationService,
-                            ScoringService scoringService,
-                            SectorRankingService sectorRankingService) {
+                            ResultSnapshotService resultSnapshotService,
+                            NarrativeJobService narrativeJobs) {
         this.questionnaireService = questionnaireService;
         this.recommendationService = recommendationService;
-        this.scoringService = scoringService;
-        this.sectorRankingService = sectorRankingService;
+        this.resultSnapshotService = resultSnapshotService;
+        this.narrativeJobs = narrativeJobs;
     }
 
     @GetMapping("/result")
@@ -62,19 +70,20 @@ public class ResultController {
             return "redirect:/gating?error=incomplete";
         }
 
-        // Narrative (existing)
-        Recommendation rec = recommendationService.compute(answers);
+        // Narrative: LLM runs as a background job; until it is done render the local
+        // fallback and let the page poll /result/narrative (see result-loading.html fragment)
+        var job = narrativeJobs.submit(email, LocaleContextHolder.getLocale(), answers);
+        boolean pending = !job.isDone();
+        Recommendation rec = pending ? recommendationService.localOnly(answers) : job.join();
         model.addAttribute("rec", rec);
+        model.addAttribute("recPending", pending);
 
-        // Step‑5: Trait profile
-        TraitProfile profile = scoringService.scoreForUser(email);
-        model.addAttribute("profile", profile);
-
-        // Convert Trait→Double map to "T01".."T12" → Double for the sector scorer
-        Map<String, Double> tCodeScores = toTCodeMap(profile.traitFinal0to100());
-        // Phase‑7 compositor → Top‑5 Eligible + Near‑Miss (ineligible ≥ cutoff)
-        var ranked = sectorRankingService.build(answers, tCodeScores);
+        // Step‑5 trait profile + Phase‑7 ranking (Top‑5 Eligible + Near‑Miss),
+        // served from the persisted snapshot unless answers/bank/sector config changed
+        var result = resultSnapshotService.resolve(email, answers);
+        model.addAttribute("profile", result.profile());
 
+        var ranked = result.ranked();
         model.addAttribute("topEligible", ranked.topEligible);
         model.addAttribute("nearMiss", ranked.nearMiss);
         model.addAttribute("eligibleCutoff", ranked.eligibleCutoff);
@@ -82,6 +91,48 @@ public class ResultController {
         return "result";
     }
 
+    /** Poll target while the narrative is pending: {"status":"PENDING"|"DONE"}. */
+    @GetMapping("/result/narrative")
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> narrativeStatus(HttpSession session) {
+        String email = (String) session.getAttribute("USER_EMAIL");
+        if (email == null || email.isBlank()) {
+            return ResponseEntity.status(401).body(Map.of("error", "loginRequired"));
+        }
+        applyLocaleFromSession(session);
+        Map<String, String> answers = questionnaireService.loadAnswersMap(email);
+        var status = narrativeJobs.status(email, LocaleContextHolder.getLocale(), answers);
+        return ResponseEntity.ok(Map.of("status", status.name()));
+    }
+
+    /**
+     * SSE alternative to polling: "delta" events carry the narrative JSON as the LLM writes it,
+     * then one "final" event with the validated Recommendation (the page then reloads /result).
+     */
+    @GetMapping(path = "/result/narrative/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> narrativeStream(HttpSession session) {
+        String email = (String) session.getAttribute("USER_EMAIL");
+        if (email == null || email.isBlank()) {
+            return ResponseEntity.status(401).build();
+        }
+        applyLocaleFromSession(session);
+        Map<String, String> answers = questionnaireService.loadAnswersMap(email);
+        var job = narrativeJobs.attach(email, LocaleContextHolder.getLocale(), answers);
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Consumer<String> deltas = SseEvents.deltas(emitter);
+        emitter.onCompletion(() -> job.relay().unsubscribe(deltas));
+        emitter.onTimeout(() -> job.relay().unsubscribe(deltas));
+
+        job.relay().subscribe(deltas);
+        job.result().whenComplete((rec, ex) -> {
+            job.relay().unsubscribe(deltas);
+            SseEvents.finish(emitter, rec); // never exceptional: failures resolve to the local result
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
     private static boolean hasAllGateAnswers(Map<String, String> answers) {
         if (answers == null) return false;
 
@@ -97,19 +148,6 @@ public class ResultController {
         return true;
     }
 
-    /** Local helper: the weights JSON uses keys "T01".."T12". */
-    private static Map<String, Double> toTCodeMap(Map<Trait, Double> traitMap) {
-        Map<String, Double> out = new LinkedHashMap<>();
-        int i = 1;
-        for (Trait t : Trait.values()) {
-            String code = (i < 10) ? ("T0" + i) : ("T" + i);
-            double val = traitMap != null && traitMap.get(t) != null ? traitMap.get(t) : 0.0;
-            out.put(code, val);
-            i++;
-        }
-        return out;
-    }
-
     private static String coalesce(String a, String b) {
         if (a != null && !a.isBlank()) return a;
         if (b != null && !b.isBlank()) return b;
@@ -15,8 +15,10 @@ public class QItem {
 
     public enum QType { SINGLE, MULTI, TEXT }
 
+    /** Pooled sequence (see IdSequenceAligner) so bank inserts can be JDBC-batched. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "q_item_seq")
+    @SequenceGenerator(name = "q_item_seq", sequenceName = "q_item_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "qkey", nullable = false, length = 64, unique = true)
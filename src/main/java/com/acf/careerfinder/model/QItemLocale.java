@@ -15,8 +15,10 @@ import jakarta.persistence.*;
 )
 public class QItemLocale {
 
+    /** Pooled sequence (see IdSequenceAligner) so bank inserts can be JDBC-batched. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "q_item_locale_seq")
+    @SequenceGenerator(name = "q_item_locale_seq", sequenceName = "q_item_locale_seq", allocationSize = 50)
     private Long id;
 
     // FK to QItem
@@ -0,0 +1,69 @@
+package com.acf.careerfinder.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One precomputed sector advice (AdvicePrecomputeService) for a prompt-input combination.
+ *
+ * Rows are written in JDBC batches and read by key through PrecomputedAdviceStore, never
+ * through JPA; the entity exists so ddl-auto creates the table. A version is the prompt
+ * version plus a sector catalog fingerprint; older versions are simply no longer read.
+ */
+@Entity
+@Table(
+        name = "sector_advice_precomputed",
+        uniqueConstraints = @UniqueConstraint(name = "uq_sap_key",
+                columnNames = {"version", "sector_id", "district", "lang", "detail", "has_dl", "has_2w"})
+)
+public class SectorAdvicePrecomputed {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "version", nullable = false, length = 40)
+    private String version;
+
+    @Column(name = "sector_id", nullable = false, length = 100)
+    private String sectorId;
+
+    /** Canonical MHLocation district, lower-cased. */
+    @Column(name = "district", nullable = false, length = 100)
+    private String district;
+
+    @Column(name = "lang", nullable = false, length = 5)
+    private String lang;
+
+    /** "full" | "brief". */
+    @Column(name = "detail", nullable = false, length = 5)
+    private String detail;
+
+    @Column(name = "has_dl", nullable = false)
+    private boolean hasDl;
+
+    @Column(name = "has_2w", nullable = false)
+    private boolean has2w;
+
+    /** SectorAdviceDTO as served (defaults already applied); Postgres compresses large TEXT values itself. */
+    @Column(name = "advice_json", nullable = false, columnDefinition = "TEXT")
+    private String adviceJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public SectorAdvicePrecomputed() {}
+
+    // getters
+    public Long getId() { return id; }
+    public String getVersion() { return version; }
+    public String getSectorId() { return sectorId; }
+    public String getDistrict() { return district; }
+    public String getLang() { return lang; }
+    public String getDetail() { return detail; }
+    public boolean isHasDl() { return hasDl; }
+    public boolean isHas2w() { return has2w; }
+    public String getAdviceJson() { return adviceJson; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,68 @@
+package com.acf.careerfinder.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's result inside an offline cohort run (CohortRankingService).
+ *
+ * Rows are written in JDBC batches, never through JPA; the entity exists so
+ * ddl-auto creates the table and so runs can be read back for comparison.
+ */
+@Entity
+@Table(
+        name = "sector_ranking_run",
+        uniqueConstraints = @UniqueConstraint(name = "uq_srr_run_user", columnNames = {"run_id", "user_email"}),
+        indexes = @Index(name = "idx_srr_user", columnList = "user_email")
+)
+public class SectorRankingRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false, length = 36)
+    private String runId;
+
+    @Column(name = "user_email", nullable = false, length = 255)
+    private String userEmail;
+
+    @Column(name = "scoring_version", nullable = false, length = 64)
+    private String scoringVersion;
+
+    /** Sector files hash + "-n" + topN. */
+    @Column(name = "sector_version", nullable = false, length = 80)
+    private String sectorVersion;
+
+    /** Top eligible sector ids, best first, comma-separated. */
+    @Column(name = "top_sectors", nullable = false, columnDefinition = "TEXT")
+    private String topSectors;
+
+    @Column(name = "eligible_cutoff", nullable = false)
+    private double eligibleCutoff;
+
+    /** Final trait scores keyed "T01".."T12". */
+    @Column(name = "traits_json", nullable = false, columnDefinition = "TEXT")
+    private String traitsJson;
+
+    @Column(name = "ranking_json", nullable = false, columnDefinition = "TEXT")
+    private String rankingJson;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public SectorRankingRun() {}
+
+    // getters
+    public Long getId() { return id; }
+    public String getRunId() { return runId; }
+    public String getUserEmail() { return userEmail; }
+    public String getScoringVersion() { return scoringVersion; }
+    public String getSectorVersion() { return sectorVersion; }
+    public String getTopSectors() { return topSectors; }
+    public double getEligibleCutoff() { return eligibleCutoff; }
+    public String getTraitsJson() { return traitsJson; }
+    public String getRankingJson() { return rankingJson; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,84 @@
+package com.acf.careerfinder.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last computed result-page payload (TraitProfile + sector ranking) for one user.
+ *
+ * Valid only while answers_hash, scoring_version and sector_version all match
+ * the current answer set / compiled bank / sector config; otherwise recomputed and overwritten.
+ */
+@Entity
+@Table(
+        name = "trait_profile_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uq_tps_user", columnNames = {"user_email"})
+)
+public class TraitProfileSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_email", nullable = false, length = 255)
+    private String userEmail;
+
+    /** Hex SHA-256 of the sorted answer set. */
+    @Column(name = "answers_hash", nullable = false, length = 64)
+    private String answersHash;
+
+    @Column(name = "scoring_version", nullable = false, length = 64)
+    private String scoringVersion;
+
+    /** Sector files hash + "-n" + topN. */
+    @Column(name = "sector_version", nullable = false, length = 80)
+    private String sectorVersion;
+
+    @Column(name = "profile_json", nullable = false, columnDefinition = "TEXT")
+    private String profileJson;
+
+    @Column(name = "ranking_json", nullable = false, columnDefinition = "TEXT")
+    private String rankingJson;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public TraitProfileSnapshot() {}
+
+    public TraitProfileSnapshot(String userEmail) {
+        this.userEmail = userEmail;
+    }
+
+    /** True when this row was computed from exactly these inputs. */
+    public boolean matches(String answersHash, String scoringVersion, String sectorVersion) {
+        return answersHash.equals(this.answersHash)
+                && scoringVersion.equals(this.scoringVersion)
+                && sectorVersion.equals(this.sectorVersion);
+    }
+
+    // getters/setters
+    public Long getId() { return id; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public String getAnswersHash() { return answersHash; }
+    public void setAnswersHash(String answersHash) { this.answersHash = answersHash; }
+
+    public String getScoringVersion() { return scoringVersion; }
+    public void setScoringVersion(String scoringVersion) { this.scoringVersion = scoringVersion; }
+
+    public String getSectorVersion() { return sectorVersion; }
+    public void setSectorVersion(String sectorVersion) { this.sectorVersion = sectorVersion; }
+
+    public String getProfileJson() { return profileJson; }
+    public void setProfileJson(String profileJson) { this.profileJson = profileJson; }
+
+    public String getRankingJson() { return rankingJson; }
+    public void setRankingJson(String rankingJson) { this.rankingJson = rankingJson; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -9,6 +9,9 @@ package com.acf.careerfinder.psychometrics;
 public final class ScoringConfig {
     private ScoringConfig() {}
 
+    /** Bump whenever a constant below changes; part of ScoringPlan.version() (invalidates saved snapshots). */
+    public static final String VERSION = "2";
+
     /** Column order for the matrix is fixed: O, C, E, A, ES. */
     public static final Domain[] DOMS = { Domain.O, Domain.C, Domain.E, Domain.A, Domain.ES };
 
@@ -28,6 +31,9 @@ public final class ScoringConfig {
             /* T12_INCLUSIVITY   */ {0.3, 0.0, 0.0, 0.7, 0.0}
     };
 
+    /** OCEAN_TO_TRAIT flattened row-major: [r * DOMS.length + c]. */
+    public static final double[] OCEAN_TO_TRAIT_FLAT = flatten(OCEAN_TO_TRAIT);
+
     /** Final blend weights (v1 policy). */
     public static final double W_IPIP = 0.60;
     public static final double W_SJT  = 0.40;
@@ -44,6 +50,13 @@ public final class ScoringConfig {
     /** Scale factor: MULTI_SELECT normalized 0..1, then *4 to get 0..4 per item. */
     public static final double SJT_MULT_SELECT_SCALE = 4.0;
 
+    private static double[] flatten(double[][] m) {
+        int cols = DOMS.length;
+        double[] out = new double[m.length * cols];
+        for (int r = 0; r < m.length; r++) System.arraycopy(m[r], 0, out, r * cols, cols);
+        return out;
+    }
+
     // --- Friendly labels for UI (static helpers callable from Thymeleaf) ---
     public static String domainLabel(Domain d) {
         return switch (d) {
@@ -0,0 +1,214 @@
+package com.acf.careerfinder.psychometrics;
+
+import com.acf.careerfinder.model.QItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+
+import static com.acf.careerfinder.psychometrics.ScoringConfig.*;
+
+/**
+ * Immutable, array-backed "compiled" view of the active IPIP/SJT bank.
+ *
+ * Built once from q_item rows (meta_json parsed here, never per request) and
+ * swapped as a whole by ScoringService when the admin edits the bank.
+ * Index i describes the i-th scorable item, in findActiveOrdered() order.
+ *
+ * Items are dropped at compile time when they can never score
+ * (wrong section, bad/missing meta, unknown domain/trait/format, qtype mismatch).
+ *
+ * {@link #version()} fingerprints the source rows plus {@link ScoringConfig#VERSION};
+ * persisted results computed from another version are stale.
+ */
+public final class ScoringPlan {
+
+    public static final byte KIND_IPIP = 0;
+    public static final byte KIND_SJT  = 1;
+
+    public static final byte FMT_NONE   = 0; // IPIP
+    public static final byte FMT_MULTI  = 1; // SJT MULTI_SELECT
+    public static final byte FMT_BINARY = 2; // SJT YES_NO | SINGLE_BEST
+
+    private static final ObjectMapper M = new ObjectMapper();
+
+    final int size;
+    final String version;
+    final String[] qkey;
+    final byte[] kind;
+    final int[] domain;          // Domain ordinal (IPIP), else -1
+    final boolean[] reverse;     // IPIP keyed "-"
+    final int[] trait;           // Trait ordinal (SJT), else -1
+    final byte[] format;
+    final int[] eCount;          // MULTI: # options tagged E
+    final int[] oCount;          // MULTI: # options tagged O
+    final String[][] optValue;   // MULTI: lower-cased option values from tagByValue
+    final int[][] optPoints;     // MULTI: SJT points per option (E/O/X, else 0)
+    final String[] correct;      // BINARY: correctValue, null when blank
+
+    private ScoringPlan(int n, String version) {
+        this.size = n;
+        this.version = version;
+        this.qkey = new String[n];
+        this.kind = new byte[n];
+        this.domain = new int[n];
+        this.reverse = new boolean[n];
+        this.trait = new int[n];
+        this.format = new byte[n];
+        this.eCount = new int[n];
+        this.oCount = new int[n];
+        this.optValue = new String[n][];
+        this.optPoints = new int[n][];
+        this.correct = new String[n];
+    }
+
+    public int size() { return size; }
+
+    /** Hex SHA-256 of the bank rows this plan was compiled from + scoring constants version. */
+    public String version() { return version; }
+
+    /** Compile the active bank. Same acceptance rules the per-request scorer used to apply. */
+    public static ScoringPlan compile(List<QItem> items) {
+        List<Compiled> rows = new ArrayList<>(items.size());
+        for (QItem qi : items) {
+            Compiled c = compileOne(qi);
+            if (c != null) rows.add(c);
+        }
+
+        ScoringPlan p = new ScoringPlan(rows.size(), fingerprint(items));
+        for (int i = 0; i < rows.size(); i++) {
+            Compiled c = rows.get(i);
+            p.qkey[i] = c.qkey;
+            p.kind[i] = c.kind;
+            p.domain[i] = c.domain;
+            p.reverse[i] = c.reverse;
+            p.trait[i] = c.trait;
+            p.format[i] = c.format;
+            p.eCount[i] = c.eCount;
+            p.oCount[i] = c.oCount;
+            p.optValue[i] = c.optValue;
+            p.optPoints[i] = c.optPoints;
+            p.correct[i] = c.correct;
+        }
+        return p;
+    }
+
+    /* -------------------- Internals -------------------- */
+
+    private record Compiled(String qkey, byte kind, int domain, boolean reverse, int trait, byte format,
+                            int eCount, int oCount, String[] optValue, int[] optPoints, String correct) {}
+
+    private static Compiled compileOne(QItem qi) {
+        String sect = qi.getSectionKey();
+        if (sect == null || !(sect.equalsIgnoreCase("ipip") || sect.equalsIgnoreCase("sjt"))) {
+            return null; // hard block anything not IPIP/SJT
+        }
+
+        String metaJson = qi.getMetaJson();
+        if (metaJson == null || metaJson.isBlank()) return null;
+
+        JsonNode meta = parse(metaJson);
+        if (meta == null) return null;
+
+        String kind = text(meta, "kind"); // "IPIP" | "SJT"
+        if ("IPIP".equalsIgnoreCase(kind)) {
+            // Expected: SINGLE Likert 1..5, domain in O/C/E/A/ES
+            if (qi.getQtype() != null && qi.getQtype() != QItem.QType.SINGLE) return null;
+            Domain dom = parseDomain(text(meta, "domain"));
+            if (dom == null) return null;
+
+            boolean reverse = "-".equals(text(meta, "keyed")); // default "+"
+            return new Compiled(qi.getQkey(), KIND_IPIP, dom.ordinal(), reverse, -1, FMT_NONE,
+                    0, 0, null, null, null);
+
+        } else if ("SJT".equalsIgnoreCase(kind)) {
+            // Expected: MULTI_SELECT|YES_NO|SINGLE_BEST with trait "Txx"
+            String fmt = text(meta, "format");
+            Trait trait = parseTrait(text(meta, "trait"));
+            if (trait == null) return null;
+
+            if ("MULTI_SELECT".equalsIgnoreCase(fmt)) {
+                if (qi.getQtype() != null && qi.getQtype() != QItem.QType.MULTI) return null;
+                Map<String, String> tagMap = parseTagMap(meta.get("tagByValue"));
+                if (tagMap == null || tagMap.isEmpty()) return null;
+
+                int n = tagMap.size(), i = 0, eTotal = 0, oTotal = 0;
+                String[] values = new String[n];
+                int[] points = new int[n];
+                for (Map.Entry<String, String> e : tagMap.entrySet()) {
+                    String tag = e.getValue();
+                    if ("E".equalsIgnoreCase(tag)) eTotal++;
+                    if ("O".equalsIgnoreCase(tag)) oTotal++;
+                    values[i] = e.getKey();
+                    points[i] = (tag == null) ? 0 : switch (tag.toUpperCase(Locale.ROOT)) {
+                        case "E" -> SJT_POINTS_E;
+                        case "O" -> SJT_POINTS_O;
+                        case "X" -> SJT_POINTS_X;
+                        default -> 0;
+                    };
+                    i++;
+                }
+                return new Compiled(qi.getQkey(), KIND_SJT, -1, false, trait.ordinal(), FMT_MULTI,
+                        eTotal, oTotal, values, points, null);
+
+            } else if ("YES_NO".equalsIgnoreCase(fmt) || "SINGLE_BEST".equalsIgnoreCase(fmt)) {
+                if (qi.getQtype() != null && qi.getQtype() == QItem.QType.MULTI) return null;
+                String correct = text(meta, "correctValue");
+                if (correct != null && correct.isBlank()) correct = null;
+                return new Compiled(qi.getQkey(), KIND_SJT, -1, false, trait.ordinal(), FMT_BINARY,
+                        0, 0, null, null, correct);
+            }
+            return null; // unsupported format
+        }
+        return null; // unknown kind → ignore
+    }
+
+    private static String fingerprint(List<QItem> items) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(VERSION.getBytes(StandardCharsets.UTF_8));
+            for (QItem qi : items) {
+                String row = qi.getQkey() + '\u0001' + qi.getSectionKey() + '\u0001'
+                        + qi.getQtype() + '\u0001' + qi.getMetaJson() + '\u0000';
+                md.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static JsonNode parse(String json) { try { return M.readTree(json); } catch (Exception e) { return null; } }
+    private static String  text(JsonNode n, String k) { JsonNode x = n.get(k); return (x==null||x.isNull()) ? null : x.asText(); }
+
+    private static Domain parseDomain(String s) {
+        if (s == null) return null;
+        return switch (s.toUpperCase(Locale.ROOT)) {
+            case "O" -> Domain.O;
+            case "C" -> Domain.C;
+            case "E" -> Domain.E;
+            case "A" -> Domain.A;
+            case "ES" -> Domain.ES;
+            default -> null;
+        };
+    }
+
+    /** Accepts "T01", "t6", etc. */
+    private static Trait parseTrait(String s) {
+        if (s == null) return null;
+        String num = s.toUpperCase(Locale.ROOT).replaceAll("[^0-9]", "");
+        if (num.isBlank()) return null;
+        int n = Integer.parseInt(num);
+        Trait[] all = Trait.values();
+        return (n >= 1 && n <= all.length) ? all[n - 1] : null;
+    }
+
+    private static Map<String, String> parseTagMap(JsonNode node) {
+        if (node == null || !node.isObject()) return null;
+        Map<String, String> out = new LinkedHashMap<>();
+        node.fieldNames().forEachRemaining(k -> out.put(k.toLowerCase(Locale.ROOT), node.get(k).asText()));
+        return out;
+    }
+}
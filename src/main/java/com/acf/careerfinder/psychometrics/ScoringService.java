@@ -1,18 +1,15 @@
 package com.acf.careerfinder.psychometrics;
 
-import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.admin.QuestionBankChangedEvent;
 import com.acf.careerfinder.repository.QItemRepository;
 import com.acf.careerfinder.service.QuestionnaireService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.acf.careerfinder.service.StageMetrics;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
-import static com.acf.careerfinder.psychometrics.Domain.*;
 import static com.acf.careerfinder.psychometrics.ScoringConfig.*;
-import static com.acf.careerfinder.psychometrics.Trait.*;
 
 /**
  * Computes TraitFinal(0–100) strictly from:
@@ -30,127 +27,127 @@ public class ScoringService {
 
     private final QItemRepository qItemRepo;
     private final QuestionnaireService questionnaireService;
+    private final StageMetrics stages;
 
-    private static final ObjectMapper M = new ObjectMapper();
+    /** Compiled bank; built lazily, swapped whole when the admin edits q_item. */
+    private volatile ScoringPlan plan;
+
+    private static final Domain[] DOMAINS = Domain.values();
+    private static final Trait[]  TRAITS  = Trait.values();
+
+    /** DOMS column c → Domain ordinal. */
+    private static final int[] DOMS_ORDINAL = Arrays.stream(DOMS).mapToInt(Enum::ordinal).toArray();
 
     public ScoringService(QItemRepository qItemRepo,
-                          QuestionnaireService questionnaireService) {
+                          QuestionnaireService questionnaireService,
+                          StageMetrics stages) {
         this.qItemRepo = qItemRepo;
         this.questionnaireService = questionnaireService;
+        this.stages = stages;
+    }
+
+    /** Current compiled plan (no DB access once built). */
+    public ScoringPlan plan() {
+        ScoringPlan p = plan;
+        if (p == null) {
+            synchronized (this) {
+                p = plan;
+                if (p == null) plan = p = ScoringPlan.compile(qItemRepo.findActiveOrdered());
+            }
+        }
+        return p;
+    }
+
+    /** Admin upsert/delete committed → recompile and swap atomically. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onQuestionBankChanged(QuestionBankChangedEvent event) {
+        plan = ScoringPlan.compile(qItemRepo.findActiveOrdered());
     }
 
     /** Public entry: compute for a user email. */
     public TraitProfile scoreForUser(String email) {
-        // 1) Fetch
-        List<QItem> items = qItemRepo.findActiveOrdered();
-        Map<String, String> answers = questionnaireService.loadAnswersMap(email);
-
-        // 2) Accumulators
-        EnumMap<Domain, Integer> ipipSum = new EnumMap<>(Domain.class);
-        EnumMap<Domain, Integer> ipipCount = new EnumMap<>(Domain.class);
-        for (Domain d : Domain.values()) { ipipSum.put(d, 0); ipipCount.put(d, 0); }
-
-        EnumMap<Trait, List<Double>> sjtBuckets = new EnumMap<>(Trait.class);
-        for (Trait t : Trait.values()) sjtBuckets.put(t, new ArrayList<>());
-
-        // 3) Walk each active item (strict filtering)
-        for (QItem qi : items) {
-            String sect = qi.getSectionKey();
-            if (sect == null || !(sect.equalsIgnoreCase("ipip") || sect.equalsIgnoreCase("sjt"))) {
-                continue; // hard block anything not IPIP/SJT
-            }
+        return scoreForUser(email, questionnaireService.loadAnswersMap(email));
+    }
 
-            String metaJson = qi.getMetaJson();
-            if (metaJson == null || metaJson.isBlank()) continue;
-
-            JsonNode meta = parse(metaJson);
-            if (meta == null) continue;
-
-            String kind = text(meta, "kind"); // "IPIP" | "SJT"
-            if ("IPIP".equalsIgnoreCase(kind)) {
-                // Expected: SINGLE Likert 1..5, domain in O/C/E/A/ES
-                if (qi.getQtype() != null && qi.getQtype() != QItem.QType.SINGLE) continue;
-                String domStr = text(meta, "domain");
-                Domain dom = parseDomain(domStr);
-                if (dom == null) continue;
-
-                String qkey = qi.getQkey();
-                String val = answers.get(qkey);
-                Integer likert = parseLikert(val);  // 1..5 or null
-                if (likert == null) continue;
-
-                boolean keyedPos = !"-".equals(text(meta, "keyed")); // default "+"
-                int scored = keyedPos ? likert : (6 - likert);
-                ipipSum.put(dom, ipipSum.get(dom) + scored);
-                ipipCount.put(dom, ipipCount.get(dom) + 1);
-
-            } else if ("SJT".equalsIgnoreCase(kind)) {
-                // Expected: MULTI_SELECT|YES_NO|SINGLE_BEST with trait "Txx"
-                String fmt = text(meta, "format");
-                Trait trait = parseTrait(text(meta, "trait"));
-                if (trait == null) continue;
-
-                String qkey = qi.getQkey();
-                String answer = answers.get(qkey);
-                double item0toScale = 0.0;
+    /** Same, for callers that already hold the user's answer map (no second load). */
+    public TraitProfile scoreForUser(String email, Map<String, String> answers) {
+        return scoreAnswers(plan(), answers);
+    }
 
-                if ("MULTI_SELECT".equalsIgnoreCase(fmt)) {
-                    if (qi.getQtype() != null && qi.getQtype() != QItem.QType.MULTI) continue;
-                    Map<String, String> tagMap = parseTagMap(meta.get("tagByValue"));
-                    if (tagMap == null || tagMap.isEmpty()) continue;
+    /** Score an already-loaded answer map against the given plan (pass {@link #plan()} to pin its version). */
+    public TraitProfile scoreAnswers(ScoringPlan p, Map<String, String> answers) {
+        return stages.time("scoring.score", () -> score(p, answers));
+    }
 
-                    Set<String> selected = splitCsv(answer);
-                    int eTotal = 0, oTotal = 0, points = 0;
+    /**
+     * Scoring core: one pass over the compiled plan into primitive accumulators
+     * indexed by Domain/Trait ordinal. No per-item allocation.
+     *
+     * SJT buckets keep a compensated running sum + count, the same summation
+     * DoubleStream.sum()/average() use, so results match the old list-based code bit for bit.
+     */
+    static TraitProfile score(ScoringPlan p, Map<String, String> answers) {
+        final int nd = DOMAINS.length;
+        final int nt = TRAITS.length;
+
+        // 1) Accumulators
+        int[] ipipSum = new int[nd];
+        int[] ipipCount = new int[nd];
+        double[] sjtSum = new double[nt];
+        double[] sjtComp = new double[nt];   // negated low-order bits
+        int[] sjtCount = new int[nt];
+
+        // 2) Walk each compiled item (filtering already done at compile time)
+        for (int i = 0; i < p.size; i++) {
+            String answer = answers.get(p.qkey[i]);
+
+            if (p.kind[i] == ScoringPlan.KIND_IPIP) {
+                int likert = parseLikert(answer);  // 1..5 or 0
+                if (likert == 0) continue;
+
+                int d = p.domain[i];
+                ipipSum[d] += p.reverse[i] ? (6 - likert) : likert;
+                ipipCount[d]++;
 
-                    for (String v : tagMap.keySet()) {
-                        String tag = tagMap.get(v);
-                        if ("E".equalsIgnoreCase(tag)) eTotal++;
-                        if ("O".equalsIgnoreCase(tag)) oTotal++;
-                    }
-                    for (String v : selected) {
-                        String tag = tagMap.get(v);
-                        if (tag == null) continue;
-                        switch (tag.toUpperCase(Locale.ROOT)) {
-                            case "E" -> points += SJT_POINTS_E;
-                            case "O" -> points += SJT_POINTS_O;
-                            case "X" -> points += SJT_POINTS_X;
-                        }
-                    }
-                    int denom = (SJT_POINTS_E * eTotal) + (SJT_POINTS_O * oTotal);
+            } else {
+                double item0toScale = 0.0;
+
+                if (p.format[i] == ScoringPlan.FMT_MULTI) {
+                    int points = multiSelectPoints(p, i, answer);
+                    int denom = (SJT_POINTS_E * p.eCount[i]) + (SJT_POINTS_O * p.oCount[i]);
                     if (denom > 0) {
                         double norm01 = Math.max(points, 0) / (double) denom;
                         item0toScale = SJT_MULT_SELECT_SCALE * norm01; // 0..4
                     }
-
-                } else if ("YES_NO".equalsIgnoreCase(fmt) || "SINGLE_BEST".equalsIgnoreCase(fmt)) {
-                    if (qi.getQtype() != null && qi.getQtype() == QItem.QType.MULTI) continue;
-                    String correct = Optional.ofNullable(text(meta, "correctValue")).orElse("");
-                    String given   = Optional.ofNullable(answer).orElse("");
-                    if (!correct.isBlank()) {
-                        item0toScale = correct.equalsIgnoreCase(given) ? SJT_MULT_SELECT_SCALE : 0.0;
-                    }
                 } else {
-                    continue; // unsupported format
+                    String correct = p.correct[i];
+                    if (correct != null) {
+                        item0toScale = correct.equalsIgnoreCase(answer == null ? "" : answer)
+                                ? SJT_MULT_SELECT_SCALE : 0.0;
+                    }
                 }
 
-                sjtBuckets.get(trait).add(item0toScale);
+                int t = p.trait[i];
+                double tmp = item0toScale - sjtComp[t];
+                double sum = sjtSum[t];
+                double next = sum + tmp;
+                sjtComp[t] = (next - sum) - tmp;
+                sjtSum[t] = next;
+                sjtCount[t]++;
             }
-            // else: unknown kind → ignore
         }
 
-        // 4) Build profile
+        // 3) Build profile
         TraitProfile profile = new TraitProfile();
 
-        // --- 4a) IPIP → domains 0..100 (weighted by answered count) ---
-        EnumMap<Domain, Integer> ipipRaw = new EnumMap<>(Domain.class);
-        EnumMap<Domain, Double>  ocean0100 = new EnumMap<>(Domain.class);
+        // --- 3a) IPIP → domains 0..100 (weighted by answered count) ---
+        double[] ocean = new double[nd];
         int totalIpipN = 0;
         double weightedSum = 0.0;
 
-        for (Domain d : Domain.values()) {
-            int n = ipipCount.get(d);
-            int raw = ipipSum.get(d);
-            ipipRaw.put(d, raw);
+        for (int d = 0; d < nd; d++) {
+            int n = ipipCount[d];
+            int raw = ipipSum[d];
 
             double pct;
             if (n <= 0) {
@@ -162,57 +159,47 @@ public class ScoringService {
                 weightedSum += pct * n;
                 totalIpipN += n;
             }
-            ocean0100.put(d, pct);
+            ocean[d] = pct;
+            profile.ipipRaw().put(DOMAINS[d], raw);
+            profile.ocean0to100().put(DOMAINS[d], pct);
         }
-        profile.ipipRaw().putAll(ipipRaw);
-        profile.ocean0to100().putAll(ocean0100);
         profile.setIpipOverall0to100(totalIpipN > 0 ? weightedSum / totalIpipN : 0.0);
 
-        // --- 4b) OCEAN -> 12 traits (from IPIP) ---
-        EnumMap<Trait, Double> traitsFromIpip = new EnumMap<>(Trait.class);
-        for (int r = 0; r < Trait.values().length; r++) {
+        // --- 3b) OCEAN -> 12 traits (from IPIP), flat row-major matrix ---
+        final int nc = DOMS.length;
+        double[] fromIpip = new double[nt];
+        for (int r = 0; r < nt; r++) {
             double sum = 0.0;
-            for (int c = 0; c < DOMS.length; c++) {
-                double dVal = ocean0100.getOrDefault(DOMS[c], 0.0);
-                sum += OCEAN_TO_TRAIT[r][c] * dVal;
+            for (int c = 0; c < nc; c++) {
+                sum += OCEAN_TO_TRAIT_FLAT[r * nc + c] * ocean[DOMS_ORDINAL[c]];
             }
-            traitsFromIpip.put(Trait.values()[r], clamp100(sum));
+            fromIpip[r] = clamp100(sum);
         }
-        profile.traitFromIpip0to100().putAll(traitsFromIpip);
 
-        // --- 4c) SJT -> 12 traits (mean item 0..scale ⇒ 0..100) ---
-        EnumMap<Trait, Double> traitSjt = new EnumMap<>(Trait.class);
+        // --- 3c) SJT -> 12 traits (mean item 0..scale ⇒ 0..100) ---
         int totalSjtItems = 0;
         double sumItems0toScale = 0.0;
-
-        for (Trait t : Trait.values()) {
-            List<Double> arr = sjtBuckets.get(t);
-            double mean = (arr == null || arr.isEmpty())
-                    ? 0.0
-                    : arr.stream().mapToDouble(d -> d).average().orElse(0.0); // 0..scale
-            double out0100 = (100.0 / SJT_MULT_SELECT_SCALE) * mean;
-            out0100 = clamp100(out0100);
-            traitSjt.put(t, out0100);
-
-            if (arr != null) {
-                totalSjtItems += arr.size();
-                sumItems0toScale += arr.stream().mapToDouble(d -> d).sum();
-            }
+        double[] sjt = new double[nt];
+
+        for (int t = 0; t < nt; t++) {
+            int n = sjtCount[t];
+            double total = sjtSum[t] - sjtComp[t];
+            double mean = (n == 0) ? 0.0 : total / n; // 0..scale
+            sjt[t] = clamp100((100.0 / SJT_MULT_SELECT_SCALE) * mean);
+            totalSjtItems += n;
+            sumItems0toScale += total;
         }
-        profile.traitSjt0to100().putAll(traitSjt);
         profile.setSjtOverall0to100(
                 totalSjtItems > 0 ? clamp100((100.0 / SJT_MULT_SELECT_SCALE) * (sumItems0toScale / totalSjtItems)) : 0.0
         );
 
-        // --- 4d) Blend final per-trait + composite ---
-        EnumMap<Trait, Double> traitFinal = new EnumMap<>(Trait.class);
-        for (Trait t : Trait.values()) {
-            double a = traitsFromIpip.getOrDefault(t, 0.0);
-            double b = traitSjt.getOrDefault(t, 0.0);
-            double f = W_IPIP * a + W_SJT * b;
-            traitFinal.put(t, clamp100(f));
+        // --- 3d) Blend final per-trait + composite ---
+        for (int t = 0; t < nt; t++) {
+            Trait trait = TRAITS[t];
+            profile.traitFromIpip0to100().put(trait, fromIpip[t]);
+            profile.traitSjt0to100().put(trait, sjt[t]);
+            profile.traitFinal0to100().put(trait, clamp100(W_IPIP * fromIpip[t] + W_SJT * sjt[t]));
         }
-        profile.traitFinal0to100().putAll(traitFinal);
 
         double composite = W_IPIP * profile.getIpipOverall0to100()
                 + W_SJT  * profile.getSjtOverall0to100();
@@ -241,53 +228,43 @@ public class ScoringService {
     }
 
     /* -------------------- Internals -------------------- */
-    private static JsonNode parse(String json) { try { return M.readTree(json); } catch (Exception e) { return null; } }
-    private static String  text(JsonNode n, String k) { JsonNode x = n.get(k); return (x==null||x.isNull()) ? null : x.asText(); }
     private static double  clamp100(double v){ return v < 0 ? 0 : (v > 100 ? 100 : v); }
 
-    private static Domain parseDomain(String s) {
-        if (s == null) return null;
-        return switch (s.toUpperCase(Locale.ROOT)) {
-            case "O" -> O;
-            case "C" -> C;
-            case "E" -> E;
-            case "A" -> A;
-            case "ES" -> ES;
-            default -> null;
-        };
-    }
-
-    /** Accepts "T01", "t6", etc. */
-    private static Trait parseTrait(String s) {
-        if (s == null) return null;
-        String num = s.toUpperCase(Locale.ROOT).replaceAll("[^0-9]", "");
-        if (num.isBlank()) return null;
-        int n = Integer.parseInt(num);
-        Trait[] all = Trait.values();
-        return (n >= 1 && n <= all.length) ? all[n - 1] : null;
-    }
-
-    private static Integer parseLikert(String s) {
-        if (s == null) return null;
+    /** Likert 1..5, or 0 when missing/invalid. */
+    private static int parseLikert(String s) {
+        if (s == null) return 0;
         try {
             int v = Integer.parseInt(s.trim());
             if (v >= IPIP_MIN && v <= IPIP_MAX) return v;
         } catch (Exception ignored) {}
-        return null;
-    }
-
-    private static Set<String> splitCsv(String s) {
-        if (s == null || s.isBlank()) return Collections.emptySet();
-        return Arrays.stream(s.split(","))
-                .map(x -> x.trim().toLowerCase(Locale.ROOT))
-                .filter(x -> !x.isEmpty())
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return 0;
     }
 
-    private static Map<String, String> parseTagMap(JsonNode node) {
-        if (node == null || !node.isObject()) return null;
-        Map<String, String> out = new LinkedHashMap<>();
-        node.fieldNames().forEachRemaining(k -> out.put(k.toLowerCase(Locale.ROOT), node.get(k).asText()));
-        return out;
+    /**
+     * Sum of SJT points over the distinct selected values of a comma-separated answer
+     * (trimmed, lower-cased). Values missing from tagByValue score nothing.
+     * Duplicates are tracked in a bitmask; the admin caps MULTI_SELECT at 8 options.
+     */
+    private static int multiSelectPoints(ScoringPlan p, int i, String answer) {
+        if (answer == null || answer.isBlank()) return 0;
+        String[] values = p.optValue[i];
+        int[] pts = p.optPoints[i];
+        long seen = 0L;
+        int points = 0;
+        for (String raw : answer.split(",")) {
+            String v = raw.trim().toLowerCase(Locale.ROOT);
+            if (v.isEmpty()) continue;
+            for (int j = 0; j < values.length; j++) {
+                if (!values[j].equals(v)) continue;
+                if (j < 64) {
+                    long bit = 1L << j;
+                    if ((seen & bit) != 0) break;
+                    seen |= bit;
+                }
+                points += pts[j];
+                break;
+            }
+        }
+        return points;
     }
 }
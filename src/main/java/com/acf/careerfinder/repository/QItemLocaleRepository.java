@@ -16,6 +16,8 @@ public interface QItemLocaleRepository extends JpaRepository<QItemLocale, Long>
 
     Optional<QItemLocale> findByItemIdAndLocale(Long itemId, String locale);
 
+    List<QItemLocale> findByItemIdIn(Collection<Long> itemIds);  // bulk admin writes
+
     @Modifying
     @Transactional
     @Query("delete from QItemLocale l where l.item.id = :itemId")
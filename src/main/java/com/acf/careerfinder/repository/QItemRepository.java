@@ -4,6 +4,7 @@ import com.acf.careerfinder.model.QItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +29,6 @@ public interface QItemRepository extends JpaRepository<QItem, Long> {
     List<QItem> findAllOrdered();
 
     Optional<QItem> findByQkey(String qkey);
+
+    List<QItem> findByQkeyIn(Collection<String> qkeys);  // bulk admin writes
 }
\ No newline at end of file
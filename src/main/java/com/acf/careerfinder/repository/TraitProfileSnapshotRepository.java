@@ -0,0 +1,11 @@
+package com.acf.careerfinder.repository;
+
+import com.acf.careerfinder.model.TraitProfileSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface TraitProfileSnapshotRepository extends JpaRepository<TraitProfileSnapshot, Long> {
+    Optional<TraitProfileSnapshot> findByUserEmail(String userEmail);
+    void deleteByUserEmail(String userEmail);
+}
@@ -3,9 +3,50 @@ package com.acf.careerfinder.repository;
 import com.acf.careerfinder.model.UserProgress;
 import com.acf.careerfinder.model.UserProgress.Section;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserProgressRepository extends JpaRepository<UserProgress, Long> {
     Optional<UserProgress> findByUserEmailAndSection(String userEmail, Section section);
-}
\ No newline at end of file
+
+    /** Flag an existing row completed in one UPDATE (no read first); 0 when there is no row yet. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserProgress p SET p.completed = true, p.updatedAt = LOCAL DATETIME"
+            + " WHERE p.userEmail = :email AND p.section = :section")
+    int markCompleted(@Param("email") String email, @Param("section") Section section);
+
+    /* ---- progress.storage=jsonb: answers_json is jsonb, written only through these ---- */
+
+    /**
+     * Apply a delta server-side in one statement (no read first):
+     * answers = answers || :delta - :removed, where :delta is a JSON object of set keys
+     * and :removed a JSON array of keys to drop. :page < 1 keeps the stored page.
+     * Clears the persistence context so a following find sees the merged row.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO user_progress (user_email, section, answers_json, page, completed, created_at, updated_at)
+            VALUES (:email, :section, CAST(:delta AS jsonb), GREATEST(:page, 1), false, now(), now())
+            ON CONFLICT (user_email, section) DO UPDATE
+               SET answers_json = (user_progress.answers_json || CAST(:delta AS jsonb))
+                                  - ARRAY(SELECT jsonb_array_elements_text(CAST(:removed AS jsonb))),
+                   page = CASE WHEN :page >= 1 THEN :page ELSE user_progress.page END,
+                   updated_at = now()
+            """, nativeQuery = true)
+    int mergeAnswersJsonb(@Param("email") String email, @Param("section") String section,
+                          @Param("delta") String delta, @Param("removed") String removed,
+                          @Param("page") int page);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_progress (user_email, section, answers_json, page, completed, created_at, updated_at)
+            VALUES (:email, :section, CAST('{}' AS jsonb), 1, true, now(), now())
+            ON CONFLICT (user_email, section) DO UPDATE
+               SET completed = true,
+                   updated_at = now()
+            """, nativeQuery = true)
+    int markCompletedJsonb(@Param("email") String email, @Param("section") String section);
+}
@@ -5,6 +5,7 @@ import com.acf.careerfinder.sector.model1.SectorGates;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * Age is taken ONLY from Q26 (gate.Q26_age). We do NOT infer age from the licence.
@@ -212,56 +213,148 @@ public class EligibilityService {
         return cand;
     }
 
-    public Eligibility checkEligibility(Cand cand, SectorGates.Requirements req) {
-        if (req == null) return new Eligibility(true, List.of());
-        List<String> reasons = new ArrayList<>();
+    /* ---------------- compiled (bitmask) eligibility ---------------- */
+
+    /** Boolean gates; bit = ordinal. Declaration order = order reasons are listed in. */
+    private enum Flag {
+        STANDING     ("Comfortable standing 6–8 hrs",       SectorGates.Requirements::needsStandingOk,     c -> c.standingOK),
+        NIGHT        ("Night/rotational shifts OK",         SectorGates.Requirements::needsNightOk,        c -> c.nightOK),
+        WEEKEND      ("Weekend work OK",                    SectorGates.Requirements::needsWeekendOk,      c -> c.weekendOK),
+        FIELD_TRAVEL ("Field travel OK",                    SectorGates.Requirements::needsFieldTravelOk,  c -> c.fieldTravelOK),
+        AT_HEIGHT    ("Work at height with safety gear OK", SectorGates.Requirements::needsWorkAtHeightOk, c -> c.workAtHeightOK),
+
+        SMARTPHONE   ("Smartphone for daily work",          SectorGates.Requirements::needsSmartphone,     c -> c.smartphone),
+        DOCS         ("Standard ID & bank docs ready",      SectorGates.Requirements::needsDocs,           c -> c.hasDocs),
+        DL           ("Valid driving licence",              SectorGates.Requirements::needsDL,             c -> c.hasDL),
+        TWO_WHEELER  ("Two‑wheeler access",                 SectorGates.Requirements::needs2W,             c -> c.has2W),
+        PSARA        ("PSARA certification",                SectorGates.Requirements::needsPSARA,          c -> c.hasPSARA),
+        AEP          ("Airport Entry Permit (AEP)",         SectorGates.Requirements::needsAEP,            c -> c.hasAEP),
+        BGC          ("Background check clearance",         SectorGates.Requirements::needsBGC,            c -> c.bgcOK),
 
-        if (req.minEdu() != null && (cand.edu == null || cand.edu < req.minEdu()))
-            reasons.add("Min education required: " + prettyEdu(req.minEdu()));
+        ENGLISH      ("Basic English",                      SectorGates.Requirements::needsEnglishBasic,   c -> c.englishBasic),
+        LOCAL_LANG   ("Local language (basic+)",            SectorGates.Requirements::needsLocalLanguage,  c -> c.localLanguage),
+        COMPUTER     ("Basic computer skills",              SectorGates.Requirements::needsComputerBasics, c -> c.computerBasics),
+        VISION       ("Normal/adequate vision",             SectorGates.Requirements::needsNormalVision,   c -> c.normalVision),
+        COLOUR       ("Normal colour vision",               SectorGates.Requirements::needsColorVisionOk,  c -> c.colorVisionOK),
+        VACC         ("Vaccination proof",                  SectorGates.Requirements::needsVaccProof,      c -> c.vaccProof);
 
-        // Age: fail only if provided AND below the requirement.
-        if (req.minAge() != null && cand.age != null && cand.age < req.minAge())
-            reasons.add("Min age required: " + req.minAge());
+        final String label;
+        final Function<SectorGates.Requirements, Boolean> required;
+        final Function<Cand, Boolean> has;
 
-        if (req.minHeightCm() != null && (cand.heightCm == null || cand.heightCm < req.minHeightCm()))
-            reasons.add("Min height required: " + req.minHeightCm() + " cm");
+        Flag(String label, Function<SectorGates.Requirements, Boolean> required, Function<Cand, Boolean> has) {
+            this.label = label; this.required = required; this.has = has;
+        }
+
+        long bit() { return 1L << ordinal(); }
+    }
 
-        if (req.minLiftKg() != null && (cand.liftKg == null || cand.liftKg < req.minLiftKg()))
-            reasons.add("Must lift ≥ " + req.minLiftKg() + " kg");
+    private static final Flag[] FLAGS = Flag.values();
 
-        if (req.maxCommuteKm() != null && (cand.commuteKm == null || cand.commuteKm > req.maxCommuteKm()))
-            reasons.add("Commute must be ≤ " + req.maxCommuteKm() + " km");
+    /**
+     * Cand packed for comparison: one bit per TRUE boolean gate, plus numeric attributes
+     * with "missing" mapped to a value that fails any real threshold
+     * (age: missing passes, per the Q26 rule).
+     */
+    public static final class CandBits {
+        final long has;
+        final int edu, age, heightCm, liftKg, commuteKm, typingWPM;
 
-        need(req.needsStandingOk(),     cand.standingOK,     "Comfortable standing 6–8 hrs", reasons);
-        need(req.needsNightOk(),        cand.nightOK,        "Night/rotational shifts OK",   reasons);
-        need(req.needsWeekendOk(),      cand.weekendOK,      "Weekend work OK",              reasons);
-        need(req.needsFieldTravelOk(),  cand.fieldTravelOK,  "Field travel OK",              reasons);
-        need(req.needsWorkAtHeightOk(), cand.workAtHeightOK, "Work at height with safety gear OK", reasons);
+        private CandBits(long has, int edu, int age, int heightCm, int liftKg, int commuteKm, int typingWPM) {
+            this.has = has; this.edu = edu; this.age = age; this.heightCm = heightCm;
+            this.liftKg = liftKg; this.commuteKm = commuteKm; this.typingWPM = typingWPM;
+        }
+    }
 
-        need(req.needsSmartphone(),     cand.smartphone,     "Smartphone for daily work",    reasons);
-        need(req.needsDocs(),           cand.hasDocs,        "Standard ID & bank docs ready", reasons);
-        need(req.needsDL(),             cand.hasDL,          "Valid driving licence",        reasons);
-        need(req.needs2W(),             cand.has2W,          "Two‑wheeler access",           reasons);
-        need(req.needsPSARA(),          cand.hasPSARA,       "PSARA certification",          reasons);
-        need(req.needsAEP(),            cand.hasAEP,         "Airport Entry Permit (AEP)",   reasons);
-        need(req.needsBGC(),            cand.bgcOK,          "Background check clearance",   reasons);
+    /** SectorGates.Requirements compiled to a required-bit mask + numeric bounds (absent = no-op bound). */
+    public static final class CompiledGate {
+        public static final CompiledGate NONE = new CompiledGate(0L,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE,
+                Integer.MAX_VALUE, Integer.MIN_VALUE);
 
-        need(req.needsEnglishBasic(),   cand.englishBasic,   "Basic English",                reasons);
-        need(req.needsLocalLanguage(),  cand.localLanguage,  "Local language (basic+)",      reasons);
-        need(req.needsComputerBasics(), cand.computerBasics, "Basic computer skills",        reasons);
-        need(req.needsNormalVision(),   cand.normalVision,   "Normal/adequate vision",       reasons);
-        need(req.needsColorVisionOk(),  cand.colorVisionOK,  "Normal colour vision",         reasons);
-        need(req.needsVaccProof(),      cand.vaccProof,      "Vaccination proof",            reasons);
+        final long need;
+        final int minEdu, minAge, minHeightCm, minLiftKg, maxCommuteKm, minTypingWPM;
 
-        if (req.minTypingWPM() != null && (cand.typingWPM == null || cand.typingWPM < req.minTypingWPM()))
-            reasons.add("Typing ≥ " + req.minTypingWPM() + " WPM");
+        private CompiledGate(long need, int minEdu, int minAge, int minHeightCm, int minLiftKg,
+                             int maxCommuteKm, int minTypingWPM) {
+            this.need = need; this.minEdu = minEdu; this.minAge = minAge; this.minHeightCm = minHeightCm;
+            this.minLiftKg = minLiftKg; this.maxCommuteKm = maxCommuteKm; this.minTypingWPM = minTypingWPM;
+        }
+    }
 
-        return new Eligibility(reasons.isEmpty(), reasons);
+    public CandBits encode(Cand c) {
+        long has = 0L;
+        for (Flag f : FLAGS) {
+            if (Boolean.TRUE.equals(f.has.apply(c))) has |= f.bit();
+        }
+        return new CandBits(has,
+                c.edu == null ? -1 : c.edu,
+                c.age == null ? Integer.MAX_VALUE : c.age,     // unknown age never fails min-age
+                c.heightCm == null ? -1 : c.heightCm,
+                c.liftKg == null ? -1 : c.liftKg,
+                c.commuteKm == null ? Integer.MAX_VALUE : c.commuteKm,
+                c.typingWPM == null ? -1 : c.typingWPM);
     }
 
-    private static void need(Boolean require, Boolean has, String label, List<String> reasons) {
-        if (Boolean.TRUE.equals(require) && !Boolean.TRUE.equals(has)) reasons.add(label);
+    public static CompiledGate compile(SectorGates.Requirements req) {
+        if (req == null) return CompiledGate.NONE;
+        long need = 0L;
+        for (Flag f : FLAGS) {
+            if (Boolean.TRUE.equals(f.required.apply(req))) need |= f.bit();
+        }
+        return new CompiledGate(need,
+                req.minEdu() == null ? Integer.MIN_VALUE : req.minEdu(),
+                req.minAge() == null ? Integer.MIN_VALUE : req.minAge(),
+                req.minHeightCm() == null ? Integer.MIN_VALUE : req.minHeightCm(),
+                req.minLiftKg() == null ? Integer.MIN_VALUE : req.minLiftKg(),
+                req.maxCommuteKm() == null ? Integer.MAX_VALUE : req.maxCommuteKm(),
+                req.minTypingWPM() == null ? Integer.MIN_VALUE : req.minTypingWPM());
     }
+
+    /** Compile every sector gate, keyed by sector id. */
+    public static Map<String, CompiledGate> compileAll(SectorGates gates) {
+        Map<String, CompiledGate> out = new HashMap<>();
+        for (SectorGates.SectorGate g : gates.sectors()) out.put(g.id(), compile(g.req()));
+        return out;
+    }
+
+    /** One mask test + six int compares. */
+    public boolean eligible(CandBits c, CompiledGate g) {
+        return (c.has & g.need) == g.need
+                && c.edu >= g.minEdu
+                && c.age >= g.minAge
+                && c.heightCm >= g.minHeightCm
+                && c.liftKg >= g.minLiftKg
+                && c.commuteKm <= g.maxCommuteKm
+                && c.typingWPM >= g.minTypingWPM;
+    }
+
+    /** Failure reasons (same text and order as checkEligibility); call only for rows that are shown. */
+    public List<String> reasons(CandBits c, CompiledGate g) {
+        List<String> reasons = new ArrayList<>();
+        if (c.edu < g.minEdu)           reasons.add("Min education required: " + prettyEdu(g.minEdu));
+        if (c.age < g.minAge)           reasons.add("Min age required: " + g.minAge);
+        if (c.heightCm < g.minHeightCm) reasons.add("Min height required: " + g.minHeightCm + " cm");
+        if (c.liftKg < g.minLiftKg)     reasons.add("Must lift ≥ " + g.minLiftKg + " kg");
+        if (c.commuteKm > g.maxCommuteKm) reasons.add("Commute must be ≤ " + g.maxCommuteKm + " km");
+
+        long missing = g.need & ~c.has;
+        for (Flag f : FLAGS) {
+            if ((missing & f.bit()) != 0) reasons.add(f.label);
+        }
+
+        if (c.typingWPM < g.minTypingWPM) reasons.add("Typing ≥ " + g.minTypingWPM + " WPM");
+        return reasons;
+    }
+
+    /** Eager form, kept for callers outside the ranking path. */
+    public Eligibility checkEligibility(Cand cand, SectorGates.Requirements req) {
+        CandBits c = encode(cand);
+        CompiledGate g = compile(req);
+        if (eligible(c, g)) return new Eligibility(true, List.of());
+        return new Eligibility(false, reasons(c, g));
+    }
+
     private static String upper(String s) { return (s == null) ? null : s.trim().toUpperCase(Locale.ROOT); }
     private static Boolean yesNo(String choice) {
         String c = upper(choice);
@@ -6,17 +6,23 @@ import com.acf.careerfinder.sector.model1.SectorGates;
 import com.acf.careerfinder.sector.model1.SectorWeights;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class SectorConfigService {
 
+    private static final Logger log = LoggerFactory.getLogger(SectorConfigService.class);
+
     // Defaults assume Option B folder layout under src/main/resources/config/sectors/v1
     @Value("${sector.catalog.path:config/sectors/v1/SectorCatalog_v1.json}")
     private String catalogPath;
@@ -34,30 +40,144 @@ public class SectorConfigService {
     private final ObjectMapper M = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    private SectorCatalog catalog;
-    private SectorGates gates;
-    private SectorWeights weights;
+    /** Paths may be plain (classpath), "classpath:..." or "file:..." */
+    private final ResourceLoader resources = new DefaultResourceLoader();
+
+    /** The three files as parsed, before validation and compilation. */
+    private record Parsed(SectorCatalog catalog, SectorGates gates, SectorWeights weights, String version) {}
+
+    /** Current generation; replaced whole by reload(), read without locking. */
+    private volatile SectorConfigSnapshot snapshot;
 
     /* -------- Loaders -------- */
 
-    public synchronized SectorCatalog catalog() {
-        if (catalog == null) catalog = readJson(catalogPath, SectorCatalog.class);
-        return catalog;
+    public SectorConfigSnapshot snapshot() {
+        SectorConfigSnapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                s = snapshot;
+                if (s == null) snapshot = s = compile(load());
+            }
+        }
+        return s;
+    }
+
+    public SectorCatalog catalog() { return snapshot().catalog(); }
+
+    public SectorGates gates() { return snapshot().gates(); }
+
+    public SectorWeights weights() { return snapshot().weights(); }
+
+    /** Hex SHA-256 over the raw catalog/gates/weights files; changes whenever any of them does. */
+    public String version() { return snapshot().version(); }
+
+    /** Outcome of {@link #reload()}; when not swapped the previous snapshot is still live. */
+    public record ReloadResult(boolean swapped, String version, String previousVersion, ValidationReport report) {}
+
+    /**
+     * Re-read the three files, validate them and compile and swap in a snapshot only if valid.
+     * Files that fail to load or validate are dropped and the current snapshot stays.
+     */
+    public synchronized ReloadResult reload() {
+        SectorConfigSnapshot current = snapshot();
+        Parsed p;
+        try {
+            p = load();
+        } catch (IllegalStateException e) {
+            log.error("Sector config reload failed, keeping {}: {}", current.version(), e.getMessage());
+            return new ReloadResult(false, current.version(), current.version(),
+                    new ValidationReport(0, List.of(e.getMessage())));
+        }
+
+        ValidationReport rep = validate(p.catalog(), p.gates(), p.weights());
+        if (!rep.ok()) {
+            log.error("Sector config reload rejected, keeping {}: {}", current.version(), rep.problems());
+            return new ReloadResult(false, current.version(), current.version(), rep);
+        }
+        SectorConfigSnapshot candidate = SectorConfigSnapshot.build(p.catalog(), p.gates(), p.weights(), p.version());
+        if (!candidate.version().equals(current.version())) {
+            snapshot = candidate;
+            log.info("Sector config reloaded: {} -> {} ({} sectors)",
+                    current.version(), candidate.version(), rep.sectorCount());
+        }
+        return new ReloadResult(snapshot == candidate, snapshot.version(), current.version(), rep);
+    }
+
+    /** A what-if candidate: its validation report and, only when valid, the compiled snapshot. */
+    public record Candidate(String version, ValidationReport report, SectorConfigSnapshot snapshot) {
+        public boolean ok() { return report.ok(); }
+    }
+
+    /**
+     * Unpublished candidate: the live catalog with candidate gates and/or weights JSON
+     * (null = keep live), validated like a reload and compiled only if valid.
+     * Throws IllegalStateException when the JSON does not parse.
+     */
+    public Candidate candidate(byte[] gatesJson, byte[] weightsJson) {
+        SectorConfigSnapshot live = snapshot();
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(live.version().getBytes(StandardCharsets.UTF_8));
+            if (gatesJson != null) md.update(gatesJson);
+            md.update((byte) 0);
+            if (weightsJson != null) md.update(weightsJson);
+            SectorGates gates = gatesJson == null ? live.gates() : parse(gatesJson, "candidate gates", SectorGates.class);
+            SectorWeights weights = weightsJson == null ? live.weights() : parse(weightsJson, "candidate weights", SectorWeights.class);
+            String version = "candidate-" + HexFormat.of().formatHex(md.digest());
+            ValidationReport rep = validate(live.catalog(), gates, weights);
+            return new Candidate(version, rep,
+                    rep.ok() ? SectorConfigSnapshot.build(live.catalog(), gates, weights, version) : null);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to build candidate sector config", e);
+        }
+    }
+
+    /** Configured resource locations (catalog, gates, weights). */
+    public List<String> paths() {
+        return List.of(catalogPath, gatesPath, weightsPath);
     }
 
-    public synchronized SectorGates gates() {
-        if (gates == null) gates = readJson(gatesPath, SectorGates.class);
-        return gates;
+    /** First load: invalid files fail startup (as SectorConfigValidator would). */
+    private SectorConfigSnapshot compile(Parsed p) {
+        ValidationReport rep = validate(p.catalog(), p.gates(), p.weights());
+        if (!rep.ok()) throw new IllegalStateException("Sector config invalid: " + rep.problems());
+        return SectorConfigSnapshot.build(p.catalog(), p.gates(), p.weights(), p.version());
     }
 
-    public synchronized SectorWeights weights() {
-        if (weights == null) weights = readJson(weightsPath, SectorWeights.class);
-        return weights;
+    private Parsed load() {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] cat = readBytes(catalogPath, md);
+            byte[] gat = readBytes(gatesPath, md);
+            byte[] wei = readBytes(weightsPath, md);
+            return new Parsed(
+                    parse(cat, catalogPath, SectorCatalog.class),
+                    parse(gat, gatesPath, SectorGates.class),
+                    parse(wei, weightsPath, SectorWeights.class),
+                    HexFormat.of().formatHex(md.digest()));
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load sector config", e);
+        }
     }
 
-    private <T> T readJson(String path, Class<T> type) {
-        try (InputStream in = new ClassPathResource(path).getInputStream()) {
-            return M.readValue(in, type);
+    private byte[] readBytes(String path, MessageDigest md) {
+        try (InputStream in = resources.getResource(path).getInputStream()) {
+            byte[] b = in.readAllBytes();
+            md.update(b);
+            md.update((byte) 0);
+            return b;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load JSON: " + path, e);
+        }
+    }
+
+    private <T> T parse(byte[] json, String path, Class<T> type) {
+        try {
+            return M.readValue(json, type);
         } catch (Exception e) {
             throw new IllegalStateException("Failed to load JSON: " + path, e);
         }
@@ -66,21 +186,40 @@ public class SectorConfigService {
     /* -------- Validation (used by SectorConfigValidator) -------- */
 
     public ValidationReport validateAll() {
-        SectorCatalog cat = catalog();
-        SectorGates gat = gates();
-        SectorWeights w = weights();
-
-        Set<String> idsCat = cat.sectors().stream()
-                .map(SectorCatalog.Sector::id)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-        Set<String> idsGat = gat.sectors().stream()
-                .map(SectorGates.SectorGate::id)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-        Set<String> idsWei = w.sectors().stream()
-                .map(SectorWeights.Row::id)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+        return validate(snapshot());
+    }
+
+    /** Cross-file checks for one snapshot (live or candidate). */
+    public ValidationReport validate(SectorConfigSnapshot s) {
+        return validate(s.catalog(), s.gates(), s.weights());
+    }
 
+    /**
+     * Cross-file checks on parsed files. Structure (sector lists, ids, names, weight maps) is
+     * checked first and reported alone, since compiling a snapshot relies on it.
+     */
+    public ValidationReport validate(SectorCatalog cat, SectorGates gat, SectorWeights w) {
         List<String> problems = new ArrayList<>();
+        if (cat == null || cat.sectors() == null) problems.add("catalog: missing sectors list");
+        if (gat == null || gat.sectors() == null) problems.add("gates: missing sectors list");
+        if (w == null || w.sectors() == null) problems.add("weights: missing sectors list");
+        if (!problems.isEmpty()) return new ValidationReport(0, problems);
+
+        for (SectorCatalog.Sector s : cat.sectors()) {
+            if (s == null || isBlank(s.id())) problems.add("catalog: sector without id");
+            else if (s.name() == null) problems.add("catalog: " + s.id() + " has no name");
+        }
+        for (SectorGates.SectorGate g : gat.sectors()) {
+            if (g == null || isBlank(g.id())) problems.add("gates: sector without id");
+        }
+        for (SectorWeights.Row r : w.sectors()) {
+            if (r == null || isBlank(r.id())) problems.add("weights: sector without id");
+            else if (r.weights() == null) problems.add("weights: " + r.id() + " has no weights");
+        }
+        Set<String> idsCat = ids("catalog", cat.sectors().stream().map(s -> s == null ? null : s.id()).toList(), problems);
+        Set<String> idsGat = ids("gates", gat.sectors().stream().map(g -> g == null ? null : g.id()).toList(), problems);
+        Set<String> idsWei = ids("weights", w.sectors().stream().map(r -> r == null ? null : r.id()).toList(), problems);
+        if (!problems.isEmpty()) return new ValidationReport(idsCat.size(), problems);
 
         // ID set equality
         if (!idsCat.equals(idsGat) || !idsCat.equals(idsWei)) {
@@ -108,6 +247,21 @@ public class SectorConfigService {
         return new ValidationReport(idsCat.size(), problems);
     }
 
+    /** Ids in file order; duplicates are reported. */
+    private static Set<String> ids(String file, List<String> ids, List<String> problems) {
+        Set<String> out = new LinkedHashSet<>();
+        Set<String> dup = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !out.add(id)) dup.add(id);
+        }
+        if (!dup.isEmpty()) problems.add(file + ": duplicate sector ids " + dup);
+        return out;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
     private static Set<String> diff(Set<String> a, Set<String> b) {
         Set<String> d = new LinkedHashSet<>(a);
         d.removeAll(b);
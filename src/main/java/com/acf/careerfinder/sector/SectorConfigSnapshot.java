@@ -0,0 +1,62 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.sector.model1.SectorCatalog;
+import com.acf.careerfinder.sector.model1.SectorGates;
+import com.acf.careerfinder.sector.model1.SectorWeights;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One immutable generation of the sector configuration: the three parsed files,
+ * the compiled score matrix, gates aligned to its rows and a content hash.
+ *
+ * Published by {@link SectorConfigService} through a volatile reference; readers take
+ * one snapshot per request so scores, gates and names always come from the same files.
+ */
+public final class SectorConfigSnapshot {
+
+    private final SectorCatalog catalog;
+    private final SectorGates gates;
+    private final SectorWeights weights;
+    private final SectorScoreMatrix matrix;
+    private final EligibilityService.CompiledGate[] gateByRow;
+    private final String version;
+    private final Instant loadedAt;
+
+    private SectorConfigSnapshot(SectorCatalog catalog, SectorGates gates, SectorWeights weights,
+                                 SectorScoreMatrix matrix, EligibilityService.CompiledGate[] gateByRow,
+                                 String version) {
+        this.catalog = catalog;
+        this.gates = gates;
+        this.weights = weights;
+        this.matrix = matrix;
+        this.gateByRow = gateByRow;
+        this.version = version;
+        this.loadedAt = Instant.now();
+    }
+
+    /** Compile parsed files that passed SectorConfigService.validate (their structure is assumed). */
+    static SectorConfigSnapshot build(SectorCatalog catalog, SectorGates gates, SectorWeights weights, String version) {
+        SectorScoreMatrix m = SectorScoreMatrix.compile(catalog, weights, SectorScoringService.T_NAMES);
+        Map<String, EligibilityService.CompiledGate> byId = EligibilityService.compileAll(gates);
+        EligibilityService.CompiledGate[] g = new EligibilityService.CompiledGate[m.size()];
+        for (int i = 0; i < g.length; i++) {
+            g[i] = byId.getOrDefault(m.id(i), EligibilityService.CompiledGate.NONE); // absent id = no gates
+        }
+        return new SectorConfigSnapshot(catalog, gates, weights, m, g, version);
+    }
+
+    public SectorCatalog catalog() { return catalog; }
+    public SectorGates gates() { return gates; }
+    public SectorWeights weights() { return weights; }
+    public SectorScoreMatrix matrix() { return matrix; }
+
+    /** Compiled gate for matrix row i. */
+    public EligibilityService.CompiledGate gate(int row) { return gateByRow[row]; }
+
+    /** Hex SHA-256 over the raw catalog/gates/weights bytes. */
+    public String version() { return version; }
+
+    public Instant loadedAt() { return loadedAt; }
+}
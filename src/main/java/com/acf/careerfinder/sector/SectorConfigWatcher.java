@@ -0,0 +1,117 @@
+package com.acf.careerfinder.sector;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional file watcher: reloads the sector config when a "file:" catalog/gates/weights
+ * path changes on disk. Classpath paths are never watched (use the admin endpoint).
+ *
+ * Events are debounced so an editor writing three files triggers a single reload;
+ * SectorConfigService rejects a half-written set and keeps the live snapshot.
+ */
+@Component
+public class SectorConfigWatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(SectorConfigWatcher.class);
+
+    private final SectorConfigService cfg;
+
+    @Value("${sector.config.watch:false}")
+    private boolean enabled;
+
+    @Value("${sector.config.watch-debounce-ms:500}")
+    private long debounceMs;
+
+    private WatchService watcher;
+    private Thread thread;
+
+    public SectorConfigWatcher(SectorConfigService cfg) {
+        this.cfg = cfg;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+
+        Set<Path> files = new HashSet<>();
+        for (String p : cfg.paths()) {
+            if (p.startsWith("file:")) files.add(Paths.get(p.substring("file:".length())).toAbsolutePath().normalize());
+        }
+        if (files.isEmpty()) {
+            log.info("sector.config.watch=true but no file: paths configured; watcher not started");
+            return;
+        }
+
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            Set<Path> dirs = new HashSet<>();
+            for (Path f : files) dirs.add(f.getParent());
+            for (Path d : dirs) {
+                d.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            log.warn("Sector config watcher not started: {}", e.toString());
+            return;
+        }
+
+        thread = new Thread(() -> loop(files), "sector-config-watch");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching sector config files: {}", files);
+    }
+
+    private void loop(Set<Path> files) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.take();
+                boolean relevant = touches(key, files);
+                // Drain anything else arriving within the debounce window
+                WatchKey more;
+                while ((more = watcher.poll(debounceMs, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= touches(more, files);
+                }
+                if (relevant) {
+                    try {
+                        cfg.reload();
+                    } catch (RuntimeException e) {
+                        log.error("Sector config reload from watcher failed", e);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+
+    private static boolean touches(WatchKey key, Set<Path> files) {
+        Path dir = (Path) key.watchable();
+        boolean hit = false;
+        for (WatchEvent<?> ev : key.pollEvents()) {
+            if (ev.context() instanceof Path name && files.contains(dir.resolve(name).toAbsolutePath().normalize())) {
+                hit = true;
+            }
+        }
+        key.reset();
+        return hit;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (thread != null) thread.interrupt();
+        if (watcher != null) {
+            try { watcher.close(); } catch (IOException ignored) { }
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package com.acf.careerfinder.sector;
 
-import com.acf.careerfinder.sector.model1.SectorGates;
+import com.acf.careerfinder.service.StageMetrics;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Phase-7: Compose scoring + gating into the exact lists you want.
@@ -20,17 +21,31 @@ public class SectorRankingService {
 
     private final SectorConfigService cfg;
     private final EligibilityService eligibility;
-    private final SectorScoringService scoring;
+    private final StageMetrics stages;
 
     @Value("${sectors.topN:5}")
     private int topN;
 
     public SectorRankingService(SectorConfigService cfg,
                                 EligibilityService eligibility,
-                                SectorScoringService scoring) {
+                                StageMetrics stages) {
         this.cfg = cfg;
         this.eligibility = eligibility;
-        this.scoring = scoring;
+        this.stages = stages;
+    }
+
+    /** Config fingerprint for persisted rankings: sector files + topN. */
+    public String version() {
+        return version(cfg.snapshot());
+    }
+
+    public String version(SectorConfigSnapshot snap) {
+        return snap.version() + "-n" + topN;
+    }
+
+    /** Size of TopEligible (at least 1). */
+    public int topN() {
+        return Math.max(1, topN);
     }
 
     /** View row for the UI. */
@@ -42,8 +57,13 @@ public class SectorRankingService {
         public final List<String> reasons;      // empty when eligible
         public final List<String> topContrib;   // top-3 weights
 
-        public SectorView(String id, String name, double score,
-                          boolean eligible, List<String> reasons, List<String> topContrib) {
+        @JsonCreator
+        public SectorView(@JsonProperty("id") String id,
+                          @JsonProperty("name") String name,
+                          @JsonProperty("score") double score,
+                          @JsonProperty("eligible") boolean eligible,
+                          @JsonProperty("reasons") List<String> reasons,
+                          @JsonProperty("topContrib") List<String> topContrib) {
             this.id = id; this.name = name; this.score = score;
             this.eligible = eligible;
             this.reasons = (reasons == null) ? List.of() : List.copyOf(reasons);
@@ -57,7 +77,10 @@ public class SectorRankingService {
         public final List<SectorView> nearMiss;     // ineligible but >= cutoff
         public final double eligibleCutoff;         // score_5th (or lowest among TopEligible)
 
-        public RankedResult(List<SectorView> topEligible, List<SectorView> nearMiss, double eligibleCutoff) {
+        @JsonCreator
+        public RankedResult(@JsonProperty("topEligible") List<SectorView> topEligible,
+                            @JsonProperty("nearMiss") List<SectorView> nearMiss,
+                            @JsonProperty("eligibleCutoff") double eligibleCutoff) {
             this.topEligible = List.copyOf(topEligible);
             this.nearMiss = List.copyOf(nearMiss);
             this.eligibleCutoff = eligibleCutoff;
@@ -70,45 +93,67 @@ public class SectorRankingService {
      * @param tScores01to12  map "T01".."T12" -> 0..100 (final trait scores)
      */
     public RankedResult build(Map<String, String> gateAnswers, Map<String, Double> tScores01to12) {
-        // 1) derive candidate attrs
-        var cand = eligibility.deriveCand(gateAnswers);
-
-        // 2) scores for all (ignoring gates)
-        var scored = scoring.computeAll(tScores01to12); // sorted desc
-
-        // 3) build id->requirements
-        Map<String, SectorGates.Requirements> reqById = cfg.gates().sectors().stream()
-                .collect(Collectors.toMap(SectorGates.SectorGate::id, SectorGates.SectorGate::req));
-
-        // 4) attach eligibility (reasons come fully from EligibilityService)
-        List<SectorView> allViews = new ArrayList<>();
-        for (var s : scored) {
-            var req = reqById.get(s.id);
-            var e   = eligibility.checkEligibility(cand, req); // returns numeric + boolean reasons
-            allViews.add(new SectorView(s.id, s.name, s.score, e.eligible, e.reasons, s.topContrib));
-        }
+        // One snapshot for the whole call: a concurrent reload cannot mix files
+        return build(cfg.snapshot(), gateAnswers, tScores01to12);
+    }
+
+    /** Rank against a given config snapshot (batch runs pin one for every user). */
+    public RankedResult build(SectorConfigSnapshot snap, Map<String, String> gateAnswers,
+                              Map<String, Double> tScores01to12) {
+        return stages.time("sector.rank", () -> rank(snap, gateAnswers, tScores01to12));
+    }
 
-        // 5) Top-N eligible
-        List<SectorView> eligibleOnly = allViews.stream()
-                .filter(v -> v.eligible)
-                .sorted((a, b) -> Double.compare(b.score, a.score))
-                .toList();
+    private RankedResult rank(SectorConfigSnapshot snap, Map<String, String> gateAnswers,
+                              Map<String, Double> tScores01to12) {
+        // 1) derive candidate attrs, packed for mask/threshold checks
+        var cand = eligibility.encode(eligibility.deriveCand(gateAnswers));
+
+        // 2) raw scores for all rows (ignoring gates), file order
+        SectorScoreMatrix m = snap.matrix();
+        double[] score = m.score(SectorScoringService.vectorFromCodes(tScores01to12));
+
+        // Rank order: score desc, then file order (what the old stable sorts produced)
+        Comparator<Integer> better = (a, b) -> score[a] != score[b]
+                ? Double.compare(score[b], score[a])
+                : Integer.compare(a, b);
+
+        // 3) one pass: Top-N eligible in a bounded min-heap (worst on top);
+        //    ineligible rows kept only while they can still reach the cutoff
+        int k = topN();
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, better.reversed());
+        List<Integer> nearCand = new ArrayList<>();
+        for (int i = 0; i < m.size(); i++) {
+            if (eligibility.eligible(cand, snap.gate(i))) {
+                if (heap.size() < k) {
+                    heap.add(i);
+                } else if (better.compare(i, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(i);
+                }
+            } else if (heap.size() < k || score[i] >= score[heap.peek()]) {
+                nearCand.add(i); // cutoff only rises once the heap is full
+            }
+        }
 
-        List<SectorView> topEligible = eligibleOnly.stream()
-                .limit(Math.max(1, topN))
-                .toList();
+        // 4) Top-N, best first; cut-off = lowest score among them (or 0.0 if none)
+        List<Integer> top = new ArrayList<>(heap);
+        top.sort(better);
+        double cutoff = top.isEmpty() ? 0.0 : score[top.get(top.size() - 1)];
 
-        // Cut-off = lowest score in TopEligible (or 0.0 if none)
-        double cutoff = topEligible.isEmpty()
-                ? 0.0
-                : topEligible.stream().mapToDouble(v -> v.score).min().orElse(0.0);
+        List<SectorView> topEligible = new ArrayList<>(top.size());
+        for (int i : top) {
+            topEligible.add(new SectorView(m.id(i), m.name(i), score[i], true, List.of(), m.topContrib(i)));
+        }
 
-        // 6) Near-miss = ineligible with score >= cutoff (unbounded)
-        List<SectorView> nearMiss = allViews.stream()
-                .filter(v -> !v.eligible && v.score >= cutoff)
-                .sorted((a, b) -> Double.compare(b.score, a.score))
-                .toList();
+        // 5) Near-miss = ineligible with score >= cutoff (unbounded); reasons only for these
+        nearCand.removeIf(i -> score[i] < cutoff);
+        nearCand.sort(better);
+        List<SectorView> nearMiss = new ArrayList<>(nearCand.size());
+        for (int i : nearCand) {
+            nearMiss.add(new SectorView(m.id(i), m.name(i), score[i], false,
+                    eligibility.reasons(cand, snap.gate(i)), m.topContrib(i)));
+        }
 
         return new RankedResult(topEligible, nearMiss, cutoff);
     }
-}
\ No newline at end of file
+}
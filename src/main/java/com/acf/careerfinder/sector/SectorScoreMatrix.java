@@ -0,0 +1,100 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.psychometrics.Trait;
+import com.acf.careerfinder.sector.model1.SectorCatalog;
+import com.acf.careerfinder.sector.model1.SectorWeights;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Sector weights compiled once into a dense {@code double[sectors][12]} matrix
+ * (columns T01..T12 = Trait ordinal), with display names and top-3 contributor
+ * labels resolved up front. Scoring a candidate is one matrix-vector product.
+ *
+ * Row order = weights file order (the order computeAll has always sorted from).
+ */
+public final class SectorScoreMatrix {
+
+    public static final int TRAITS = Trait.values().length;
+
+    final int size;
+    final String[] ids;
+    final String[] names;
+    final double[][] w;
+    final List<String>[] topContrib;
+
+    @SuppressWarnings("unchecked")
+    private SectorScoreMatrix(int n) {
+        this.size = n;
+        this.ids = new String[n];
+        this.names = new String[n];
+        this.w = new double[n][TRAITS];
+        this.topContrib = (List<String>[]) new List[n];
+    }
+
+    public int size() { return size; }
+    public String id(int i) { return ids[i]; }
+    public String name(int i) { return names[i]; }
+    public List<String> topContrib(int i) { return topContrib[i]; }
+
+    /**
+     * @param tNames "Txx" → human label, used for the top-3 list
+     */
+    public static SectorScoreMatrix compile(SectorCatalog catalog, SectorWeights weights, Map<String, String> tNames) {
+        Map<String, String> nameById = catalog.sectors().stream()
+                .collect(Collectors.toMap(SectorCatalog.Sector::id, SectorCatalog.Sector::name));
+
+        List<SectorWeights.Row> rows = weights.sectors();
+        SectorScoreMatrix m = new SectorScoreMatrix(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            SectorWeights.Row row = rows.get(i);
+            m.ids[i] = row.id();
+            m.names[i] = nameById.getOrDefault(row.id(), row.id());
+
+            for (Map.Entry<String, Double> e : row.weights().entrySet()) {
+                int c = codeToIndex(e.getKey());
+                if (c >= 0 && c < TRAITS) m.w[i][c] = nz(e.getValue());
+            }
+
+            // Top-3 contributors by weight (not by candidate's score); ties keep file order
+            m.topContrib[i] = row.weights().entrySet().stream()
+                    .sorted((a, b) -> Double.compare(nz(b.getValue()), nz(a.getValue())))
+                    .limit(3)
+                    .map(Map.Entry::getKey)
+                    .map(k -> tNames.getOrDefault(k, k))
+                    .toList();
+        }
+        return m;
+    }
+
+    /** out[i] = round1(Σ_c w[i][c] * t[c]); t is 0..100 per trait (Trait ordinal order). */
+    public void score(double[] t, double[] out) {
+        for (int i = 0; i < size; i++) {
+            double[] row = w[i];
+            double sum = 0.0;
+            for (int c = 0; c < TRAITS; c++) sum += row[c] * t[c];
+            out[i] = round1(sum);
+        }
+    }
+
+    public double[] score(double[] t) {
+        double[] out = new double[size];
+        score(t, out);
+        return out;
+    }
+
+    /** "T01" -> 0, "T12" -> 11, invalid -> -1 */
+    static int codeToIndex(String code) {
+        if (code == null || code.length() != 3 || code.charAt(0) != 'T') return -1;
+        try {
+            return Integer.parseInt(code.substring(1)) - 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double nz(Double v) { return v == null ? 0.0 : v; }
+
+    private static double round1(double x) { return Math.round(x * 10.0) / 10.0; }
+}
@@ -1,12 +1,9 @@
 package com.acf.careerfinder.sector;
 
 import com.acf.careerfinder.psychometrics.Trait;
-import com.acf.careerfinder.sector.model1.SectorCatalog;
-import com.acf.careerfinder.sector.model1.SectorWeights;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Phase-7: Weighted-sum sector scoring.
@@ -16,6 +13,8 @@ import java.util.stream.Collectors;
  *  - Map<Trait,  Double> keyed by the Trait enum
  *
  * The weights JSON is keyed by "T01".."T12" and each row is normalized.
+ * Both adapt their input to a double[12] and score against the compiled
+ * {@link SectorScoreMatrix}.
  */
 @Service
 public class SectorScoringService {
@@ -27,7 +26,7 @@ public class SectorScoringService {
     }
 
     /** Human labels for the 12 T-codes for "why fit". */
-    private static final Map<String,String> T_NAMES = Map.ofEntries(
+    static final Map<String,String> T_NAMES = Map.ofEntries(
             Map.entry("T01", "Safety & Hygiene"),
             Map.entry("T02", "Teamwork & Cooperation"),
             Map.entry("T03", "Communication"),
@@ -61,77 +60,51 @@ public class SectorScoringService {
     /** Old signature (kept for compatibility): input keyed by "T01".."T12". */
     public List<ScoredSector> computeAll(Map<String, Double> traitScoresByCode) {
         Objects.requireNonNull(traitScoresByCode, "trait scores map required");
-        return computeUsingResolver(code -> traitScoresByCode.getOrDefault(code, 0.0));
+        return computeVector(vectorFromCodes(traitScoresByCode));
+    }
+
+    /** "T01".."T12" map -> double[12] in Trait ordinal order (missing = 0). */
+    public static double[] vectorFromCodes(Map<String, Double> traitScoresByCode) {
+        double[] t = new double[SectorScoreMatrix.TRAITS];
+        for (int c = 0; c < t.length; c++) {
+            Double v = traitScoresByCode.get(code(c));
+            t[c] = (v == null) ? 0.0 : v;
+        }
+        return t;
     }
 
     /** New helper: input keyed by Trait enum (what TraitProfile returns). */
     public List<ScoredSector> computeAllFromEnum(Map<Trait, Double> traitScoresByEnum) {
         Objects.requireNonNull(traitScoresByEnum, "trait scores map (by enum) required");
-        // Resolve code "Txx" -> Trait enum by ordinal (T01 = ordinal 0, etc.)
-        return computeUsingResolver(code -> {
-            int idx = parseCodeToIndex(code);
-            if (idx < 0) return 0.0;
-            Trait[] all = Trait.values();
-            if (idx >= all.length) return 0.0;
-            return traitScoresByEnum.getOrDefault(all[idx], 0.0);
-        });
+        double[] t = new double[SectorScoreMatrix.TRAITS];
+        for (Trait tr : Trait.values()) {
+            Double v = traitScoresByEnum.get(tr);
+            t[tr.ordinal()] = (v == null) ? 0.0 : v;
+        }
+        return computeVector(t);
     }
 
-    /* ----------------------------------------------------------------------
-     * INTERNALS
-     * ---------------------------------------------------------------------- */
+    /** Core: one matrix-vector product, rows sorted by score desc (stable). */
+    public List<ScoredSector> computeVector(double[] traitScores) {
+        SectorScoreMatrix m = matrix();
+        double[] s = m.score(traitScores);
 
-    /** Common scoring implementation driven by a resolver for "Txx" -> value. */
-    private List<ScoredSector> computeUsingResolver(java.util.function.Function<String, Double> tResolver) {
-        SectorCatalog catalog = cfg.catalog();
-        SectorWeights weights = cfg.weights();
-
-        Map<String,String> nameById = catalog.sectors().stream()
-                .collect(Collectors.toMap(SectorCatalog.Sector::id, SectorCatalog.Sector::name));
-
-        List<ScoredSector> out = new ArrayList<>();
-        for (SectorWeights.Row row : weights.sectors()) {
-            double sum = 0.0;
-
-            for (Map.Entry<String, Double> e : row.weights().entrySet()) {
-                double w = e.getValue() == null ? 0d : e.getValue();
-                double t = Optional.ofNullable(tResolver.apply(e.getKey())).orElse(0.0);
-                sum += w * t; // t is already 0..100; row weights sum to ~1
-            }
-
-            // Top-3 contributors by weight (not by candidate's score)
-            List<String> top3 = row.weights().entrySet().stream()
-                    .sorted((a,b) -> Double.compare(
-                            nz(b.getValue()), nz(a.getValue())))
-                    .limit(3)
-                    .map(Map.Entry::getKey)               // "Txx"
-                    .map(k -> T_NAMES.getOrDefault(k, k)) // pretty label
-                    .collect(Collectors.toList());
-
-            out.add(new ScoredSector(
-                    row.id(),
-                    nameById.getOrDefault(row.id(), row.id()),
-                    round1(sum),
-                    top3
-            ));
+        List<ScoredSector> out = new ArrayList<>(m.size());
+        for (int i = 0; i < m.size(); i++) {
+            out.add(new ScoredSector(m.id(i), m.name(i), s[i], m.topContrib(i)));
         }
-
         out.sort((a,b) -> Double.compare(b.score, a.score));
         return out;
     }
 
-    private static double nz(Double v) { return v == null ? 0.0 : v; }
-
-    /** "T01" -> 0, "T12" -> 11, invalid -> -1 */
-    private static int parseCodeToIndex(String code) {
-        if (code == null || code.length() != 3 || code.charAt(0) != 'T') return -1;
-        try {
-            int n = Integer.parseInt(code.substring(1)); // 1..12
-            return n - 1;
-        } catch (NumberFormatException e) {
-            return -1;
-        }
+    /** Compiled weights of the live config snapshot. */
+    public SectorScoreMatrix matrix() {
+        return cfg.snapshot().matrix();
     }
 
-    private static double round1(double x) { return Math.round(x * 10.0) / 10.0; }
-}
\ No newline at end of file
+    /** Trait ordinal 0..11 -> "T01".."T12" */
+    private static String code(int idx) {
+        int n = idx + 1;
+        return (n < 10) ? ("T0" + n) : ("T" + n);
+    }
+}
@@ -3,21 +3,91 @@ package com.acf.careerfinder.service;
 import com.acf.careerfinder.model.Recommendation;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * OpenAI chat-completions client.
+ *
+ * Every upstream call goes through one pooled JDK HttpClient with connect/read timeouts,
+ * a bulkhead (at most openai.max-concurrent calls in flight; callers wait at most
+ * openai.acquire-timeout for a slot) and a circuit breaker that fails fast for
+ * openai.breaker.open-for after openai.breaker.failures consecutive upstream failures.
+ * Refusals surface as {@link LlmUnavailableException}, a RestClientException, so callers'
+ * existing fallbacks apply. The *Async variants run on a bounded pool of the same size.
+ *
+ * askJsonBatch is for offline jobs (advice precompute): same client, timeouts and breaker, but
+ * its own bulkhead of openai.batch.max-concurrent slots with a longer openai.batch.acquire-timeout,
+ * so a batch run never holds the slots live requests need.
+ *
+ * askJsonStreaming / askRecommendationStreaming request "stream": true and hand each
+ * content token to a callback as it arrives (relayed to the browser over SSE); the
+ * concatenated text is then parsed exactly like the non-streaming result. A stream that sends
+ * nothing for openai.stream-idle-timeout, or is still running at openai.stream-timeout, is
+ * cancelled (dropping the connection) and fails with a ResourceAccessException.
+ *
+ * Metrics: careerfinder.llm.calls timer {call, model, outcome} around every guarded call
+ * (rejected calls included), careerfinder.llm.tokens {call, model, kind=prompt|completion}
+ * from the response "usage" (streams request it via stream_options.include_usage), and
+ * careerfinder.llm.in_flight / careerfinder.llm.batch_in_flight for the two bulkheads.
+ */
 @Service
 public class ChatService {
 
-    private final RestTemplate rest = new RestTemplate();
+    private static final Logger log = LoggerFactory.getLogger(ChatService.class);
+
+    /** Bulkhead full or circuit open: the call was not attempted. */
+    public static class LlmUnavailableException extends RestClientException {
+        public LlmUnavailableException(String msg) { super(msg); }
+    }
+
+    private HttpClient http;
+    private RestTemplate rest;
+    private Semaphore bulkhead;
+    private Semaphore batchBulkhead;
+    private CircuitBreaker breaker;
+    private ThreadPoolExecutor asyncPool;
+
+    @Autowired private MeterRegistry meters;
+
     private final ObjectMapper mapper = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
@@ -30,6 +100,77 @@ public class ChatService {
     @Value("${openai.api.model:gpt-4o-mini}")
     private String openAiModel;
 
+    @Value("${openai.connect-timeout:PT3S}")
+    private Duration connectTimeout;
+
+    @Value("${openai.read-timeout:PT30S}")
+    private Duration readTimeout;
+
+    @Value("${openai.stream-idle-timeout:PT15S}")
+    private Duration streamIdleTimeout;
+
+    @Value("${openai.stream-timeout:PT2M}")
+    private Duration streamTimeout;
+
+    @Value("${openai.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${openai.acquire-timeout:PT0.2S}")
+    private Duration acquireTimeout;
+
+    @Value("${openai.batch.max-concurrent:4}")
+    private int batchMaxConcurrent;
+
+    @Value("${openai.batch.acquire-timeout:PT30S}")
+    private Duration batchAcquireTimeout;
+
+    @Value("${openai.async-queue:100}")
+    private int asyncQueue;
+
+    @Value("${openai.breaker.failures:5}")
+    private int breakerFailures;
+
+    @Value("${openai.breaker.open-for:PT30S}")
+    private Duration breakerOpenFor;
+
+    @PostConstruct
+    void init() {
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .version(HttpClient.Version.HTTP_2)   // falls back to 1.1; connections are pooled either way
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(this.http);
+        factory.setReadTimeout(readTimeout);
+        this.rest = new RestTemplate(factory);
+
+        this.bulkhead = new Semaphore(Math.max(1, maxConcurrent));
+        this.batchBulkhead = new Semaphore(Math.max(1, batchMaxConcurrent));
+        this.breaker = new CircuitBreaker(breakerFailures, breakerOpenFor.toMillis());
+
+        AtomicInteger n = new AtomicInteger();
+        this.asyncPool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, asyncQueue)),
+                r -> {
+                    Thread t = new Thread(r, "llm-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.asyncPool.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("careerfinder.llm.in_flight", bulkhead, b -> maxConcurrent - b.availablePermits())
+                .description("LLM calls holding a bulkhead slot")
+                .register(meters);
+        Gauge.builder("careerfinder.llm.batch_in_flight", batchBulkhead, b -> Math.max(1, batchMaxConcurrent) - b.availablePermits())
+                .description("Batch LLM calls holding a batch bulkhead slot")
+                .register(meters);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        asyncPool.shutdownNow();
+    }
+
     /* ------------------- basic helpers you already had ------------------- */
 
     public String ask(String userId, String prompt) {
@@ -38,25 +179,72 @@ public class ChatService {
                 "model", openAiModel,
                 "messages", List.of(Map.of("role", "user", "content", prompt))
         );
-        HttpHeaders headers = headers();
-        ResponseEntity<Map> res = rest.postForEntity(openaiUrl, new HttpEntity<>(req, headers), Map.class);
-        return extractContent(res);
+        return post("ask", req);
     }
 
     public String askJson(String systemPrompt, String userPrompt) {
+        return askJson("json", systemPrompt, userPrompt);
+    }
+
+    private String askJson(String call, String systemPrompt, String userPrompt) {
         ensureKey();
-        Map<String, Object> req = Map.of(
-                "model", openAiModel,
-                "temperature", 0.2,
-                "response_format", Map.of("type", "json_object"),
-                "messages", List.of(
-                        Map.of("role", "system", "content", systemPrompt),
-                        Map.of("role", "user", "content", userPrompt)
-                )
-        );
-        HttpHeaders headers = headers();
-        ResponseEntity<Map> res = rest.postForEntity(openaiUrl, new HttpEntity<>(req, headers), Map.class);
-        return extractContent(res);
+        return post(call, jsonRequest(systemPrompt, userPrompt, false));
+    }
+
+    /** {@link #askJson} for offline jobs: waits for a slot of the batch bulkhead, never a live one. */
+    public String askJsonBatch(String systemPrompt, String userPrompt) {
+        ensureKey();
+        Map<String, Object> req = jsonRequest(systemPrompt, userPrompt, false);
+        return guarded("json_batch", batchBulkhead, batchAcquireTimeout, () -> exchange("json_batch", req));
+    }
+
+    /**
+     * Same as {@link #askJson} but with upstream streaming: each content token is passed to
+     * {@code onDelta} as it arrives (on the calling thread), and the full text is returned at the end.
+     */
+    public String askJsonStreaming(String systemPrompt, String userPrompt, Consumer<String> onDelta) {
+        return askJsonStreaming("json_stream", systemPrompt, userPrompt, onDelta);
+    }
+
+    private String askJsonStreaming(String call, String systemPrompt, String userPrompt, Consumer<String> onDelta) {
+        ensureKey();
+        Map<String, Object> req = jsonRequest(systemPrompt, userPrompt, true);
+        return guarded(call, () -> stream(call, req, onDelta));
+    }
+
+    private Map<String, Object> jsonRequest(String systemPrompt, String userPrompt, boolean stream) {
+        Map<String, Object> req = new LinkedHashMap<>();
+        req.put("model", openAiModel);
+        req.put("temperature", 0.2);
+        req.put("response_format", Map.of("type", "json_object"));
+        req.put("messages", List.of(
+                Map.of("role", "system", "content", systemPrompt),
+                Map.of("role", "user", "content", userPrompt)
+        ));
+        if (stream) {
+            req.put("stream", true);
+            req.put("stream_options", Map.of("include_usage", true)); // usage arrives in a final chunk
+        }
+        return req;
+    }
+
+    /* ------------------- async variants (never block the caller) ------------------- */
+
+    public CompletableFuture<String> askAsync(String userId, String prompt) {
+        return async(() -> ask(userId, prompt));
+    }
+
+    public CompletableFuture<String> askJsonAsync(String systemPrompt, String userPrompt) {
+        return async(() -> askJson(systemPrompt, userPrompt));
+    }
+
+    public CompletableFuture<Recommendation> askRecommendationAsync(Locale locale, Map<String, String> answers) {
+        return async(() -> askRecommendation(locale, answers));
+    }
+
+    public CompletableFuture<String> askJsonStreamingAsync(String systemPrompt, String userPrompt,
+                                                           Consumer<String> onDelta) {
+        return async(() -> askJsonStreaming(systemPrompt, userPrompt, onDelta));
     }
 
     public ResponseEntity<String> getChatResponse(String userMessage) {
@@ -75,6 +263,20 @@ public class ChatService {
 
     public Recommendation askRecommendation(Locale locale, Map<String, String> answers) {
         ensureKey();
+        String[] p = recommendationPrompts(locale, answers);
+        return parseRecommendation(askJson("recommendation", p[0], p[1]));
+    }
+
+    /** Streaming variant: raw JSON tokens go to {@code onDelta}; the final text is parsed the same way. */
+    public Recommendation askRecommendationStreaming(Locale locale, Map<String, String> answers,
+                                                     Consumer<String> onDelta) {
+        ensureKey();
+        String[] p = recommendationPrompts(locale, answers);
+        return parseRecommendation(askJsonStreaming("recommendation_stream", p[0], p[1], onDelta));
+    }
+
+    /** {system, user} prompts for the structured Recommendation. */
+    private String[] recommendationPrompts(Locale locale, Map<String, String> answers) {
         String langName = switch (locale.getLanguage()) {
             case "hi" -> "Hindi";
             case "mr" -> "Marathi";
@@ -113,9 +315,10 @@ public class ChatService {
 
             Create localized labels in "answersEcho". If a URL is relevant for a career, include it in "href".
             """.formatted(answersJson);
+        return new String[] { system, user };
+    }
 
-        String json = askJson(system, user);
-
+    private Recommendation parseRecommendation(String json) {
         // Parse, with a light "alias patch" if the model used 'careers' or 'url' anyway.
         try {
             return mapper.readValue(json, Recommendation.class);
@@ -138,6 +341,235 @@ public class ChatService {
 
     /* ------------------- internals ------------------- */
 
+    /** One guarded round-trip: bulkhead slot, breaker check, pooled HTTP call with timeouts. */
+    private String post(String call, Map<String, Object> req) {
+        return guarded(call, () -> exchange(call, req));
+    }
+
+    private String exchange(String call, Map<String, Object> req) {
+        ResponseEntity<Map> res = rest.postForEntity(openaiUrl, new HttpEntity<>(req, headers()), Map.class);
+        if (res.getBody() != null) tokens(call, mapper.valueToTree(res.getBody().get("usage")));
+        return extractContent(res);
+    }
+
+    /**
+     * SSE chat-completions call: "data: {json}" lines until "data: [DONE]". read-timeout covers
+     * the response headers; after that each line must arrive within stream-idle-timeout and the
+     * whole call must finish within stream-timeout.
+     */
+    private String stream(String call, Map<String, Object> req, Consumer<String> onDelta) {
+        long deadline = System.nanoTime() + streamTimeout.toNanos();
+        HttpResponse<Flow.Publisher<List<ByteBuffer>>> res;
+        try {
+            HttpRequest hr = HttpRequest.newBuilder(URI.create(openaiUrl))
+                    .timeout(readTimeout)   // until response headers; tokens then flow as produced
+                    .header("Authorization", "Bearer " + openAiApiKey)
+                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(req)))
+                    .build();
+            res = http.send(hr, HttpResponse.BodyHandlers.ofPublisher());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted calling OpenAI");
+        } catch (IOException e) {
+            throw new ResourceAccessException("OpenAI stream failed: " + e.getMessage(), e);
+        }
+
+        StringBuilder out = new StringBuilder();
+        try (BodyLines lines = new BodyLines()) {
+            res.body().subscribe(lines);
+            int code = res.statusCode();
+            if (code >= 400) {
+                HttpStatusCode status = HttpStatusCode.valueOf(code);
+                throw (code < 500) ? new HttpClientErrorException(status) : new HttpServerErrorException(status);
+            }
+            for (String line; (line = nextLine(lines, deadline)) != null; ) {
+                if (!line.startsWith("data:")) continue;
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) break;
+                JsonNode chunk = mapper.readTree(data);
+                tokens(call, chunk.path("usage"));
+                JsonNode delta = chunk.path("choices").path(0).path("delta").path("content");
+                if (delta.isTextual() && !delta.asText().isEmpty()) {
+                    out.append(delta.asText());
+                    onDelta.accept(delta.asText());
+                }
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("OpenAI stream broken: " + e.getMessage());
+        }
+        if (out.isEmpty()) throw new IllegalStateException("Empty content.");
+        return out.toString();
+    }
+
+    /** Next body line, waiting at most the idle timeout and never past the deadline. */
+    private String nextLine(BodyLines lines, long deadline) {
+        long left = deadline - System.nanoTime();
+        long idle = streamIdleTimeout.toNanos();
+        try {
+            return lines.next(Math.max(0, Math.min(idle, left)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted reading OpenAI stream");
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException(left <= idle
+                    ? "OpenAI stream not finished within " + streamTimeout
+                    : "OpenAI stream idle for " + streamIdleTimeout);
+        } catch (IOException e) {
+            throw new ResourceAccessException("OpenAI stream broken: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A response body as lines, read with a time limit. The HTTP client pushes body chunks here
+     * one at a time (the next is requested once the reader has taken this one); close() cancels
+     * the body, which drops the connection if it has not ended.
+     */
+    private static final class BodyLines implements Flow.Subscriber<List<ByteBuffer>>, AutoCloseable {
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> chunks = new LinkedBlockingQueue<>();
+        private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+        private final Deque<String> ready = new ArrayDeque<>();
+        private volatile Flow.Subscription subscription;
+        private boolean ended;
+
+        @Override public void onSubscribe(Flow.Subscription s) { subscription = s; s.request(1); }
+        @Override public void onNext(List<ByteBuffer> item) { chunks.add(item); }
+        @Override public void onError(Throwable t) { chunks.add(t); }
+        @Override public void onComplete() { chunks.add(END); }
+
+        /** Next line without its line break, null at the end of the body; TimeoutException if no bytes come in time. */
+        @SuppressWarnings("unchecked")
+        String next(long timeoutNanos) throws IOException, InterruptedException, TimeoutException {
+            while (ready.isEmpty()) {
+                if (ended) return null;
+                Object c = chunks.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+                if (c == null) throw new TimeoutException();
+                if (c instanceof Throwable t) throw t instanceof IOException io ? io : new IOException(t);
+                if (c == END) {
+                    ended = true;
+                    if (partial.size() > 0) ready.add(line());
+                    continue;
+                }
+                for (ByteBuffer b : (List<ByteBuffer>) c) {
+                    while (b.hasRemaining()) {
+                        byte x = b.get();
+                        if (x == '\n') ready.add(line());
+                        else partial.write(x);
+                    }
+                }
+                subscription.request(1);
+            }
+            return ready.poll();
+        }
+
+        private String line() {
+            String s = partial.toString(StandardCharsets.UTF_8);
+            partial.reset();
+            return s.endsWith("\r") ? s.substring(0, s.length() - 1) : s;
+        }
+
+        @Override
+        public void close() {
+            Flow.Subscription s = subscription;
+            if (s != null && !ended) s.cancel();
+        }
+    }
+
+    private <T> T guarded(String name, Supplier<T> call) {
+        return guarded(name, bulkhead, acquireTimeout, call);
+    }
+
+    /** Times the whole guarded call (slot wait included) under careerfinder.llm.calls. */
+    private <T> T guarded(String name, Semaphore slots, Duration wait, Supplier<T> call) {
+        long t0 = System.nanoTime();
+        String outcome = "error";
+        try {
+            T out = guarded(slots, wait, call);
+            outcome = "success";
+            return out;
+        } catch (LlmUnavailableException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (HttpClientErrorException e) {
+            outcome = "client_error";
+            throw e;
+        } catch (HttpServerErrorException e) {
+            outcome = "server_error";
+            throw e;
+        } catch (ResourceAccessException e) {
+            outcome = "io_error";
+            throw e;
+        } finally {
+            Timer.builder("careerfinder.llm.calls")
+                    .description("LLM upstream calls")
+                    .tags("call", name, "model", openAiModel, "outcome", outcome)
+                    .register(meters)
+                    .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T guarded(Semaphore slots, Duration wait, Supplier<T> call) {
+        boolean slot;
+        try {
+            slot = slots.tryAcquire(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LlmUnavailableException("Interrupted waiting for an LLM slot");
+        }
+        if (!slot) {
+            throw new LlmUnavailableException(slots == bulkhead
+                    ? "LLM bulkhead full (" + maxConcurrent + " in flight)"
+                    : "LLM batch bulkhead full (" + batchMaxConcurrent + " in flight)");
+        }
+        try {
+            if (!breaker.tryAcquire()) throw new LlmUnavailableException("LLM circuit open");
+            try {
+                T out = call.get();
+                breaker.success();
+                return out;
+            } catch (HttpClientErrorException e) {
+                breaker.ignore(); // our request was bad; upstream is up
+                throw e;
+            } catch (RuntimeException e) {
+                breaker.failure();
+                if (breaker.state() == CircuitBreaker.State.OPEN) {
+                    log.warn("LLM circuit open for {} after: {}", breakerOpenFor, e.toString());
+                }
+                throw e;
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, asyncPool);
+        } catch (RejectedExecutionException full) {
+            return CompletableFuture.failedFuture(new LlmUnavailableException("LLM async queue full"));
+        }
+    }
+
+    /** prompt_tokens / completion_tokens from a response or final stream chunk "usage"; absent → nothing recorded. */
+    private void tokens(String call, JsonNode usage) {
+        if (usage == null || !usage.isObject()) return;
+        token(call, "prompt", usage.path("prompt_tokens"));
+        token(call, "completion", usage.path("completion_tokens"));
+    }
+
+    private void token(String call, String kind, JsonNode n) {
+        if (!n.isNumber()) return;
+        DistributionSummary.builder("careerfinder.llm.tokens")
+                .description("Tokens per LLM call")
+                .baseUnit("tokens")
+                .tags("call", call, "model", openAiModel, "kind", kind)
+                .register(meters)
+                .record(n.asLong());
+    }
+
     private HttpHeaders headers() {
         HttpHeaders h = new HttpHeaders();
         h.setBearerAuth(openAiApiKey);
@@ -0,0 +1,68 @@
+package com.acf.careerfinder.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal consecutive-failure circuit breaker for the LLM client.
+ *
+ * CLOSED: calls pass; {@code threshold} failures in a row open it.
+ * OPEN: calls are refused until {@code openMs} has passed, then one trial call is let through.
+ * HALF_OPEN: that trial closes the breaker on success or re-opens it on failure.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int threshold;
+    private final long openMs;
+    private final LongSupplier clock;   // millis
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    CircuitBreaker(int threshold, long openMs) {
+        this(threshold, openMs, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int threshold, long openMs, LongSupplier clock) {
+        this.threshold = Math.max(1, threshold);
+        this.openMs = Math.max(0, openMs);
+        this.clock = clock;
+    }
+
+    /** True when a call may proceed; every true must be followed by success() or failure(). */
+    synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false; // trial already in flight
+            case OPEN -> {
+                if (clock.getAsLong() - openedAt < openMs) yield false;
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void success() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    synchronized void failure() {
+        failures++;
+        if (state == State.HALF_OPEN || failures >= threshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /** Outcome does not say anything about upstream health (e.g. a 4xx); frees a half-open trial. */
+    synchronized void ignore() {
+        if (state == State.HALF_OPEN) state = State.CLOSED;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,340 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.psychometrics.ScoringPlan;
+import com.acf.careerfinder.psychometrics.ScoringService;
+import com.acf.careerfinder.psychometrics.TraitProfile;
+import com.acf.careerfinder.sector.SectorConfigService;
+import com.acf.careerfinder.sector.SectorConfigSnapshot;
+import com.acf.careerfinder.sector.SectorRankingService;
+import com.acf.careerfinder.sector.SectorRankingService.RankedResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Offline re-ranking of every completed user against the current bank and sector config.
+ *
+ * One reader streams questionnaire_responses ordered by user through a server-side cursor
+ * (fetch size rows at a time), groups each user's rows and hands them to a pool of scorer
+ * threads. A semaphore caps users in flight, so memory stays bounded however large the
+ * table is. Scorers append to a shared buffer that is written to sector_ranking_run in
+ * JDBC batches. Bank plan and sector snapshot are pinned once per run.
+ *
+ * One run at a time; results are keyed by run id so runs can be compared afterwards.
+ * A run whose scorers have not finished within cohort.drain-timeout after the last user was
+ * read is stopped and marked FAILED. Status is kept for the last {@value #RETAINED_RUNS} runs.
+ */
+@Service
+public class CohortRankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(CohortRankingService.class);
+
+    /**
+     * Completed = questionnaire section marked completed in user_progress.
+     * Sampling hashes the email, so the same percentage always picks the same users.
+     */
+    private static final String STREAM_SQL = """
+            SELECT r.user_email, r.question_key, r.answer_value
+              FROM questionnaire_responses r
+              JOIN user_progress p
+                ON p.user_email = r.user_email AND p.section = 'QUESTIONNAIRE' AND p.completed
+             WHERE ? >= 100 OR mod(hashtext(r.user_email)::bigint + 2147483648, 100) < ?
+             ORDER BY r.user_email
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO sector_ranking_run (run_id, user_email, scoring_version, sector_version,
+                                            top_sectors, eligible_cutoff, traits_json, ranking_json, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    public enum State { RUNNING, DONE, FAILED }
+
+    /** Finished runs whose status stays queryable (rows in sector_ranking_run are kept regardless). */
+    static final int RETAINED_RUNS = 50;
+
+    /** Live progress of one run; counters update while it runs. */
+    public static final class RunStatus {
+        public final String runId;
+        public final String scoringVersion;
+        public final String sectorVersion;
+        public final Instant startedAt;
+        private final AtomicInteger users = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private volatile State state = State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        RunStatus(String runId, String scoringVersion, String sectorVersion) {
+            this.runId = runId;
+            this.scoringVersion = scoringVersion;
+            this.sectorVersion = sectorVersion;
+            this.startedAt = Instant.now();
+        }
+
+        public int users() { return users.get(); }
+        public int failed() { return failed.get(); }
+        public State state() { return state; }
+        public Instant finishedAt() { return finishedAt; }
+        public String error() { return error; }
+    }
+
+    private record Row(String email, String topSectors, double cutoff, String traitsJson, String rankingJson) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readTx;
+    private final ScoringService scoringService;
+    private final SectorConfigService sectorConfig;
+    private final SectorRankingService sectorRankingService;
+    private final ObjectMapper M = new ObjectMapper();
+
+    private final int threads;
+    private final int fetchSize;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final Duration drainTimeout;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "cohort-run");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicReference<RunStatus> current = new AtomicReference<>();
+    private final Map<String, RunStatus> runs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RunStatus> eldest) {
+            return size() > RETAINED_RUNS; // insertion order: the running (newest) run is never dropped
+        }
+    });
+
+    public CohortRankingService(JdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                ScoringService scoringService,
+                                SectorConfigService sectorConfig,
+                                SectorRankingService sectorRankingService,
+                                @Value("${cohort.threads:0}") int threads,
+                                @Value("${cohort.fetch-size:5000}") int fetchSize,
+                                @Value("${cohort.batch-size:1000}") int batchSize,
+                                @Value("${cohort.max-in-flight:0}") int maxInFlight,
+                                @Value("${cohort.drain-timeout:PT1H}") Duration drainTimeout) {
+        this.jdbc = jdbc;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true); // PG only streams with a cursor inside a transaction
+        this.scoringService = scoringService;
+        this.sectorConfig = sectorConfig;
+        this.sectorRankingService = sectorRankingService;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.fetchSize = Math.max(100, fetchSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : this.threads * 64;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /** Start a run in the background; returns the already running one if any. */
+    public RunStatus start() {
+        ScoringPlan plan = scoringService.plan();
+        SectorConfigSnapshot snap = sectorConfig.snapshot();
+        RunStatus st = new RunStatus(UUID.randomUUID().toString(), plan.version(), sectorRankingService.version(snap));
+        if (!current.compareAndSet(null, st)) return current.get();
+
+        runs.put(st.runId, st);
+        runner.execute(() -> {
+            try {
+                run(st, plan, snap);
+                st.state = State.DONE;
+            } catch (RuntimeException e) {
+                st.error = e.toString();
+                st.state = State.FAILED;
+                log.error("Cohort run {} failed", st.runId, e);
+            } finally {
+                current.set(null); // first: once finishedAt shows, start() begins a new run
+                st.finishedAt = Instant.now();
+            }
+        });
+        return st;
+    }
+
+    public Optional<RunStatus> status(String runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    private void run(RunStatus st, ScoringPlan plan, SectorConfigSnapshot snap) {
+        long t0 = System.nanoTime();
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cohort-score-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Writer writer = new Writer(st);
+        AtomicLong scored = new AtomicLong();
+
+        BiConsumer<String, Map<String, String>> submit = (user, answers) -> {
+            inFlight.acquireUninterruptibly(); // back-pressure on the cursor
+            pool.execute(() -> {
+                try {
+                    writer.add(score(user, answers, plan, snap));
+                    scored.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    st.failed.incrementAndGet();
+                    log.warn("Cohort run {}: scoring {} failed: {}", st.runId, user, ex.toString());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        };
+
+        try {
+            forEachCompletedUser(100, submit);
+        } finally {
+            drain(pool, drainTimeout);
+        }
+        writer.flush(); // every scorer has finished
+
+        log.info("Cohort run {}: {} users scored, {} failed in {} ms (bank {}, sectors {})",
+                st.runId, scored.get(), st.failed(), (System.nanoTime() - t0) / 1_000_000,
+                st.scoringVersion, st.sectorVersion);
+    }
+
+    /**
+     * Wait for submitted work; on timeout or interrupt stop the pool and fail the run
+     * (no flush, no DONE with partial counts).
+     */
+    private static void drain(ExecutorService pool, Duration timeout) {
+        pool.shutdown();
+        try {
+            if (pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) return;
+            pool.shutdownNow();
+            throw new IllegalStateException("Workers still running " + timeout + " after the last task was submitted; run stopped");
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for workers; run stopped", e);
+        }
+    }
+
+    /**
+     * Stream each completed user's answers (one map per user) to {@code sink} on the calling thread,
+     * through a server-side cursor. {@code samplePercent} 1..100 selects a stable subset of users.
+     */
+    public void forEachCompletedUser(int samplePercent, BiConsumer<String, Map<String, String>> sink) {
+        int pct = Math.max(1, Math.min(100, samplePercent));
+        readTx.executeWithoutResult(tx -> jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, pct);
+            ps.setInt(2, pct);
+            return ps;
+        }, (ResultSet rs) -> {
+            String email = null;
+            Map<String, String> answers = new HashMap<>();
+            while (rs.next()) {
+                String e = rs.getString(1);
+                if (email != null && !email.equals(e)) {
+                    sink.accept(email, answers);
+                    answers = new HashMap<>();
+                }
+                email = e;
+                answers.put(rs.getString(2), rs.getString(3));
+            }
+            if (email != null) sink.accept(email, answers);
+            return null;
+        }));
+    }
+
+    private Row score(String email, Map<String, String> answers, ScoringPlan plan, SectorConfigSnapshot snap) {
+        TraitProfile profile = scoringService.scoreAnswers(plan, answers);
+        Map<String, Double> t = ResultSnapshotService.toTCodeMap(profile.traitFinal0to100());
+        RankedResult ranked = sectorRankingService.build(snap, answers, t);
+        try {
+            return new Row(email,
+                    ranked.topEligible.stream().map(v -> v.id).collect(Collectors.joining(",")),
+                    ranked.eligibleCutoff,
+                    M.writeValueAsString(t),
+                    M.writeValueAsString(ranked));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not serialize result for " + email, e);
+        }
+    }
+
+    /** Shared buffer; whichever scorer fills it writes the batch (outside the lock). */
+    private final class Writer {
+        private final RunStatus st;
+        private final Timestamp createdAt = Timestamp.from(Instant.now());
+        private List<Row> buf = new ArrayList<>();
+
+        Writer(RunStatus st) { this.st = st; }
+
+        void add(Row r) {
+            List<Row> full = null;
+            synchronized (this) {
+                buf.add(r);
+                if (buf.size() >= batchSize) {
+                    full = buf;
+                    buf = new ArrayList<>(batchSize);
+                }
+            }
+            if (full != null) write(full);
+        }
+
+        void flush() {
+            List<Row> rest;
+            synchronized (this) {
+                rest = buf;
+                buf = new ArrayList<>();
+            }
+            if (!rest.isEmpty()) write(rest);
+        }
+
+        private void write(List<Row> rows) {
+            try {
+                insert(rows);
+                st.users.addAndGet(rows.size());
+            } catch (DataAccessException e) {
+                st.failed.addAndGet(rows.size());
+                log.warn("Cohort run {}: batch of {} rows not written: {}", st.runId, rows.size(), e.toString());
+            }
+        }
+
+        private void insert(List<Row> rows) {
+            jdbc.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, r) -> {
+                ps.setString(1, st.runId);
+                ps.setString(2, r.email());
+                ps.setString(3, st.scoringVersion);
+                ps.setString(4, st.sectorVersion);
+                ps.setString(5, r.topSectors());
+                ps.setDouble(6, r.cutoff());
+                ps.setString(7, r.traitsJson());
+                ps.setString(8, r.rankingJson());
+                ps.setTimestamp(9, createdAt);
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
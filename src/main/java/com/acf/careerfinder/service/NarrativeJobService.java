@@ -0,0 +1,149 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.model.Recommendation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the LLM narrative (RecommendationService.computeStreaming) off the request thread.
+ *
+ * Jobs are keyed by (user, language, hash of answers): reloading /result re-attaches to
+ * the running job instead of starting another. Work runs on a bounded pool; when the
+ * queue is full, or the call fails, the job completes with the local no-LLM result
+ * so the page never waits forever. Such a fallback job is kept only for
+ * result.narrative.fallback-ttl instead of the full ttl: long enough for the reload that
+ * follows DONE to render it (rather than submit a new job and wait again), short enough
+ * that a later visit retries the LLM. Tokens are published on the job's {@link StreamRelay}
+ * so /result/narrative/stream can show the narrative while it is being written.
+ */
+@Service
+public class NarrativeJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(NarrativeJobService.class);
+
+    public enum Status { PENDING, DONE }
+
+    private record JobKey(String email, String lang, String answersHash) {}
+
+    /** A narrative job: its eventual result plus the live token stream (for SSE relays). */
+    public record Job(CompletableFuture<Recommendation> result, StreamRelay relay) {}
+
+    private final RecommendationService recommendationService;
+    private final ThreadPoolExecutor pool;
+    private final Cache<JobKey, Job> jobs;
+    private final Duration fallbackTtl;
+
+    public NarrativeJobService(RecommendationService recommendationService,
+                               @Value("${result.narrative.threads:8}") int threads,
+                               @Value("${result.narrative.queue:200}") int queue,
+                               @Value("${result.narrative.ttl:PT30M}") Duration ttl,
+                               @Value("${result.narrative.fallback-ttl:PT1M}") Duration fallbackTtl) {
+        this.recommendationService = recommendationService;
+        this.fallbackTtl = fallbackTtl;
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queue),
+                r -> {
+                    Thread t = new Thread(r, "narrative-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<JobKey, Job>() {   // ttl from submit; fallback() shortens it
+                    @Override
+                    public long expireAfterCreate(JobKey key, Job job, long now) {
+                        return ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(JobKey key, Job job, long now, long current) {
+                        return current;
+                    }
+
+                    @Override
+                    public long expireAfterRead(JobKey key, Job job, long now, long current) {
+                        return current;
+                    }
+                })
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /** Existing job for these answers, or a newly submitted one. Never completes exceptionally. */
+    public CompletableFuture<Recommendation> submit(String email, Locale locale, Map<String, String> answers) {
+        return attach(email, locale, answers).result();
+    }
+
+    /** Same as {@link #submit}, returning the job itself so callers can follow its token stream. */
+    public Job attach(String email, Locale locale, Map<String, String> answers) {
+        JobKey key = new JobKey(email, locale.getLanguage(), ResultSnapshotService.answersHash(answers));
+        Job existing = jobs.getIfPresent(key);
+        if (existing != null) return existing;
+
+        Job job = new Job(new CompletableFuture<>(), new StreamRelay());
+        existing = jobs.asMap().putIfAbsent(key, job);
+        if (existing != null) return existing;
+        start(key, job, locale, Collections.unmodifiableMap(new LinkedHashMap<>(answers)));
+        return job;
+    }
+
+    /** Status of the latest job for this user/language, DONE when there is none to wait for. */
+    public Status status(String email, Locale locale, Map<String, String> answers) {
+        JobKey key = new JobKey(email, locale.getLanguage(), ResultSnapshotService.answersHash(answers));
+        Job j = jobs.getIfPresent(key);
+        return (j == null || j.result().isDone()) ? Status.DONE : Status.PENDING;
+    }
+
+    /** Runs outside any cache computation, so a fallback can change its own entry. */
+    private void start(JobKey key, Job job, Locale locale, Map<String, String> answers) {
+        job.result().whenComplete((r, ex) -> job.relay().close());
+        try {
+            CompletableFuture
+                    .supplyAsync(() -> recommendationService.computeStreaming(locale, answers, job.relay()::append), pool)
+                    .whenComplete((rec, ex) -> {
+                        if (ex == null) {
+                            job.result().complete(rec);
+                        } else {
+                            log.warn("Narrative failed, using local result: {}", ex.toString());
+                            fallback(key, job, answers);
+                        }
+                    });
+        } catch (RejectedExecutionException full) {
+            log.warn("Narrative pool saturated; serving local result");
+            fallback(key, job, answers);
+        }
+    }
+
+    /** Complete with the local result and keep the job only for fallback-ttl. */
+    private void fallback(JobKey key, Job job, Map<String, String> answers) {
+        try {
+            job.result().complete(recommendationService.localOnly(answers));
+        } catch (RuntimeException e) {
+            job.result().completeExceptionally(e);
+        }
+        if (jobs.asMap().get(key) == job) {
+            jobs.policy().expireVariably().ifPresent(p -> p.setExpiresAfter(key, fallbackTtl));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
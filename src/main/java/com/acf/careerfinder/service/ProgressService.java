@@ -5,24 +5,78 @@ import com.acf.careerfinder.model.UserProgress.Section;
 import com.acf.careerfinder.repository.UserProgressRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
 
+/**
+ * user_progress access.
+ *
+ * With progress.write-behind.enabled=true (default) autosave deltas are merged into
+ * {@link ProgressWriteBuffer} and written out by {@link #flushDirty()} on a timer, when an
+ * entry reaches progress.write-behind.max-pending deltas, on {@link #markCompleted} and
+ * on shutdown. {@link #load} returns the buffered state when there is one.
+ *
+ * progress.storage selects how answers_json is written:
+ *  - text  (default): TEXT column, read-merge-write through JPA.
+ *  - jsonb: jsonb column (ProgressStorageMigration converts it before startup completes);
+ *           every write is a single native upsert, deltas applied server-side as
+ *           answers || delta - removedKeys. With write-behind the flush sends the keys set and
+ *           removed since the last flush the same way. Reads stay on JPA.
+ */
 @Service
 public class ProgressService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProgressService.class);
+
     @Autowired private UserProgressRepository repo;
+    @Autowired private TransactionTemplate tx;
+    @Autowired private QuestionnaireService questionnaireService;
+    @Autowired private StageMetrics stages;
+
+    /** "text" | "jsonb" */
+    @Value("${progress.storage:text}")
+    private String storage;
+
+    @Value("${progress.write-behind.enabled:true}")
+    private boolean writeBehind;
+
+    /** Flush an entry inline once this many deltas are pending. */
+    @Value("${progress.write-behind.max-pending:50}")
+    private int maxPending;
+
+    /** Clean entries untouched this long are dropped from memory. */
+    @Value("${progress.write-behind.idle-evict-ms:600000}")
+    private long idleEvictMs;
 
     private final ObjectMapper mapper = new ObjectMapper();
     private static final TypeReference<Map<String,String>> MAP_TYPE = new TypeReference<>(){};
 
+    private final ProgressWriteBuffer buffer = new ProgressWriteBuffer();
+
+    private boolean jsonb() {
+        return "jsonb".equalsIgnoreCase(storage);
+    }
+
     @Transactional(Transactional.TxType.SUPPORTS) // read-only boundary (safe for future)
     public Optional<UserProgress> load(String email, Section section) {
+        if (writeBehind) {
+            var e = buffer.get(email, section);
+            if (e != null) return Optional.of(e.view(this::toJson));
+        }
         return repo.findByUserEmailAndSection(email, section);
     }
 
@@ -36,15 +90,112 @@ public class ProgressService {
         catch (Exception e) { return "{}"; }
     }
 
-    /** Merge delta answers + set page (upsert). */
-    @Transactional
+    /** Merge delta answers + set page (upsert). Buffered when write-behind is on. */
     public UserProgress upsertMerge(String email, Section section, Map<String,String> delta, Integer page) {
-        UserProgress up = repo.findByUserEmailAndSection(email, section).orElseGet(() -> {
-            UserProgress np = new UserProgress();
-            np.setUserEmail(email);
-            np.setSection(section);
-            return np;
+        return stages.time("progress.merge", () -> merge(email, section, delta, page));
+    }
+
+    private UserProgress merge(String email, Section section, Map<String,String> delta, Integer page) {
+        if (!writeBehind) {
+            return tx.execute(s -> mergeRow(email, section, delta, page));
+        }
+        var e = buffer.merge(email, section, delta, page,
+                k -> repo.findByUserEmailAndSection(k.email(), k.section()).orElse(null),
+                this::toMap);
+        if (e.pendingDeltas() >= maxPending) flush(e);
+        return e.view(this::toJson);
+    }
+
+    /** Mark the section as finished (buffered answers are written first). */
+    public void markCompleted(String email, Section section) {
+        if (writeBehind) {
+            var e = buffer.get(email, section);
+            if (e != null) {
+                do { flush(e); } while (!buffer.retireIfClean(e));
+            }
+        }
+        tx.executeWithoutResult(s -> {
+            if (jsonb()) {
+                repo.markCompletedJsonb(email, section.name());
+                return;
+            }
+            if (repo.markCompleted(email, section) > 0) return;
+            UserProgress up = findOrNew(email, section);
+            up.setCompleted(true);
+            repo.save(up);
         });
+        questionnaireService.evictAnswers(email); // result pages read the finished answer set fresh
+    }
+
+    /* -------------------- write-behind -------------------- */
+
+    /** Timer flush of every dirty entry; also evicts idle clean ones. */
+    @Scheduled(fixedDelayString = "${progress.write-behind.flush-interval-ms:2000}")
+    public void flushDirty() {
+        if (!writeBehind) return;
+        long idleCutoff = System.currentTimeMillis() - idleEvictMs;
+        for (var e : buffer.entries()) {
+            if (e.dirty()) {
+                try {
+                    flush(e);
+                } catch (Exception ex) {
+                    // Keep it dirty; next tick retries.
+                    log.warn("Progress flush failed for {}/{}: {}", e.key.email(), e.key.section(), ex.toString());
+                }
+            } else if (buffer.idleSince(e, idleCutoff)) {
+                buffer.retireIfClean(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!writeBehind) return;
+        for (var e : buffer.entries()) {
+            try {
+                flush(e);
+            } catch (Exception ex) {
+                log.error("Progress lost on shutdown for {}/{}: {}", e.key.email(), e.key.section(), ex.toString());
+            }
+        }
+    }
+
+    /** Write the entry's current state (one writer per entry; newer deltas stay dirty). */
+    private void flush(ProgressWriteBuffer.Entry e) {
+        synchronized (e.flushLock) {
+            if (!e.dirty()) return;
+            var p = e.pending();
+            tx.executeWithoutResult(s -> {
+                if (jsonb()) {
+                    repo.mergeAnswersJsonb(p.email(), p.section().name(), toJson(p.set()),
+                            removedJson(p.removed()), p.page());
+                    return;
+                }
+                UserProgress up = findOrNew(p.email(), p.section());
+                up.setAnswersJson(toJson(p.answers()));
+                up.setPage(p.page());
+                repo.save(up);
+            });
+            e.flushed(p.version());
+        }
+    }
+
+    /** Direct path (write-behind disabled): read-merge-write, or one server-side jsonb merge. */
+    private UserProgress mergeRow(String email, Section section, Map<String,String> delta, Integer page) {
+        if (jsonb()) {
+            Map<String,String> set = new TreeMap<>();
+            List<String> removed = new ArrayList<>();
+            if (delta != null) {
+                delta.forEach((k,v) -> {
+                    if (v == null || v.isBlank()) removed.add(k);
+                    else set.put(k, v);
+                });
+            }
+            repo.mergeAnswersJsonb(email, section.name(), toJson(set), removedJson(removed), page == null ? 0 : page);
+            return repo.findByUserEmailAndSection(email, section).orElseThrow();
+        }
+
+        UserProgress up = findOrNew(email, section);
 
         Map<String,String> merged = new TreeMap<>(toMap(up.getAnswersJson()));
         if (delta != null) {
@@ -59,16 +210,17 @@ public class ProgressService {
         return repo.save(up);
     }
 
-    /** Mark the section as finished. */
-    @Transactional
-    public void markCompleted(String email, Section section) {
-        UserProgress up = repo.findByUserEmailAndSection(email, section).orElseGet(() -> {
+    private String removedJson(Collection<String> removed) {
+        try { return mapper.writeValueAsString(removed); }
+        catch (Exception e) { return "[]"; }
+    }
+
+    private UserProgress findOrNew(String email, Section section) {
+        return repo.findByUserEmailAndSection(email, section).orElseGet(() -> {
             UserProgress np = new UserProgress();
             np.setUserEmail(email);
             np.setSection(section);
             return np;
         });
-        up.setCompleted(true);
-        repo.save(up);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.model.UserProgress;
+import com.acf.careerfinder.model.UserProgress.Section;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory, per (user, section) coalescing buffer for autosave deltas.
+ *
+ * Each entry holds the full merged answer map (hydrated once from user_progress),
+ * so successive deltas merge in memory and only the latest state is written on flush.
+ * It also keeps the keys set/removed since the last completed flush, which the jsonb
+ * storage mode sends as one server-side merge instead of replacing the whole object.
+ * Owned by {@link ProgressService}; all IO stays there. Single-instance only:
+ * a second app node would not see another node's buffered answers.
+ */
+final class ProgressWriteBuffer {
+
+    record Key(String email, Section section) {}
+
+    /**
+     * State to persist, captured under the entry lock: the full answer map, plus the keys
+     * set / removed since the last completed flush (re-sending them is idempotent).
+     */
+    record Pending(String email, Section section, Map<String, String> answers,
+                   Map<String, String> set, Set<String> removed, int page, long version) {}
+
+    static final class Entry {
+        final Key key;
+        final Object flushLock = new Object();   // one writer per entry at a time
+
+        private final Long id;
+        private final boolean completed;
+        private final TreeMap<String, String> answers;
+        private final TreeMap<String, String> setSinceFlush = new TreeMap<>();
+        private final TreeSet<String> removedSinceFlush = new TreeSet<>();
+        private int page;
+        private long version;          // bumped on every merge
+        private long flushedVersion;   // last version written to the DB
+        private int pendingDeltas;
+        private long lastTouchedMs;
+        private boolean retired;       // removed from the map; callers must re-acquire
+
+        private Entry(Key key, UserProgress row) {
+            this.key = key;
+            this.id = (row == null) ? null : row.getId();
+            this.completed = row != null && row.isCompleted();
+            this.answers = new TreeMap<>();
+            this.page = (row == null) ? 1 : row.getPage();
+            this.lastTouchedMs = System.currentTimeMillis();
+        }
+
+        synchronized boolean dirty() { return version != flushedVersion; }
+
+        synchronized int pendingDeltas() { return pendingDeltas; }
+
+        /** Same merge rules as the direct path: blank/null value removes the key. */
+        private void merge(Map<String, String> delta, Integer page) {
+            if (delta != null) {
+                delta.forEach((k, v) -> {
+                    if (v == null || v.isBlank()) {
+                        answers.remove(k);
+                        setSinceFlush.remove(k);
+                        removedSinceFlush.add(k);
+                    } else {
+                        answers.put(k, v);
+                        setSinceFlush.put(k, v);
+                        removedSinceFlush.remove(k);
+                    }
+                });
+            }
+            if (page != null && page >= 1) this.page = page;
+            version++;
+            pendingDeltas++;
+            lastTouchedMs = System.currentTimeMillis();
+        }
+
+        synchronized Pending pending() {
+            return new Pending(key.email(), key.section(), new TreeMap<>(answers),
+                    new TreeMap<>(setSinceFlush), new TreeSet<>(removedSinceFlush), page, version);
+        }
+
+        synchronized void flushed(long v) {
+            if (v > flushedVersion) flushedVersion = v;
+            if (flushedVersion == version) {
+                pendingDeltas = 0;
+                setSinceFlush.clear();
+                removedSinceFlush.clear();
+            }
+        }
+
+        /** Detached row carrying the buffered state (never saved through JPA). */
+        synchronized UserProgress view(Function<Map<String, String>, String> toJson) {
+            UserProgress up = new UserProgress();
+            up.setId(id);
+            up.setUserEmail(key.email());
+            up.setSection(key.section());
+            up.setAnswersJson(toJson.apply(answers));
+            up.setPage(page);
+            up.setCompleted(completed);
+            return up;
+        }
+    }
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    Entry get(String email, Section section) {
+        return entries.get(new Key(email, section));
+    }
+
+    Collection<Entry> entries() {
+        return entries.values();
+    }
+
+    /**
+     * Merge a delta into the buffered state, creating the entry from {@code row}
+     * (the persisted user_progress row, or null) when absent. Returns the entry merged into.
+     */
+    Entry merge(String email, Section section, Map<String, String> delta, Integer page,
+                Function<Key, UserProgress> loader,
+                Function<String, Map<String, String>> toMap) {
+        Key key = new Key(email, section);
+        while (true) {
+            Entry e = entries.get(key);
+            if (e == null) {
+                UserProgress row = loader.apply(key);
+                Entry fresh = new Entry(key, row);
+                if (row != null) fresh.answers.putAll(toMap.apply(row.getAnswersJson()));
+                e = entries.putIfAbsent(key, fresh);
+                if (e == null) e = fresh;
+            }
+            synchronized (e) {
+                if (e.retired) continue; // lost a race with retire(); start over
+                e.merge(delta, page);
+                return e;
+            }
+        }
+    }
+
+    /** Drop a fully flushed entry. False when new deltas arrived since the last flush. */
+    boolean retireIfClean(Entry e) {
+        synchronized (e) {
+            if (e.version != e.flushedVersion) return false;
+            e.retired = true;
+            entries.remove(e.key, e);
+            return true;
+        }
+    }
+
+    boolean idleSince(Entry e, long cutoffMs) {
+        synchronized (e) {
+            return e.lastTouchedMs < cutoffMs;
+        }
+    }
+}
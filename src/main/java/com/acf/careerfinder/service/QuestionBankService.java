@@ -1,27 +1,49 @@
 package com.acf.careerfinder.service;
 
+import com.acf.careerfinder.admin.QuestionBankChangedEvent;
 import com.acf.careerfinder.model.QItem;
 import com.acf.careerfinder.model.QItemLocale;
 import com.acf.careerfinder.repository.QItemLocaleRepository;
 import com.acf.careerfinder.repository.QItemRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Questionnaire bank, served from memory.
+ *
+ * Each language is built once into an immutable, ordered list of QuestionViews
+ * (options parsed, English fallback applied) and paged with subList. The whole
+ * set of languages is swapped atomically when the admin edits the bank.
+ */
 @Service
 public class QuestionBankService {
 
+    /** Languages the UI offers; built eagerly. Any other lang is built on first use. */
+    private static final List<String> UI_LANGS = List.of("en", "hi", "mr");
+
     private final QItemRepository itemRepo;
     private final QItemLocaleRepository localeRepo;
+    private final StageMetrics stages;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public QuestionBankService(QItemRepository itemRepo, QItemLocaleRepository localeRepo) {
+    /** Active IPIP/SJT items (ordered) + lang → localized views built from them. */
+    private record Bank(List<QItem> items, Map<String, List<QuestionView>> byLang) {}
+
+    private volatile Bank bank;
+
+    public QuestionBankService(QItemRepository itemRepo, QItemLocaleRepository localeRepo, StageMetrics stages) {
         this.itemRepo = itemRepo;
         this.localeRepo = localeRepo;
+        this.stages = stages;
     }
 
     // --- View models exposed to Thymeleaf / controller ---
@@ -29,32 +51,76 @@ public class QuestionBankService {
     public record QuestionView(String key, String text, String type, boolean required, List<OptionVM> options) {}
     public record PageView(int page, int totalPages, int pageSize, List<QuestionView> questions) {}
 
-    /** Load one page of localized questions from the active bank (IPIP/SJT only). */
+    /** One page of localized questions from the active bank (IPIP/SJT only). No DB access once built. */
     public PageView loadPage(String lang, int page, int pageSize) {
+        return stages.time("questionbank.page", () -> page(lang, page, pageSize));
+    }
+
+    private PageView page(String lang, int page, int pageSize) {
         if (lang == null || lang.isBlank()) lang = "en";
 
-        // Load ALL active questions then hard-filter to IPIP/SJT for safety.
-        List<QItem> allActive = itemRepo.findActiveOrdered();
-        List<QItem> all = allActive.stream()
-                .filter(q -> {
-                    String s = q.getSectionKey();
-                    return s != null && (s.equalsIgnoreCase("ipip") || s.equalsIgnoreCase("sjt"));
-                })
-                .toList();
+        List<QuestionView> all = views(lang);
 
         int totalPages = Math.max(1, (int) Math.ceil(all.size() / (double) pageSize));
         page = Math.max(1, Math.min(page, totalPages));
 
         int from = (page - 1) * pageSize;
         int to   = Math.min(from + pageSize, all.size());
-        List<QItem> window = (from < to) ? all.subList(from, to) : List.of();
+        List<QuestionView> window = (from < to) ? all.subList(from, to) : List.of();
 
-        if (window.isEmpty()) {
-            return new PageView(page, totalPages, pageSize, List.of());
-        }
+        return new PageView(page, totalPages, pageSize, window);
+    }
+
+    /* -------------------- cache lifecycle -------------------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /** Admin upsert/delete committed → rebuild every language already built, then swap. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionBankChanged(QuestionBankChangedEvent event) {
+        rebuild();
+    }
 
-        // Preload locales for the window
-        List<Long> ids = window.stream().map(QItem::getId).toList();
+    private synchronized void rebuild() {
+        Bank old = bank;
+        Set<String> langs = new LinkedHashSet<>(UI_LANGS);
+        if (old != null) langs.addAll(old.byLang().keySet());
+
+        Bank fresh = new Bank(loadItems(), new ConcurrentHashMap<>());
+        for (String l : langs) fresh.byLang().put(l, build(fresh.items(), l));
+        bank = fresh;
+    }
+
+    private List<QuestionView> views(String lang) {
+        Bank b = bank != null ? bank : initialBank();
+        List<QuestionView> v = b.byLang().get(lang);
+        if (v != null) return v;
+        return b.byLang().computeIfAbsent(lang, l -> build(b.items(), l));
+    }
+
+    private synchronized Bank initialBank() {
+        if (bank == null) bank = new Bank(loadItems(), new ConcurrentHashMap<>());
+        return bank;
+    }
+
+    /** Load ALL active questions then hard-filter to IPIP/SJT for safety. */
+    private List<QItem> loadItems() {
+        return itemRepo.findActiveOrdered().stream()
+                .filter(q -> {
+                    String s = q.getSectionKey();
+                    return s != null && (s.equalsIgnoreCase("ipip") || s.equalsIgnoreCase("sjt"));
+                })
+                .toList();
+    }
+
+    /** Localize the whole bank for one language (two locale queries). */
+    private List<QuestionView> build(List<QItem> items, String lang) {
+        if (items.isEmpty()) return List.of();
+
+        List<Long> ids = items.stream().map(QItem::getId).toList();
 
         Map<Long, QItemLocale> priMap = localeRepo.findByItemIdInAndLocale(ids, lang).stream()
                 .collect(Collectors.toMap(l -> l.getItem().getId(), Function.identity()));
@@ -64,13 +130,13 @@ public class QuestionBankService {
                 .collect(Collectors.toMap(l -> l.getItem().getId(), Function.identity()));
 
         // Build question VMs
-        List<QuestionView> out = new ArrayList<>();
-        for (QItem it : window) {
+        List<QuestionView> out = new ArrayList<>(items.size());
+        for (QItem it : items) {
             QItemLocale pri = priMap.get(it.getId());
             QItemLocale en  = enMap.get(it.getId());
 
             String text = pickText(pri, en, it.getQkey());
-            List<OptionVM> opts = pickOptions(pri, en);
+            List<OptionVM> opts = List.copyOf(pickOptions(pri, en));
 
             String type = (it.getQtype() != null
                     ? it.getQtype().name()
@@ -80,8 +146,7 @@ public class QuestionBankService {
 
             out.add(new QuestionView(it.getQkey(), text, type, required, opts));
         }
-
-        return new PageView(page, totalPages, pageSize, out);
+        return List.copyOf(out);
     }
 
     // -------------------- helpers --------------------
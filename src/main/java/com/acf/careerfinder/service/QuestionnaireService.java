@@ -2,44 +2,148 @@ package com.acf.careerfinder.service;
 
 import com.acf.careerfinder.model.QuestionnaireResponse;
 import com.acf.careerfinder.repository.QuestionnaireResponseRepository;
+import com.acf.careerfinder.repository.TraitProfileSnapshotRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.sql.Array;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class QuestionnaireService {
 
     private final QuestionnaireResponseRepository repo;
-    public QuestionnaireService(QuestionnaireResponseRepository repo) { this.repo = repo; }
+    private final TraitProfileSnapshotRepository snapshotRepo;
+    private final JdbcTemplate jdbc;
+    private final StageMetrics stages;
 
+    /**
+     * Answer maps by user: memoized on the current HTTP request, and across requests for a
+     * short TTL. Values are unmodifiable; every write path for a user evicts both layers.
+     */
+    private final Cache<String, Map<String, String>> answersCache;
+    private static final String REQUEST_ATTR = QuestionnaireService.class.getName() + ".answers:";
+
+    /**
+     * Whole answer map in one statement: unnest the key/value arrays and upsert on
+     * uq_user_question. Rows whose value is unchanged are left alone (no write, no updated_at bump).
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO questionnaire_responses (user_email, question_key, answer_value, created_at, updated_at)
+            SELECT ?, k, v, now(), now()
+              FROM unnest(CAST(? AS text[]), CAST(? AS text[])) AS t(k, v)
+            ON CONFLICT (user_email, question_key) DO UPDATE
+               SET answer_value = EXCLUDED.answer_value,
+                   updated_at   = EXCLUDED.updated_at
+             WHERE questionnaire_responses.answer_value IS DISTINCT FROM EXCLUDED.answer_value
+            """;
+
+    public QuestionnaireService(QuestionnaireResponseRepository repo,
+                                TraitProfileSnapshotRepository snapshotRepo,
+                                JdbcTemplate jdbc,
+                                StageMetrics stages,
+                                @Value("${questionnaire.answers-cache.ttl:PT30S}") Duration ttl,
+                                @Value("${questionnaire.answers-cache.max-size:10000}") long maxSize) {
+        this.repo = repo;
+        this.snapshotRepo = snapshotRepo;
+        this.jdbc = jdbc;
+        this.stages = stages;
+        this.answersCache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /** Upsert every answer in a single round-trip, regardless of how many keys the map has. */
     @Transactional
     public void saveAnswers(String email, Map<String, String> answers) {
-        if (answers == null) return;
+        if (answers == null || answers.isEmpty()) return;
+        stages.run("questionnaire.save", () -> upsertAll(email, answers));
+    }
+
+    private void upsertAll(String email, Map<String, String> answers) {
+        List<String> keys = new ArrayList<>(answers.size());
+        List<String> vals = new ArrayList<>(answers.size());
         for (Map.Entry<String, String> e : answers.entrySet()) {
             String key = e.getKey();
             if (key == null || key.isBlank()) continue;
-            String val = e.getValue() == null ? "" : e.getValue();
-            QuestionnaireResponse row = repo
-                    .findByUserEmailAndQuestionKey(email, key)
-                    .orElseGet(() -> new QuestionnaireResponse(email, key));
-            row.setAnswerValue(val);
-            repo.save(row);
+            keys.add(key);
+            vals.add(e.getValue() == null ? "" : e.getValue());
         }
+        if (keys.isEmpty()) return;
+
+        evictAnswers(email);
+        jdbc.update(con -> {
+            var ps = con.prepareStatement(UPSERT_SQL);
+            Array k = con.createArrayOf("text", keys.toArray());
+            Array v = con.createArrayOf("text", vals.toArray());
+            ps.setString(1, email);
+            ps.setArray(2, k);
+            ps.setArray(3, v);
+            return ps;
+        });
     }
 
-    @Transactional(readOnly = true)
+    /** All saved answers for the user (unmodifiable; copy before changing). At most one DB read per request. */
     public Map<String, String> loadAnswersMap(String email) {
-        Map<String, String> map = new LinkedHashMap<>();
-        for (QuestionnaireResponse r : repo.findAllByUserEmail(email)) {
-            map.put(r.getQuestionKey(), r.getAnswerValue());
+        RequestAttributes req = RequestContextHolder.getRequestAttributes();
+        if (req != null) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> hit = (Map<String, String>) req.getAttribute(REQUEST_ATTR + email, RequestAttributes.SCOPE_REQUEST);
+            if (hit != null) return hit;
         }
+        Map<String, String> map = answersCache.get(email, this::readAnswers);
+        if (req != null) req.setAttribute(REQUEST_ATTR + email, map, RequestAttributes.SCOPE_REQUEST);
         return map;
     }
 
+    /** Cache miss: the DB read is what questionnaire.load measures (hits are not timed). */
+    private Map<String, String> readAnswers(String email) {
+        return stages.time("questionnaire.load", () -> {
+            Map<String, String> map = new LinkedHashMap<>();
+            for (QuestionnaireResponse r : repo.findAllByUserEmail(email)) {
+                map.put(r.getQuestionKey(), r.getAnswerValue());
+            }
+            return Collections.unmodifiableMap(map);
+        });
+    }
+
+    /**
+     * Drop cached answers for the user now and again once the surrounding transaction
+     * commits, so a read racing the write cannot re-cache the old rows.
+     */
+    public void evictAnswers(String email) {
+        evictNow(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCompletion(int status) { evictNow(email); }
+            });
+        }
+    }
+
+    private void evictNow(String email) {
+        answersCache.invalidate(email);
+        RequestAttributes req = RequestContextHolder.getRequestAttributes();
+        if (req != null) req.removeAttribute(REQUEST_ATTR + email, RequestAttributes.SCOPE_REQUEST);
+    }
+
     @Transactional
     public void deleteAllForUser(String email) {
+        evictAnswers(email);
         repo.deleteAllByUserEmail(email);
+        snapshotRepo.deleteByUserEmail(email); // derived from the answers just removed
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,9 +20,26 @@ public class RecommendationService {
     }
 
     public Recommendation compute(Map<String, String> answers) {
+        return compute(LocaleContextHolder.getLocale(), answers);
+    }
+
+    /** Same as {@link #compute(Map)} with an explicit locale (for calls off the request thread). */
+    public Recommendation compute(Locale locale, Map<String, String> answers) {
         // 1) Ask GPT for the full Recommendation, in the user's language.
-        Recommendation rec = chatService.askRecommendation(LocaleContextHolder.getLocale(), answers);
+        return withFallbacks(chatService.askRecommendation(locale, answers), answers);
+    }
+
+    /** Same as {@link #compute(Locale, Map)}, passing the raw LLM tokens to {@code onDelta} as they arrive. */
+    public Recommendation computeStreaming(Locale locale, Map<String, String> answers, Consumer<String> onDelta) {
+        return withFallbacks(chatService.askRecommendationStreaming(locale, answers, onDelta), answers);
+    }
+
+    /** No-LLM result: fallback careers/steps and the raw answers echo. Shown while the narrative is pending. */
+    public Recommendation localOnly(Map<String, String> answers) {
+        return withFallbacks(new Recommendation(), answers);
+    }
 
+    private Recommendation withFallbacks(Recommendation rec, Map<String, String> answers) {
         // 2) If GPT didn't provide careers, compute a minimal fallback using your old logic.
         if (rec.getSuggestedCareers() == null || rec.getSuggestedCareers().isEmpty()) {
             rec.setSuggestedCareers(fallbackCareers(answers));
@@ -0,0 +1,126 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.model.TraitProfileSnapshot;
+import com.acf.careerfinder.psychometrics.ScoringPlan;
+import com.acf.careerfinder.psychometrics.ScoringService;
+import com.acf.careerfinder.psychometrics.Trait;
+import com.acf.careerfinder.psychometrics.TraitProfile;
+import com.acf.careerfinder.repository.TraitProfileSnapshotRepository;
+import com.acf.careerfinder.sector.SectorRankingService;
+import com.acf.careerfinder.sector.SectorRankingService.RankedResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result page payload (TraitProfile + sector ranking) with a persisted per-user snapshot.
+ *
+ * The snapshot is reused while hash(answers), the compiled bank version and the
+ * sector config version (files + topN) are unchanged; any difference recomputes and overwrites it.
+ */
+@Service
+public class ResultSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultSnapshotService.class);
+
+    private final TraitProfileSnapshotRepository repo;
+    private final ScoringService scoringService;
+    private final SectorRankingService sectorRankingService;
+
+    private final ObjectMapper M = new ObjectMapper();
+
+    public ResultSnapshotService(TraitProfileSnapshotRepository repo,
+                                 ScoringService scoringService,
+                                 SectorRankingService sectorRankingService) {
+        this.repo = repo;
+        this.scoringService = scoringService;
+        this.sectorRankingService = sectorRankingService;
+    }
+
+    public record ResultView(TraitProfile profile, RankedResult ranked) {}
+
+    /** Snapshot when still valid for these answers, else score + rank and store. */
+    public ResultView resolve(String email, Map<String, String> answers) {
+        ScoringPlan plan = scoringService.plan();
+        String answersHash = answersHash(answers);
+        String scoringVersion = plan.version();
+        String sectorVersion = sectorRankingService.version();
+
+        TraitProfileSnapshot snap = repo.findByUserEmail(email).orElse(null);
+        if (snap != null && snap.matches(answersHash, scoringVersion, sectorVersion)) {
+            ResultView cached = decode(snap);
+            if (cached != null) return cached;
+        }
+
+        TraitProfile profile = scoringService.scoreAnswers(plan, answers);
+        RankedResult ranked = sectorRankingService.build(answers, toTCodeMap(profile.traitFinal0to100()));
+        ResultView view = new ResultView(profile, ranked);
+
+        if (snap == null) snap = new TraitProfileSnapshot(email);
+        try {
+            snap.setAnswersHash(answersHash);
+            snap.setScoringVersion(scoringVersion);
+            snap.setSectorVersion(sectorVersion);
+            snap.setProfileJson(M.writeValueAsString(profile));
+            snap.setRankingJson(M.writeValueAsString(ranked));
+            repo.save(snap);
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent first visit inserted the row already; next visit will reuse or refresh it.
+            log.debug("Snapshot insert raced for {}", email);
+        } catch (Exception e) {
+            log.warn("Could not store result snapshot for {}: {}", email, e.toString());
+        }
+        return view;
+    }
+
+    /** The weights JSON uses keys "T01".."T12". */
+    public static Map<String, Double> toTCodeMap(Map<Trait, Double> traitMap) {
+        Map<String, Double> out = new LinkedHashMap<>();
+        int i = 1;
+        for (Trait t : Trait.values()) {
+            String code = (i < 10) ? ("T0" + i) : ("T" + i);
+            double val = traitMap != null && traitMap.get(t) != null ? traitMap.get(t) : 0.0;
+            out.put(code, val);
+            i++;
+        }
+        return out;
+    }
+
+    /** Order-independent hex SHA-256 of the answer set (key/value pairs sorted by key). */
+    static String answersHash(Map<String, String> answers) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            if (answers != null) {
+                for (Map.Entry<String, String> e : new TreeMap<>(answers).entrySet()) {
+                    md.update(e.getKey().getBytes(StandardCharsets.UTF_8));
+                    md.update((byte) 0);
+                    md.update(String.valueOf(e.getValue()).getBytes(StandardCharsets.UTF_8));
+                    md.update((byte) 1);
+                }
+            }
+            return HexFormat.of().formatHex(md.digest());
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private ResultView decode(TraitProfileSnapshot snap) {
+        try {
+            return new ResultView(
+                    M.readValue(snap.getProfileJson(), TraitProfile.class),
+                    M.readValue(snap.getRankingJson(), RankedResult.class));
+        } catch (Exception e) {
+            // Shape changed since it was written → treat as stale.
+            return null;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.psychometrics.ScoringPlan;
+import com.acf.careerfinder.psychometrics.ScoringService;
+import com.acf.careerfinder.sector.EligibilityService;
+import com.acf.careerfinder.sector.EligibilityService.CandBits;
+import com.acf.careerfinder.sector.SectorConfigService;
+import com.acf.careerfinder.sector.SectorConfigService.ValidationReport;
+import com.acf.careerfinder.sector.SectorConfigSnapshot;
+import com.acf.careerfinder.sector.SectorRankingService;
+import com.acf.careerfinder.sector.SectorScoreMatrix;
+import com.acf.careerfinder.sector.SectorScoringService;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * What-if: rank the cohort (or a stable sample of it) against the live sector config and a
+ * candidate gates/weights pair, and report how the results would move.
+ *
+ * Each user is scored once and put through each config's compiled matrix and gates once;
+ * ranks, eligibility changes and both Top-N lists all come from that one pass (Top-N is
+ * picked the way the result page's ranking service picks it). The candidate is validated with the same cross-file
+ * checks as a reload and is never published.
+ */
+@Service
+public class SectorWhatIfService {
+
+    private final CohortRankingService cohort;
+    private final ScoringService scoringService;
+    private final SectorConfigService sectorConfig;
+    private final SectorRankingService sectorRankingService;
+    private final EligibilityService eligibility;
+
+    public SectorWhatIfService(CohortRankingService cohort,
+                               ScoringService scoringService,
+                               SectorConfigService sectorConfig,
+                               SectorRankingService sectorRankingService,
+                               EligibilityService eligibility) {
+        this.cohort = cohort;
+        this.scoringService = scoringService;
+        this.sectorConfig = sectorConfig;
+        this.sectorRankingService = sectorRankingService;
+        this.eligibility = eligibility;
+    }
+
+    /** Per-sector movement; counts are users, rank shift is candidate minus live (negative = moved up). */
+    public record SectorDelta(String id, String name,
+                              int liveTop, int candidateTop,
+                              int liveEligible, int candidateEligible,
+                              int eligibilityGained, int eligibilityLost,
+                              double meanRankShift, double meanScoreDelta) {}
+
+    /**
+     * @param topChurnHistogram index k = users whose Top-N differs from live in k sectors
+     */
+    public record WhatIfReport(boolean valid, ValidationReport validation,
+                               String liveVersion, String candidateVersion, int samplePercent,
+                               int users, int top1Changed, int topChanged, double meanTopChurn,
+                               int[] topChurnHistogram, List<SectorDelta> sectors) {}
+
+    /** @param candidate from {@link SectorConfigService#candidate}; an invalid one is reported, not diffed */
+    public WhatIfReport diff(SectorConfigService.Candidate candidate, int samplePercent) {
+        SectorConfigSnapshot live = sectorConfig.snapshot();
+        ValidationReport rep = candidate.report();
+        if (!candidate.ok()) {
+            return new WhatIfReport(false, rep, live.version(), candidate.version(), samplePercent,
+                    0, 0, 0, 0.0, new int[0], List.of());
+        }
+
+        Acc acc = new Acc(live, candidate.snapshot(), sectorRankingService.topN());
+        ScoringPlan plan = scoringService.plan();
+        cohort.forEachCompletedUser(samplePercent, (email, answers) -> {
+            Map<String, Double> t = ResultSnapshotService.toTCodeMap(
+                    scoringService.scoreAnswers(plan, answers).traitFinal0to100());
+            acc.add(answers, t);
+        });
+        return acc.report(rep, samplePercent);
+    }
+
+    /** Running totals, indexed by live matrix row; candidate rows are mapped by sector id. */
+    private final class Acc {
+        final SectorConfigSnapshot live, cand;
+        final SectorScoreMatrix lm, cm;
+        final int topN;
+        final int[] candRowOfLive;          // -1 when the sector has no candidate weights row
+        final int[] liveRowOfCand;          // -1 for candidate-only sectors
+
+        // Per-user scratch, reused: one score pass, one rank and one gate check per row and config
+        final double[] ls, cs;
+        final int[] lOrder, cOrder, lRank, cRank;
+        final boolean[] lEl, cEl;
+        final int[] lTop, cTop;
+
+        final int[] liveTop, candTop, liveElig, candElig, gained, lost;
+        final long[] rankShiftSum;
+        final double[] scoreDeltaSum;
+        final Map<String, Integer> extraCandTop = new LinkedHashMap<>(); // candidate-only sectors
+        int users, top1Changed, topChanged;
+        long churnSum;
+        int[] churnHist = new int[1];
+
+        Acc(SectorConfigSnapshot live, SectorConfigSnapshot cand, int topN) {
+            this.live = live;
+            this.cand = cand;
+            this.lm = live.matrix();
+            this.cm = cand.matrix();
+            this.topN = topN;
+            int n = lm.size(), m = cm.size();
+            Map<String, Integer> candRow = new HashMap<>();
+            for (int j = 0; j < m; j++) candRow.put(cm.id(j), j);
+            candRowOfLive = new int[n];
+            liveRowOfCand = new int[m];
+            Arrays.fill(liveRowOfCand, -1);
+            for (int i = 0; i < n; i++) {
+                int j = candRow.getOrDefault(lm.id(i), -1);
+                candRowOfLive[i] = j;
+                if (j >= 0) liveRowOfCand[j] = i;
+            }
+
+            ls = new double[n];
+            cs = new double[m];
+            lOrder = new int[n];
+            cOrder = new int[m];
+            lRank = new int[n];
+            cRank = new int[m];
+            lEl = new boolean[n];
+            cEl = new boolean[m];
+            lTop = new int[topN];
+            cTop = new int[topN];
+            liveTop = new int[n]; candTop = new int[n];
+            liveElig = new int[n]; candElig = new int[n];
+            gained = new int[n]; lost = new int[n];
+            rankShiftSum = new long[n];
+            scoreDeltaSum = new double[n];
+        }
+
+        void add(Map<String, String> answers, Map<String, Double> t) {
+            users++;
+            double[] vec = SectorScoringService.vectorFromCodes(t);
+            lm.score(vec, ls);
+            cm.score(vec, cs);
+            rank(ls, lOrder, lRank);
+            rank(cs, cOrder, cRank);
+
+            CandBits bits = eligibility.encode(eligibility.deriveCand(answers));
+            for (int i = 0; i < lEl.length; i++) lEl[i] = eligibility.eligible(bits, live.gate(i));
+            for (int j = 0; j < cEl.length; j++) cEl[j] = eligibility.eligible(bits, cand.gate(j));
+
+            for (int i = 0; i < lEl.length; i++) {
+                boolean le = lEl[i];
+                if (le) liveElig[i]++;
+                int j = candRowOfLive[i];
+                if (j < 0) continue;
+                boolean ce = cEl[j];
+                if (ce) candElig[i]++;
+                if (ce && !le) gained[i]++;
+                if (le && !ce) lost[i]++;
+                rankShiftSum[i] += cRank[j] - lRank[i];
+                scoreDeltaSum[i] += cs[j] - ls[i];
+            }
+
+            // Top-N = first N eligible rows in rank order, as SectorRankingService picks them
+            int ln = top(lOrder, lEl, lTop);
+            int cn = top(cOrder, cEl, cTop);
+            for (int r = 0; r < ln; r++) liveTop[lTop[r]]++;
+            for (int r = 0; r < cn; r++) {
+                int i = liveRowOfCand[cTop[r]];
+                if (i >= 0) candTop[i]++;
+                else extraCandTop.merge(cm.id(cTop[r]), 1, Integer::sum);
+            }
+
+            // Churn = sectors that entered or left the Top-N (whichever side is larger)
+            int entered = 0, left = 0;
+            for (int r = 0; r < cn; r++) if (!contains(lTop, ln, liveRowOfCand[cTop[r]])) entered++;
+            for (int r = 0; r < ln; r++) if (!contains(cTop, cn, candRowOfLive[lTop[r]])) left++;
+            int churn = Math.max(entered, left);
+            if (churn >= churnHist.length) churnHist = Arrays.copyOf(churnHist, churn + 1);
+            churnHist[churn]++;
+            churnSum += churn;
+            if (churn > 0) topChanged++;
+            String l1 = ln == 0 ? null : lm.id(lTop[0]);
+            String c1 = cn == 0 ? null : cm.id(cTop[0]);
+            if (!Objects.equals(l1, c1)) top1Changed++;
+        }
+
+        /** Fill {@code out} with the best eligible rows; returns how many there are. */
+        private int top(int[] order, boolean[] el, int[] out) {
+            int k = 0;
+            for (int r = 0; r < order.length && k < out.length; r++) {
+                if (el[order[r]]) out[k++] = order[r];
+            }
+            return k;
+        }
+
+        private static boolean contains(int[] a, int len, int v) {
+            if (v < 0) return false;
+            for (int r = 0; r < len; r++) if (a[r] == v) return true;
+            return false;
+        }
+
+        /**
+         * rank[i] = 0-based position by score desc, then row order (same as the ranking service).
+         * Insertion sort over a primitive index array: a few dozen rows, no boxing.
+         */
+        private static void rank(double[] s, int[] order, int[] rank) {
+            for (int i = 0; i < order.length; i++) {
+                int r = i;
+                while (r > 0 && s[order[r - 1]] < s[i]) {
+                    order[r] = order[r - 1];
+                    r--;
+                }
+                order[r] = i;
+            }
+            for (int r = 0; r < order.length; r++) rank[order[r]] = r;
+        }
+
+        WhatIfReport report(ValidationReport rep, int samplePercent) {
+            List<SectorDelta> out = new ArrayList<>();
+            for (int i = 0; i < lm.size(); i++) {
+                out.add(new SectorDelta(lm.id(i), lm.name(i), liveTop[i], candTop[i],
+                        liveElig[i], candElig[i], gained[i], lost[i],
+                        users == 0 ? 0.0 : (double) rankShiftSum[i] / users,
+                        users == 0 ? 0.0 : scoreDeltaSum[i] / users));
+            }
+            extraCandTop.forEach((id, n) -> out.add(
+                    new SectorDelta(id, id, 0, n, 0, 0, 0, 0, 0.0, 0.0)));
+            // Biggest Top-N movers first
+            out.sort((a, b) -> Integer.compare(Math.abs(b.candidateTop() - b.liveTop()),
+                    Math.abs(a.candidateTop() - a.liveTop())));
+
+            return new WhatIfReport(true, rep, live.version(), cand.version(), samplePercent,
+                    users, top1Changed, topChanged, users == 0 ? 0.0 : (double) churnSum / users,
+                    churnHist, out);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.acf.careerfinder.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the request pipeline stages (load answers, save answers, autosave merge, page
+ * load, scoring, ranking), all under one meter name so a single query shows which stage
+ * dominates: careerfinder.stage{stage, outcome=success|error}.
+ *
+ * Percentile histograms are switched on for the careerfinder.* prefix in application.properties;
+ * served on /actuator/prometheus.
+ */
+@Component
+public class StageMetrics {
+
+    public static final String STAGE = "careerfinder.stage";
+
+    private final MeterRegistry registry;
+
+    /** stage → {success, error}; built once per stage so the hot path is one map lookup. */
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Run {@code call} and record its wall time under {@code stage}; exceptions count as outcome=error. */
+    public <T> T time(String stage, Supplier<T> call) {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            T out = call.get();
+            ok = true;
+            return out;
+        } finally {
+            timers.computeIfAbsent(stage, this::register)[ok ? 0 : 1]
+                    .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void run(String stage, Runnable call) {
+        time(stage, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private Timer[] register(String stage) {
+        return new Timer[] { timer(stage, "success"), timer(stage, "error") };
+    }
+
+    private Timer timer(String stage, String outcome) {
+        return Timer.builder(STAGE)
+                .description("Pipeline stage wall time")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.acf.careerfinder.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out for a stream of text deltas produced by one background job.
+ *
+ * A subscriber first gets everything produced so far as one delta, then each new
+ * delta in order. A subscriber that throws is dropped (its client went away).
+ */
+public final class StreamRelay {
+
+    private final StringBuilder text = new StringBuilder();
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+    private boolean closed;
+
+    /** Producer side (single thread). */
+    public void append(String delta) {
+        synchronized (this) {
+            if (closed) return;
+            text.append(delta);
+        }
+        for (Consumer<String> s : subscribers) deliver(s, delta);
+    }
+
+    /** Replay what exists, then receive live deltas until {@link #close()}. */
+    public void subscribe(Consumer<String> subscriber) {
+        synchronized (this) {
+            // Under the lock: no append can slip in between the replay and registration
+            if (!text.isEmpty() && !deliver(subscriber, text.toString())) return;
+            if (!closed) subscribers.add(subscriber);
+        }
+    }
+
+    public void unsubscribe(Consumer<String> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public synchronized void close() {
+        closed = true;
+        subscribers.clear();
+    }
+
+    private boolean deliver(Consumer<String> s, String delta) {
+        try {
+            s.accept(delta);
+            return true;
+        } catch (RuntimeException e) {
+            subscribers.remove(s);
+            return false;
+        }
+    }
+}
@@ -2,12 +2,19 @@ package com.acf.careerfinder.service;
 
 import com.acf.careerfinder.model.UserData;
 import com.acf.careerfinder.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +24,26 @@ public class UserService {
     @Autowired private UserRepository repository;
     @Autowired private PasswordValidator passwordValidator;
 
+    @Value("${account.settings-cache.ttl:PT10M}")
+    private Duration settingsTtl;
+
+    @Value("${account.settings-cache.max-size:50000}")
+    private long settingsMaxSize;
+
+    /**
+     * email → uiLang, read on every page (locale interceptor, resume, start); empty = no such
+     * account or no language chosen yet. Evicted by createUser and setUiLang.
+     */
+    private Cache<String, Optional<String>> uiLangs;
+
+    @PostConstruct
+    void initUiLangCache() {
+        uiLangs = Caffeine.newBuilder()
+                .expireAfterWrite(settingsTtl)
+                .maximumSize(settingsMaxSize)
+                .build();
+    }
+
     @ResponseStatus(HttpStatus.CONFLICT)
     public static class EmailAlreadyExistsException extends RuntimeException {
         public EmailAlreadyExistsException(String email) {
@@ -34,7 +61,9 @@ public class UserService {
         }
         // IMPORTANT: do NOT set a DB default uiLang here.
         // Keep null until the user explicitly chooses on /start.
-        return repository.save(user);
+        UserData saved = repository.save(user);
+        evictUiLang(saved.getEmail()); // may have been cached as "no such account"
+        return saved;
     }
 
     public Optional<UserData> findByEmail(String email) {
@@ -47,13 +76,14 @@ public class UserService {
 
     /* ---------- per-account language helpers ---------- */
 
+    /** Cached; the database is read at most once per TTL per account. */
     public Optional<String> getUiLang(String email) {
-        return repository.findById(email).map(UserData::getUiLang);
+        if (email == null) return Optional.empty();
+        return uiLangs.get(email, e -> repository.findById(e).map(UserData::getUiLang));
     }
 
     public String getUiLangOrDefault(String email) {
-        return repository.findById(email)
-                .map(UserData::getUiLang)
+        return getUiLang(email)
                 .filter(s -> s != null && !s.isBlank())
                 .orElse("en");
     }
@@ -63,6 +93,7 @@ public class UserService {
         if (email == null) return;
         if (!List.of("en", "hi", "mr").contains(lang)) lang = "en";
         repository.updateUiLang(email, lang);
+        evictUiLang(email);
     }
 
     /* ---------- one-time login ID banner ---------- */
@@ -72,4 +103,15 @@ public class UserService {
         if (email == null) return;
         repository.markLoginIdShown(email);
     }
+
+    /** Evict now and again after commit, so a concurrent read cannot re-cache the old row. */
+    private void evictUiLang(String email) {
+        if (email == null) return;
+        uiLangs.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override public void afterCompletion(int status) { uiLangs.invalidate(email); }
+            });
+        }
+    }
 }
\ No newline at end of file
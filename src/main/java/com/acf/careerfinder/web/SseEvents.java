@@ -0,0 +1,40 @@
+package com.acf.careerfinder.web;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Event vocabulary shared by the streaming endpoints:
+ *  - "delta": a JSON string to append to what the client has so far (partial LLM JSON);
+ *             JSON-quoted so leading spaces and newlines survive the SSE framing;
+ *  - "final": the validated payload as JSON, after which the stream ends.
+ */
+public final class SseEvents {
+
+    private SseEvents() {}
+
+    /** Sender for "delta" events; throws when the client has gone so producers drop it. */
+    public static Consumer<String> deltas(SseEmitter emitter) {
+        return delta -> {
+            try {
+                emitter.send(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /** Send "final" and close the stream. */
+    public static void finish(SseEmitter emitter, Object payload) {
+        try {
+            emitter.send(SseEmitter.event().name("final").data(payload, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e); // client went away / already completed
+        }
+    }
+}
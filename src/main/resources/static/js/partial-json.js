@@ -0,0 +1,63 @@
+/* Streaming helpers for the result page (see SseEvents on the server). */
+(function () {
+  /* Best-effort parse of JSON that is still arriving: closes an open string and any
+     open objects/arrays. Returns null while the text cannot be made valid. */
+  function partialJson(text) {
+    var stack = [], inStr = false, esc = false;
+    for (var i = 0; i < text.length; i++) {
+      var c = text.charAt(i);
+      if (inStr) {
+        if (esc) esc = false;
+        else if (c === '\\') esc = true;
+        else if (c === '"') inStr = false;
+        continue;
+      }
+      if (c === '"') inStr = true;
+      else if (c === '{') stack.push('}');
+      else if (c === '[') stack.push(']');
+      else if (c === '}' || c === ']') stack.pop();
+    }
+    var s = text;
+    if (inStr) { if (esc) s = s.slice(0, -1); s += '"'; }
+    s = s.replace(/[\s,]+$/, '');
+    if (/:\s*$/.test(s)) s += 'null';
+    while (stack.length) s += stack.pop();
+    try { return JSON.parse(s); } catch (e) { return null; }
+  }
+
+  /* Follow a "delta"/"final" SSE endpoint. onPartial(obj) as the JSON grows (at most once
+     per frame), onFinal(obj) once, onError() if the stream breaks before "final".
+     Returns false when EventSource is unavailable so callers can fall back. */
+  function streamJson(url, onPartial, onFinal, onError) {
+    if (!window.EventSource) return false;
+    var es = new EventSource(url), text = '', queued = false, done = false;
+    var later = window.requestAnimationFrame || function (f) { return setTimeout(f, 50); };
+    es.addEventListener('delta', function (e) {
+      try { text += JSON.parse(e.data); } catch (x) { return; }
+      if (queued) return;
+      queued = true;
+      later(function () {
+        queued = false;
+        var o = partialJson(text);
+        if (o && !done) onPartial(o);
+      });
+    });
+    es.addEventListener('final', function (e) {
+      done = true;
+      es.close();
+      var o = null;
+      try { o = JSON.parse(e.data); } catch (x) { }
+      onFinal(o);
+    });
+    es.onerror = function () {
+      if (done) return;
+      done = true;
+      es.close();
+      if (onError) onError();
+    };
+    return true;
+  }
+
+  window.acfPartialJson = partialJson;
+  window.acfStreamJson = streamJson;
+})();
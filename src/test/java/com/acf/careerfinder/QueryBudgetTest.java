@@ -0,0 +1,105 @@
+package com.acf.careerfinder;
+
+import com.acf.careerfinder.admin.QuestionAdminService;
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.support.EmbeddedPg;
+import com.acf.careerfinder.support.QueryCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.acf.careerfinder.support.QueryCounter.expectAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for one student's journey (gating → questionnaire with autosave → submit → result),
+ * against embedded PostgreSQL. A request that issues more JDBC statements than its budget fails the
+ * build with the statements listed; raise a budget only together with the change that needs it.
+ *
+ * Each budget is the count measured for that request plus {@link #SLACK}; the measured numbers
+ * are written out so a change in either is visible in review.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=",                                  // narrative/advice use local fallbacks
+        "progress.write-behind.flush-interval-ms=3600000",  // no timer flush between requests
+        "admin.secret=test"
+})
+@AutoConfigureMockMvc
+@Import(QueryCounter.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    /** Headroom per request, e.g. a lazy first-use load; not a place to hide a new query. */
+    private static final int SLACK = 1;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "query_budget");
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired QuestionAdminService admin;
+
+    private List<QItem> items;
+
+    @BeforeAll
+    void seedBank() {
+        items = SyntheticBank.items(10, 6, false);
+        for (QItem q : items) admin.upsert(SyntheticBank.adminDto(q));
+    }
+
+    @Test
+    void studentJourneyStaysWithinBudget() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("USER_EMAIL", "budget@test.local");
+        session.setAttribute("uiLang", "en");
+        Random rnd = new Random(7);
+
+        MockHttpServletRequestBuilder gating = post("/gating").session(session);
+        Map<String, String> gate = SyntheticBank.gateAnswers(rnd);
+        for (int q = 1; q <= 24; q++) gate.putIfAbsent("gate.Q" + q, "A");
+        gate.forEach((k, v) -> gating.param("answers[" + k + "]", v));
+        expectAtMost(5 + SLACK, "POST /gating", () -> mvc.perform(gating)
+                .andExpect(redirectedUrl("/questionnaire?page=1")));
+
+        expectAtMost(4 + SLACK, "GET /questionnaire", () -> mvc.perform(get("/questionnaire?page=1").session(session))
+                .andExpect(status().isOk()));
+
+        expectAtMost(0 + SLACK, "POST /api/progress", () -> mvc.perform(post("/api/progress").session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"section\":\"QUESTIONNAIRE\",\"page\":1,\"answers\":{\"ipip.O.01\":\"4\"}}"))
+                .andExpect(status().isOk()));
+
+        MockHttpServletRequestBuilder submit = post("/questionnaire/submit").session(session);
+        SyntheticBank.answers(items, rnd).forEach((k, v) -> submit.param("answers[" + k + "]", v));
+        expectAtMost(4 + SLACK, "POST /questionnaire/submit", () -> mvc.perform(submit)
+                .andExpect(redirectedUrl("/result")));
+
+        expectAtMost(3 + SLACK, "GET /result (computes snapshot)", () -> mvc.perform(get("/result").session(session))
+                .andExpect(status().isOk()));
+
+        expectAtMost(1 + SLACK, "GET /result (snapshot reused)", () -> mvc.perform(get("/result").session(session))
+                .andExpect(status().isOk()));
+
+        expectAtMost(0 + SLACK, "GET /result/narrative", () -> mvc.perform(get("/result/narrative").session(session))
+                .andExpect(status().isOk()));
+    }
+}
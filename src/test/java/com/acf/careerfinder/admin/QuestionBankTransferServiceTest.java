@@ -0,0 +1,130 @@
+package com.acf.careerfinder.admin;
+
+import com.acf.careerfinder.admin.QuestionBankTransferService.Format;
+import com.acf.careerfinder.admin.QuestionBankTransferService.ImportReport;
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.support.EmbeddedPg;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Export → import round trips in both formats, malformed CSV reported as a row error, and
+ * admin.import.max-rows applied to unparseable rows as well.
+ */
+@SpringBootTest(properties = {
+        "admin.secret=test",
+        "admin.import.max-rows=" + QuestionBankTransferServiceTest.MAX_ROWS
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QuestionBankTransferServiceTest {
+
+    static final int MAX_ROWS = 200; // above the synthetic bank, so round trips fit
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "question_transfer");
+    }
+
+    @Autowired QuestionBankTransferService transfer;
+    @Autowired QuestionAdminService admin;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired MockMvc mvc;
+
+    private int size;
+    private String optional, inactive;
+
+    @BeforeAll
+    void seedBank() {
+        List<QItem> items = SyntheticBank.items(10, 6, false);
+        optional = items.get(0).getQkey();
+        inactive = items.get(1).getQkey();
+        for (QItem q : items) {
+            AdminQuestionDTO dto = SyntheticBank.adminDto(q);
+            if (q.getQkey().equals(optional)) dto.setRequired(false);
+            if (q.getQkey().equals(inactive)) dto.setActive(false);
+            admin.upsert(dto);
+        }
+        size = items.size();
+    }
+
+    private byte[] export(Format f) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transfer.export(f, out);
+        return out.toByteArray();
+    }
+
+    private Map<String, Object> flags(String qkey) {
+        return jdbc.queryForMap("SELECT required, active FROM q_item WHERE qkey = ?", qkey);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void exportImportsBackUnchanged(Format f) throws Exception {
+        byte[] exported = export(f);
+
+        ImportReport report = transfer.importBank(new ByteArrayInputStream(exported), f, false);
+        assertTrue(report.ok(), () -> report.errors().toString());
+        assertEquals(size, report.rows());
+        assertEquals(size, report.updated());
+        assertEquals(0, report.created());
+
+        assertEquals(Map.of("required", false, "active", true), flags(optional));
+        assertEquals(Map.of("required", true, "active", false), flags(inactive));
+        assertArrayEquals(exported, export(f), "second export differs from the first");
+    }
+
+    @ParameterizedTest
+    @EnumSource(Format.class)
+    void unparseableRowsCountAgainstMaxRows(Format f) throws Exception {
+        StringBuilder body = new StringBuilder(f == Format.CSV ? "qkey,sectionKey\n" : "");
+        for (int i = 0; i < MAX_ROWS * 3; i++) {
+            body.append(f == Format.CSV ? "only-one-field\n" : "{not json\n");
+        }
+
+        ImportReport report = transfer.importBank(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), f, true);
+
+        assertEquals(MAX_ROWS, report.rows());
+        assertEquals(MAX_ROWS + 1, report.errorCount(), "reading stops at the cap");
+        assertEquals(0, report.valid());
+    }
+
+    @Test
+    void unterminatedQuoteIsARowErrorNot500() throws Exception {
+        String csv = "qkey,sectionKey,enQuestion\n"
+                + "x.1,IPIP,\"never closed\n"
+                + "x.2,IPIP,More\n";
+        mvc.perform(post("/admin/questions/import").param("format", "csv")
+                        .header("X-Admin-Secret", "test")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errorCount").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].error", startsWith("Unterminated quoted field")));
+    }
+}
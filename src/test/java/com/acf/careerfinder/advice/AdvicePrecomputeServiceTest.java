@@ -0,0 +1,96 @@
+package com.acf.careerfinder.advice;
+
+import com.acf.careerfinder.advice.AdvicePrecomputeService.RunStatus;
+import com.acf.careerfinder.advice.AdvicePrecomputeService.State;
+import com.acf.careerfinder.geo.MHLocation;
+import com.acf.careerfinder.support.EmbeddedPg;
+import com.acf.careerfinder.support.StubLlmServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Precompute of one sector's advice matrix against {@link StubLlmServer} on embedded PostgreSQL:
+ * every cell is stored, a second run skips them all, and advice() serves stored rows without an
+ * LLM call.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=test",
+        "advice.precompute.sectors=" + AdvicePrecomputeServiceTest.SECTOR,
+        "advice.precompute.threads=8",
+        "advice.precompute.rate-per-second=0",   // no pacing against the stub
+        "advice.precompute.retries=0",
+        "admin.secret=test"
+})
+class AdvicePrecomputeServiceTest {
+
+    static final String SECTOR = "healthcare_nursing";
+
+    /** districts × languages × brief/full × DL × 2W */
+    private static final int CELLS = MHLocation.districts().size()
+            * SectorAdviceService.LANGS.size() * SectorAdviceService.DETAILS.size() * 4;
+
+    private static StubLlmServer stub;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "advice_precompute");
+        try {
+            if (stub == null) stub = new StubLlmServer(0, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        r.add("openai.api.url", stub::url);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Autowired AdvicePrecomputeService precompute;
+    @Autowired SectorAdviceService advice;
+    @Autowired JdbcTemplate jdbc;
+
+    private static RunStatus finish(RunStatus st) throws InterruptedException {
+        for (int i = 0; i < 1200 && st.state() == State.RUNNING; i++) Thread.sleep(100);
+        assertEquals(State.DONE, st.state(), st.error());
+        return st;
+    }
+
+    @Test
+    void storesTheMatrixSkipsItOnRerunAndServesItWithoutLlm() throws Exception {
+        RunStatus first = finish(precompute.start());
+        assertEquals(0, first.skipped());
+        assertEquals(CELLS, first.total());
+        assertEquals(CELLS, first.done());
+        assertEquals(0, first.failed());
+        assertEquals(CELLS, stub.requests());
+        assertEquals(CELLS, jdbc.queryForObject(
+                "SELECT count(*) FROM sector_advice_precomputed WHERE version = ? AND sector_id = ?",
+                Integer.class, advice.version(), SECTOR));
+
+        RunStatus second = finish(precompute.start());
+        assertEquals(CELLS, second.skipped());
+        assertEquals(0, second.total());
+        assertEquals(CELLS, stub.requests(), "nothing recomputed");
+
+        var in = new SectorAdviceService.Inputs("Pune", true, false);
+        SectorAdviceDTO stored = advice.advice(SECTOR, "full", "en", in);
+        assertEquals("Trainee", stored.entryRoles.get(0).title);       // the stub's advice, not the fallback
+        assertEquals(CELLS, stub.requests(), "served from the store");
+
+        String other = advice.sectors().stream().map(s -> s.id()).filter(id -> !id.equals(SECTOR)).findFirst().orElseThrow();
+        advice.advice(other, "full", "en", in);
+        assertEquals(CELLS + 1, stub.requests(), "a sector outside the run goes to the LLM");
+    }
+}
@@ -0,0 +1,204 @@
+package com.acf.careerfinder.psychometrics;
+
+import com.acf.careerfinder.model.QItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.acf.careerfinder.psychometrics.ScoringConfig.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Golden-output check: the compiled plan + primitive scoring core must produce
+ * exactly (bit for bit) what the original per-request, map/list based scorer did.
+ */
+class ScoringServiceGoldenTest {
+
+    @Test
+    void compiledScoringMatchesReferenceOnGeneratedCorpus() {
+        List<QItem> items = SyntheticBank.items(10, 30, true);
+        ScoringPlan plan = ScoringPlan.compile(items);
+        Random rnd = new Random(20240501L);
+
+        for (int n = 0; n < 5_000; n++) {
+            Map<String, String> answers = SyntheticBank.answers(items, rnd);
+            TraitProfile expected = reference(items, answers);
+            TraitProfile actual = ScoringService.score(plan, answers);
+
+            String ctx = "corpus #" + n + " " + answers;
+            assertEquals(expected.ipipRaw(), actual.ipipRaw(), ctx);
+            assertEquals(expected.ocean0to100(), actual.ocean0to100(), ctx);
+            assertEquals(expected.traitFromIpip0to100(), actual.traitFromIpip0to100(), ctx);
+            assertEquals(expected.traitSjt0to100(), actual.traitSjt0to100(), ctx);
+            assertEquals(expected.traitFinal0to100(), actual.traitFinal0to100(), ctx);
+            assertEquals(Double.doubleToLongBits(expected.getIpipOverall0to100()),
+                    Double.doubleToLongBits(actual.getIpipOverall0to100()), ctx);
+            assertEquals(Double.doubleToLongBits(expected.getSjtOverall0to100()),
+                    Double.doubleToLongBits(actual.getSjtOverall0to100()), ctx);
+            assertEquals(Double.doubleToLongBits(expected.getComposite0to100()),
+                    Double.doubleToLongBits(actual.getComposite0to100()), ctx);
+        }
+    }
+
+    /* ---------------- reference: the original scoreForUser body ---------------- */
+
+    private static final ObjectMapper M = new ObjectMapper();
+
+    private static TraitProfile reference(List<QItem> items, Map<String, String> answers) {
+        EnumMap<Domain, Integer> ipipSum = new EnumMap<>(Domain.class);
+        EnumMap<Domain, Integer> ipipCount = new EnumMap<>(Domain.class);
+        for (Domain d : Domain.values()) { ipipSum.put(d, 0); ipipCount.put(d, 0); }
+
+        EnumMap<Trait, List<Double>> sjtBuckets = new EnumMap<>(Trait.class);
+        for (Trait t : Trait.values()) sjtBuckets.put(t, new ArrayList<>());
+
+        for (QItem qi : items) {
+            String sect = qi.getSectionKey();
+            if (sect == null || !(sect.equalsIgnoreCase("ipip") || sect.equalsIgnoreCase("sjt"))) continue;
+            String metaJson = qi.getMetaJson();
+            if (metaJson == null || metaJson.isBlank()) continue;
+            JsonNode meta;
+            try { meta = M.readTree(metaJson); } catch (Exception e) { continue; }
+
+            String kind = text(meta, "kind");
+            if ("IPIP".equalsIgnoreCase(kind)) {
+                if (qi.getQtype() != null && qi.getQtype() != QItem.QType.SINGLE) continue;
+                Domain dom = parseDomain(text(meta, "domain"));
+                if (dom == null) continue;
+                Integer likert = parseLikert(answers.get(qi.getQkey()));
+                if (likert == null) continue;
+                boolean keyedPos = !"-".equals(text(meta, "keyed"));
+                int scored = keyedPos ? likert : (6 - likert);
+                ipipSum.put(dom, ipipSum.get(dom) + scored);
+                ipipCount.put(dom, ipipCount.get(dom) + 1);
+
+            } else if ("SJT".equalsIgnoreCase(kind)) {
+                String fmt = text(meta, "format");
+                Trait trait = parseTrait(text(meta, "trait"));
+                if (trait == null) continue;
+                String answer = answers.get(qi.getQkey());
+                double item0toScale = 0.0;
+
+                if ("MULTI_SELECT".equalsIgnoreCase(fmt)) {
+                    if (qi.getQtype() != null && qi.getQtype() != QItem.QType.MULTI) continue;
+                    JsonNode node = meta.get("tagByValue");
+                    if (node == null || !node.isObject()) continue;
+                    Map<String, String> tagMap = new LinkedHashMap<>();
+                    node.fieldNames().forEachRemaining(k -> tagMap.put(k.toLowerCase(Locale.ROOT), node.get(k).asText()));
+                    if (tagMap.isEmpty()) continue;
+
+                    Set<String> selected = (answer == null || answer.isBlank()) ? Set.of()
+                            : Arrays.stream(answer.split(","))
+                                .map(x -> x.trim().toLowerCase(Locale.ROOT))
+                                .filter(x -> !x.isEmpty())
+                                .collect(Collectors.toCollection(LinkedHashSet::new));
+                    int eTotal = 0, oTotal = 0, points = 0;
+                    for (String tag : tagMap.values()) {
+                        if ("E".equalsIgnoreCase(tag)) eTotal++;
+                        if ("O".equalsIgnoreCase(tag)) oTotal++;
+                    }
+                    for (String v : selected) {
+                        String tag = tagMap.get(v);
+                        if (tag == null) continue;
+                        switch (tag.toUpperCase(Locale.ROOT)) {
+                            case "E" -> points += SJT_POINTS_E;
+                            case "O" -> points += SJT_POINTS_O;
+                            case "X" -> points += SJT_POINTS_X;
+                        }
+                    }
+                    int denom = (SJT_POINTS_E * eTotal) + (SJT_POINTS_O * oTotal);
+                    if (denom > 0) item0toScale = SJT_MULT_SELECT_SCALE * (Math.max(points, 0) / (double) denom);
+
+                } else if ("YES_NO".equalsIgnoreCase(fmt) || "SINGLE_BEST".equalsIgnoreCase(fmt)) {
+                    if (qi.getQtype() != null && qi.getQtype() == QItem.QType.MULTI) continue;
+                    String correct = Optional.ofNullable(text(meta, "correctValue")).orElse("");
+                    String given = Optional.ofNullable(answer).orElse("");
+                    if (!correct.isBlank()) item0toScale = correct.equalsIgnoreCase(given) ? SJT_MULT_SELECT_SCALE : 0.0;
+                } else {
+                    continue;
+                }
+                sjtBuckets.get(trait).add(item0toScale);
+            }
+        }
+
+        TraitProfile profile = new TraitProfile();
+        EnumMap<Domain, Double> ocean0100 = new EnumMap<>(Domain.class);
+        int totalIpipN = 0;
+        double weightedSum = 0.0;
+        for (Domain d : Domain.values()) {
+            int n = ipipCount.get(d);
+            int raw = ipipSum.get(d);
+            profile.ipipRaw().put(d, raw);
+            double pct = 0.0;
+            if (n > 0) {
+                pct = clamp100(100.0 * (raw - n) / (4.0 * n));
+                weightedSum += pct * n;
+                totalIpipN += n;
+            }
+            ocean0100.put(d, pct);
+        }
+        profile.ocean0to100().putAll(ocean0100);
+        profile.setIpipOverall0to100(totalIpipN > 0 ? weightedSum / totalIpipN : 0.0);
+
+        EnumMap<Trait, Double> fromIpip = new EnumMap<>(Trait.class);
+        for (int r = 0; r < Trait.values().length; r++) {
+            double sum = 0.0;
+            for (int c = 0; c < DOMS.length; c++) sum += OCEAN_TO_TRAIT[r][c] * ocean0100.getOrDefault(DOMS[c], 0.0);
+            fromIpip.put(Trait.values()[r], clamp100(sum));
+        }
+        profile.traitFromIpip0to100().putAll(fromIpip);
+
+        EnumMap<Trait, Double> traitSjt = new EnumMap<>(Trait.class);
+        int totalSjtItems = 0;
+        double sumItems = 0.0;
+        for (Trait t : Trait.values()) {
+            List<Double> arr = sjtBuckets.get(t);
+            double mean = arr.isEmpty() ? 0.0 : arr.stream().mapToDouble(d -> d).average().orElse(0.0);
+            traitSjt.put(t, clamp100((100.0 / SJT_MULT_SELECT_SCALE) * mean));
+            totalSjtItems += arr.size();
+            sumItems += arr.stream().mapToDouble(d -> d).sum();
+        }
+        profile.traitSjt0to100().putAll(traitSjt);
+        profile.setSjtOverall0to100(totalSjtItems > 0
+                ? clamp100((100.0 / SJT_MULT_SELECT_SCALE) * (sumItems / totalSjtItems)) : 0.0);
+
+        for (Trait t : Trait.values()) {
+            profile.traitFinal0to100().put(t, clamp100(W_IPIP * fromIpip.get(t) + W_SJT * traitSjt.get(t)));
+        }
+        profile.setComposite0to100(clamp100(W_IPIP * profile.getIpipOverall0to100()
+                + W_SJT * profile.getSjtOverall0to100()));
+        return profile;
+    }
+
+    private static String text(JsonNode n, String k) { JsonNode x = n.get(k); return (x == null || x.isNull()) ? null : x.asText(); }
+    private static double clamp100(double v) { return v < 0 ? 0 : (v > 100 ? 100 : v); }
+
+    private static Domain parseDomain(String s) {
+        if (s == null) return null;
+        return switch (s.toUpperCase(Locale.ROOT)) {
+            case "O" -> Domain.O; case "C" -> Domain.C; case "E" -> Domain.E;
+            case "A" -> Domain.A; case "ES" -> Domain.ES;
+            default -> null;
+        };
+    }
+
+    private static Trait parseTrait(String s) {
+        if (s == null) return null;
+        String num = s.toUpperCase(Locale.ROOT).replaceAll("[^0-9]", "");
+        if (num.isBlank()) return null;
+        int n = Integer.parseInt(num);
+        return (n >= 1 && n <= Trait.values().length) ? Trait.values()[n - 1] : null;
+    }
+
+    private static Integer parseLikert(String s) {
+        if (s == null) return null;
+        try {
+            int v = Integer.parseInt(s.trim());
+            if (v >= IPIP_MIN && v <= IPIP_MAX) return v;
+        } catch (Exception ignored) {}
+        return null;
+    }
+}
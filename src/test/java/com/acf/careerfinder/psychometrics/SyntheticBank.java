@@ -0,0 +1,179 @@
+package com.acf.careerfinder.psychometrics;
+
+import com.acf.careerfinder.admin.AdminQuestionDTO;
+import com.acf.careerfinder.geo.MHLocation;
+import com.acf.careerfinder.model.QItem;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.*;
+
+/**
+ * Deterministic synthetic IPIP/SJT bank + answer maps, and gating answers (tests, benchmarks, load test).
+ * Meta JSON has the same shape the admin writes to q_item.meta_json.
+ */
+public final class SyntheticBank {
+    private SyntheticBank() {}
+
+    private static final String[] DOMAINS = { "O", "C", "E", "A", "ES" };
+    private static final String[] OPTS = { "a", "b", "c", "d", "e", "f" };
+
+    /** MULTI_SELECT tag layouts with different E/O denominators (6, 5, 7, 3). */
+    private static final String[] TAG_MAPS = {
+            "{\"a\":\"E\",\"b\":\"E\",\"c\":\"O\",\"d\":\"X\",\"e\":\"O\"}",
+            "{\"a\":\"E\",\"b\":\"O\",\"c\":\"O\",\"d\":\"O\"}",
+            "{\"a\":\"O\",\"b\":\"E\",\"c\":\"X\",\"d\":\"E\",\"e\":\"X\",\"f\":\"E\"}",
+            "{\"a\":\"E\",\"b\":\"X\",\"c\":\"O\"}"
+    };
+
+    /** ipipPerDomain IPIP items per domain + sjtPerTrait SJT items per trait (cycling MULTI/YES_NO/SINGLE_BEST). */
+    public static List<QItem> items(int ipipPerDomain, int sjtPerTrait, boolean withNoise) {
+        List<QItem> out = new ArrayList<>();
+        int order = 0;
+        for (String d : DOMAINS) {
+            for (int i = 1; i <= ipipPerDomain; i++) {
+                String keyed = (i % 3 == 0) ? "-" : "+";
+                out.add(item(String.format("ipip.%s.%02d", d, i), "ipip", order++, QItem.QType.SINGLE,
+                        "{\"kind\":\"IPIP\",\"domain\":\"" + d + "\",\"keyed\":\"" + keyed + "\",\"scale\":\"Likert5\"}"));
+            }
+        }
+        for (int t = 1; t <= Trait.values().length; t++) {
+            String tc = String.format("T%02d", t);
+            for (int i = 1; i <= sjtPerTrait; i++) {
+                String qkey = String.format("sjt.%s.%02d", tc, i);
+                switch (i % 3) {
+                    case 1 -> out.add(item(qkey, "sjt", order++, QItem.QType.MULTI,
+                            "{\"kind\":\"SJT\",\"format\":\"MULTI_SELECT\",\"trait\":\"" + tc + "\","
+                                    + "\"tagByValue\":" + TAG_MAPS[(t + i) % TAG_MAPS.length] + "}"));
+                    case 2 -> out.add(item(qkey, "sjt", order++, QItem.QType.SINGLE,
+                            "{\"kind\":\"SJT\",\"format\":\"YES_NO\",\"trait\":\"" + tc + "\",\"correctValue\":\""
+                                    + (t % 2 == 0 ? "yes" : "no") + "\"}"));
+                    default -> out.add(item(qkey, "sjt", order++, QItem.QType.SINGLE,
+                            "{\"kind\":\"SJT\",\"format\":\"SINGLE_BEST\",\"trait\":\"" + tc + "\",\"correctValue\":\""
+                                    + OPTS[t % 4] + "\"}"));
+                }
+            }
+        }
+        if (withNoise) {
+            // things the scorer must skip or treat specially
+            out.add(item("sjt.T03.90", "sjt", order++, QItem.QType.MULTI,
+                    "{\"kind\":\"SJT\",\"format\":\"MULTI_SELECT\",\"trait\":\"t3\",\"tagByValue\":{\"A\":\"e\",\"a\":\"O\",\"B\":\"x\",\"c\":\"?\"}}"));
+            out.add(item("sjt.T04.91", "sjt", order++, QItem.QType.SINGLE,
+                    "{\"kind\":\"SJT\",\"format\":\"YES_NO\",\"trait\":\"T04\",\"correctValue\":\"  \"}"));
+            out.add(item("sjt.T05.92", "sjt", order++, null,
+                    "{\"kind\":\"sjt\",\"format\":\"single_best\",\"trait\":\"T05\",\"correctValue\":\"B\"}"));
+            out.add(item("sjt.T06.93", "sjt", order++, QItem.QType.MULTI,
+                    "{\"kind\":\"SJT\",\"format\":\"MULTI_SELECT\",\"trait\":\"T06\",\"tagByValue\":{\"a\":\"X\",\"b\":\"X\"}}"));
+            out.add(item("sjt.T13.94", "sjt", order++, QItem.QType.SINGLE,
+                    "{\"kind\":\"SJT\",\"format\":\"YES_NO\",\"trait\":\"T13\",\"correctValue\":\"yes\"}"));
+            out.add(item("sjt.T01.95", "sjt", order++, QItem.QType.SINGLE,
+                    "{\"kind\":\"SJT\",\"format\":\"MULTI_SELECT\",\"trait\":\"T01\",\"tagByValue\":{\"a\":\"E\"}}"));
+            out.add(item("ipip.O.96", "ipip", order++, QItem.QType.MULTI,
+                    "{\"kind\":\"IPIP\",\"domain\":\"O\",\"keyed\":\"+\"}"));
+            out.add(item("ipip.X.97", "ipip", order++, QItem.QType.SINGLE,
+                    "{\"kind\":\"IPIP\",\"domain\":\"N\",\"keyed\":\"+\"}"));
+            out.add(item("ipip.es.98", "IPIP", order++, null,
+                    "{\"kind\":\"ipip\",\"domain\":\"es\",\"keyed\":\"-\"}"));
+            out.add(item("ipip.C.99", "ipip", order++, QItem.QType.SINGLE, "{not json"));
+            out.add(item("gate.Q1", "gate", order++, QItem.QType.SINGLE, "{\"kind\":\"IPIP\",\"domain\":\"C\"}"));
+            out.add(item("sjt.T02.98", "sjt", order++, QItem.QType.SINGLE,
+                    "{\"kind\":\"SJT\",\"format\":\"RANKING\",\"trait\":\"T02\"}"));
+        }
+        return out;
+    }
+
+    /** Random but plausible answers, including blanks, out-of-range and malformed values. */
+    public static Map<String, String> answers(List<QItem> items, Random rnd) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (QItem q : items) {
+            if (rnd.nextInt(10) == 0) continue; // unanswered
+            String k = q.getQkey();
+            if (k.startsWith("ipip")) {
+                int r = rnd.nextInt(20);
+                out.put(k, r == 0 ? "7" : r == 1 ? " 3 " : r == 2 ? "x" : String.valueOf(1 + rnd.nextInt(5)));
+            } else if (q.getQtype() == QItem.QType.MULTI) {
+                StringBuilder sb = new StringBuilder();
+                int picks = rnd.nextInt(5);
+                for (int i = 0; i < picks; i++) {
+                    if (sb.length() > 0) sb.append(rnd.nextBoolean() ? "," : " , ");
+                    String v = OPTS[rnd.nextInt(OPTS.length)];
+                    sb.append(rnd.nextInt(6) == 0 ? v.toUpperCase(Locale.ROOT) : v);
+                }
+                out.put(k, sb.toString());
+            } else {
+                int r = rnd.nextInt(6);
+                out.put(k, switch (r) {
+                    case 0 -> "yes";
+                    case 1 -> "NO";
+                    case 2 -> "";
+                    default -> OPTS[rnd.nextInt(4)];
+                });
+            }
+        }
+        return out;
+    }
+
+    /** Option count per gating question (A, B, ...), as laid out on the gating form. */
+    private static final int[] GATE_OPTIONS = {
+            0, 7, 6, 2, 2, 2, 6, 2, 4, 4, 4, 3, 5, 2, 3, 3, 3, 3, 3, 5, 3, 2, 2, 2, 6 // Q1..Q24
+    };
+
+    /** Plausible gating answers (gate.Q1..Q24, district, age) as the gating form saves them. */
+    public static Map<String, String> gateAnswers(Random rnd) {
+        Map<String, String> out = new LinkedHashMap<>();
+        for (int q = 1; q < GATE_OPTIONS.length; q++) {
+            if (rnd.nextInt(20) == 0) continue; // skipped
+            out.put("gate.Q" + q, String.valueOf((char) ('A' + rnd.nextInt(GATE_OPTIONS[q]))));
+        }
+        List<String> districts = MHLocation.districts();
+        out.put("gate.Q25_district", districts.get(rnd.nextInt(districts.size())));
+        if (rnd.nextInt(5) != 0) out.put("gate.Q26_age", String.valueOf(15 + rnd.nextInt(16)));
+        return out;
+    }
+
+    /** Admin form for a (noise-free) synthetic item: English text and options, hi/mr inherit. */
+    public static AdminQuestionDTO adminDto(QItem q) {
+        ObjectMapper m = new ObjectMapper();
+        try {
+            JsonNode meta = m.readTree(q.getMetaJson());
+            List<String> values = switch (meta.path("format").asText("")) {
+                case "MULTI_SELECT" -> {
+                    List<String> v = new ArrayList<>();
+                    meta.path("tagByValue").fieldNames().forEachRemaining(v::add);
+                    yield v;
+                }
+                case "YES_NO" -> List.of("yes", "no");
+                case "SINGLE_BEST" -> List.of("a", "b", "c", "d");
+                default -> List.of("1", "2", "3", "4", "5");
+            };
+            List<Map<String, String>> opts = new ArrayList<>();
+            for (String v : values) opts.add(Map.of("value", v, "label", "Option " + v));
+
+            AdminQuestionDTO dto = new AdminQuestionDTO();
+            dto.setQkey(q.getQkey());
+            dto.setSectionKey(q.getSectionKey());
+            dto.setQtype(q.getQtype().name());
+            dto.setOrderIndex(q.getOrderIndex());
+            dto.setRequired(true);
+            dto.setActive(true);
+            dto.setMetaJson(q.getMetaJson());
+            dto.setEnQuestion("Question " + q.getQkey());
+            dto.setEnOptionsJson(m.writeValueAsString(opts));
+            return dto;
+        } catch (Exception e) {
+            throw new IllegalStateException(q.getQkey(), e);
+        }
+    }
+
+    private static QItem item(String qkey, String section, int order, QItem.QType qtype, String meta) {
+        QItem q = new QItem();
+        q.setQkey(qkey);
+        q.setSectionKey(section);
+        q.setOrderIndex(order);
+        q.setQtype(qtype);
+        q.setRequired(true);
+        q.setActive(true);
+        q.setMetaJson(meta);
+        return q;
+    }
+}
@@ -0,0 +1,161 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.sector.EligibilityService.Cand;
+import com.acf.careerfinder.sector.EligibilityService.CandBits;
+import com.acf.careerfinder.sector.model1.SectorGates;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The compiled (bitmask) eligibility must agree with the original boxed rule set, flag and
+ * reasons alike, for every gate in config_sectors_v1 and for random candidates with any
+ * attribute missing.
+ */
+class EligibilityServiceTest {
+
+    private final EligibilityService service = new EligibilityService();
+
+    @Test
+    void compiledMatchesReferenceForShippedGates() throws IOException {
+        List<SectorGates.Requirements> gates = new ArrayList<>();
+        for (SectorGates.SectorGate g : shippedGates().sectors()) gates.add(g.req());
+        assertFalse(gates.isEmpty());
+        gates.add(null); // no requirements at all
+
+        Random rnd = new Random(20240611L);
+        for (int n = 0; n < 20_000; n++) {
+            Cand c = randomCand(rnd);
+            CandBits bits = service.encode(c);
+            for (SectorGates.Requirements req : gates) assertAgrees(c, bits, req, "cand #" + n);
+        }
+    }
+
+    @Test
+    void compiledMatchesReferenceForRandomGates() {
+        Random rnd = new Random(11L);
+        for (int n = 0; n < 50_000; n++) {
+            Cand c = randomCand(rnd);
+            assertAgrees(c, service.encode(c), randomReq(rnd), "pair #" + n);
+        }
+    }
+
+    private void assertAgrees(Cand c, CandBits bits, SectorGates.Requirements req, String ctx) {
+        List<String> expected = reference(c, req);
+        EligibilityService.CompiledGate g = EligibilityService.compile(req);
+        assertEquals(expected.isEmpty(), service.eligible(bits, g), ctx);
+        assertEquals(expected, service.reasons(bits, g), ctx);
+        assertEquals(expected, service.checkEligibility(c, req).reasons, ctx);
+    }
+
+    private static SectorGates shippedGates() throws IOException {
+        try (InputStream in = EligibilityServiceTest.class.getResourceAsStream("/config_sectors_v1/SectorGates_v1.json")) {
+            return new ObjectMapper()
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                    .readValue(in, SectorGates.class);
+        }
+    }
+
+    /* -------------------- generators -------------------- */
+
+    private static Cand randomCand(Random r) {
+        Cand c = new Cand();
+        c.edu = maybe(r, 0, 6);
+        c.age = maybe(r, 14, 70);
+        c.heightCm = maybe(r, 145, 175);
+        c.liftKg = maybe(r, 0, 35);
+        c.commuteKm = maybe(r, 0, 45);
+        c.typingWPM = maybe(r, 0, 70);
+
+        c.standingOK = tri(r); c.nightOK = tri(r); c.weekendOK = tri(r);
+        c.fieldTravelOK = tri(r); c.workAtHeightOK = tri(r);
+        c.smartphone = tri(r); c.hasDocs = tri(r); c.hasDL = tri(r); c.has2W = tri(r);
+        c.hasPSARA = tri(r); c.hasAEP = tri(r); c.bgcOK = tri(r);
+        c.englishBasic = tri(r); c.localLanguage = tri(r); c.computerBasics = tri(r);
+        c.normalVision = tri(r); c.colorVisionOK = tri(r); c.vaccProof = tri(r);
+        c.safetyInducted = tri(r);
+        return c;
+    }
+
+    private static SectorGates.Requirements randomReq(Random r) {
+        return new SectorGates.Requirements(
+                maybe(r, 0, 6), maybe(r, 16, 25), maybe(r, 150, 170), maybe(r, 5, 30), maybe(r, 5, 40),
+                tri(r), tri(r), tri(r), tri(r), tri(r),
+                tri(r), tri(r), tri(r), tri(r), tri(r), tri(r), tri(r),
+                tri(r), tri(r), tri(r), tri(r), tri(r), tri(r),
+                maybe(r, 10, 60));
+    }
+
+    /** null about a quarter of the time, else uniform in [lo, hi]. */
+    private static Integer maybe(Random r, int lo, int hi) {
+        return r.nextInt(4) == 0 ? null : lo + r.nextInt(hi - lo + 1);
+    }
+
+    private static Boolean tri(Random r) {
+        return switch (r.nextInt(3)) { case 0 -> null; case 1 -> true; default -> false; };
+    }
+
+    /* -------------------- reference: the boxed checkEligibility before compilation -------------------- */
+
+    private static List<String> reference(Cand cand, SectorGates.Requirements req) {
+        List<String> reasons = new ArrayList<>();
+        if (req == null) return reasons;
+
+        if (req.minEdu() != null && (cand.edu == null || cand.edu < req.minEdu()))
+            reasons.add("Min education required: " + prettyEdu(req.minEdu()));
+        if (req.minAge() != null && cand.age != null && cand.age < req.minAge())
+            reasons.add("Min age required: " + req.minAge());
+        if (req.minHeightCm() != null && (cand.heightCm == null || cand.heightCm < req.minHeightCm()))
+            reasons.add("Min height required: " + req.minHeightCm() + " cm");
+        if (req.minLiftKg() != null && (cand.liftKg == null || cand.liftKg < req.minLiftKg()))
+            reasons.add("Must lift ≥ " + req.minLiftKg() + " kg");
+        if (req.maxCommuteKm() != null && (cand.commuteKm == null || cand.commuteKm > req.maxCommuteKm()))
+            reasons.add("Commute must be ≤ " + req.maxCommuteKm() + " km");
+
+        need(req.needsStandingOk(),     cand.standingOK,     "Comfortable standing 6–8 hrs", reasons);
+        need(req.needsNightOk(),        cand.nightOK,        "Night/rotational shifts OK",   reasons);
+        need(req.needsWeekendOk(),      cand.weekendOK,      "Weekend work OK",              reasons);
+        need(req.needsFieldTravelOk(),  cand.fieldTravelOK,  "Field travel OK",              reasons);
+        need(req.needsWorkAtHeightOk(), cand.workAtHeightOK, "Work at height with safety gear OK", reasons);
+
+        need(req.needsSmartphone(),     cand.smartphone,     "Smartphone for daily work",    reasons);
+        need(req.needsDocs(),           cand.hasDocs,        "Standard ID & bank docs ready", reasons);
+        need(req.needsDL(),             cand.hasDL,          "Valid driving licence",        reasons);
+        need(req.needs2W(),             cand.has2W,          "Two‑wheeler access",           reasons);
+        need(req.needsPSARA(),          cand.hasPSARA,       "PSARA certification",          reasons);
+        need(req.needsAEP(),            cand.hasAEP,         "Airport Entry Permit (AEP)",   reasons);
+        need(req.needsBGC(),            cand.bgcOK,          "Background check clearance",   reasons);
+
+        need(req.needsEnglishBasic(),   cand.englishBasic,   "Basic English",                reasons);
+        need(req.needsLocalLanguage(),  cand.localLanguage,  "Local language (basic+)",      reasons);
+        need(req.needsComputerBasics(), cand.computerBasics, "Basic computer skills",        reasons);
+        need(req.needsNormalVision(),   cand.normalVision,   "Normal/adequate vision",       reasons);
+        need(req.needsColorVisionOk(),  cand.colorVisionOK,  "Normal colour vision",         reasons);
+        need(req.needsVaccProof(),      cand.vaccProof,      "Vaccination proof",            reasons);
+
+        if (req.minTypingWPM() != null && (cand.typingWPM == null || cand.typingWPM < req.minTypingWPM()))
+            reasons.add("Typing ≥ " + req.minTypingWPM() + " WPM");
+        return reasons;
+    }
+
+    private static void need(Boolean require, Boolean has, String label, List<String> reasons) {
+        if (Boolean.TRUE.equals(require) && !Boolean.TRUE.equals(has)) reasons.add(label);
+    }
+
+    private static String prettyEdu(int code) {
+        return switch (code) {
+            case 0 -> "No schooling"; case 1 -> "8th"; case 2 -> "10th"; case 3 -> "12th";
+            case 4 -> "Diploma/ITI"; case 5 -> "Graduate"; case 6 -> "Post‑grad+";
+            default -> String.valueOf(code);
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.support.EmbeddedPg;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Hot reload through POST /admin/sectors/reload, with the three sector files copied to a temp
+ * directory and loaded via file: paths. A reload whose files do not parse or do not validate
+ * leaves the live snapshot (and the ranking version persisted results are keyed by) untouched.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=",
+        "admin.secret=test",
+        "sector.config.watch=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SectorConfigReloadTest {
+
+    private static final String[] FILES = {
+            "SectorCatalog_v1.json", "SectorGates_v1.json", "SectorWeights_v2_3.json"
+    };
+    private static final Path DIR = copyLiveFiles();
+
+    @DynamicPropertySource
+    static void config(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "sector_reload");
+        r.add("sector.catalog.path", () -> "file:" + DIR.resolve(FILES[0]));
+        r.add("sector.gates.path", () -> "file:" + DIR.resolve(FILES[1]));
+        r.add("sector.weights.path", () -> "file:" + DIR.resolve(FILES[2]));
+    }
+
+    @Autowired MockMvc mvc;
+    @Autowired SectorConfigService cfg;
+    @Autowired SectorRankingService ranking;
+
+    private final ObjectMapper M = new ObjectMapper();
+
+    @AfterEach
+    void restoreFiles() throws Exception {
+        copyLiveFiles();
+        cfg.reload();
+    }
+
+    @Test
+    void unchangedFilesKeepTheSnapshot() throws Exception {
+        SectorConfigSnapshot before = cfg.snapshot();
+
+        JsonNode r = reload();
+
+        assertTrue(r.get("ok").asBoolean());
+        assertFalse(r.get("swapped").asBoolean());
+        assertSame(before, cfg.snapshot());
+    }
+
+    @Test
+    void validChangeIsSwappedIn() throws Exception {
+        SectorConfigSnapshot before = cfg.snapshot();
+        String rankingVersion = ranking.version();
+        ObjectNode w = weights();
+        ObjectNode row = (ObjectNode) w.get("sectors").get(0).get("weights");
+        double t01 = row.get("T01").asDouble(), t02 = row.get("T02").asDouble();
+        row.put("T01", t02).put("T02", t01); // same row sum, different weights
+        write(FILES[2], M.writeValueAsString(w));
+
+        JsonNode r = reload();
+
+        assertTrue(r.get("swapped").asBoolean(), r::toString);
+        assertEquals(before.version(), r.get("previousVersion").asText());
+        assertNotEquals(before.version(), cfg.version());
+        assertEquals(cfg.version(), r.get("version").asText());
+        assertNotEquals(rankingVersion, ranking.version());
+        assertEquals(t02, cfg.weights().sectors().get(0).weights().get("T01"), 1e-12);
+    }
+
+    @Test
+    void invalidWeightsAreRolledBack() throws Exception {
+        SectorConfigSnapshot before = cfg.snapshot();
+        String rankingVersion = ranking.version();
+        ObjectNode w = weights();
+        ((ObjectNode) w.get("sectors").get(0).get("weights")).put("T01", 5.0); // row no longer sums to 1
+        ((ArrayNode) w.get("sectors")).remove(1);                              // and a sector goes missing
+        write(FILES[2], M.writeValueAsString(w));
+
+        JsonNode r = reload();
+
+        assertFalse(r.get("ok").asBoolean());
+        assertFalse(r.get("swapped").asBoolean());
+        assertEquals(before.version(), r.get("version").asText());
+        assertTrue(r.get("problems").size() >= 2, r::toString);
+        assertSame(before, cfg.snapshot(), "live snapshot kept");
+        assertEquals(rankingVersion, ranking.version());
+    }
+
+    @Test
+    void structurallyBrokenGatesAreRolledBack() throws Exception {
+        SectorConfigSnapshot before = cfg.snapshot();
+        write(FILES[1], "{\"sectors\":[{\"req\":{}}, null]}");
+
+        JsonNode r = reload();
+
+        assertFalse(r.get("swapped").asBoolean());
+        assertTrue(r.get("problems").toString().contains("gates: sector without id"), r::toString);
+        assertSame(before, cfg.snapshot());
+    }
+
+    @Test
+    void unparseableFileIsRolledBack() throws Exception {
+        SectorConfigSnapshot before = cfg.snapshot();
+        write(FILES[0], "{ not json");
+
+        JsonNode r = reload();
+
+        assertFalse(r.get("ok").asBoolean());
+        assertFalse(r.get("swapped").asBoolean());
+        assertEquals(before.version(), r.get("version").asText());
+        assertSame(before, cfg.snapshot());
+    }
+
+    private JsonNode reload() throws Exception {
+        String body = mvc.perform(post("/admin/sectors/reload").header("X-Admin-Secret", "test"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return M.readTree(body);
+    }
+
+    private ObjectNode weights() throws IOException {
+        return (ObjectNode) M.readTree(DIR.resolve(FILES[2]).toFile());
+    }
+
+    private static void write(String file, String json) throws IOException {
+        Files.writeString(DIR.resolve(file), json, StandardCharsets.UTF_8);
+    }
+
+    /** (Re)writes the shipped files into the temp directory; returns it. */
+    private static Path copyLiveFiles() {
+        try {
+            Path dir = DIR != null ? DIR : Files.createTempDirectory("sector-reload");
+            for (String f : FILES) {
+                try (InputStream in = new ClassPathResource("config_sectors_v1/" + f).getInputStream()) {
+                    Files.copy(in, dir.resolve(f), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
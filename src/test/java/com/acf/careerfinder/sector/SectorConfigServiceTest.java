@@ -0,0 +1,75 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.sector.SectorConfigService.Candidate;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Candidates are validated before they are compiled; malformed ones become a report, not an exception. */
+class SectorConfigServiceTest {
+
+    private final SectorConfigService cfg = service();
+
+    static SectorConfigService service() {
+        SectorConfigService s = new SectorConfigService();
+        ReflectionTestUtils.setField(s, "catalogPath", "config_sectors_v1/SectorCatalog_v1.json");
+        ReflectionTestUtils.setField(s, "gatesPath", "config_sectors_v1/SectorGates_v1.json");
+        ReflectionTestUtils.setField(s, "weightsPath", "config_sectors_v1/SectorWeights_v2_3.json");
+        ReflectionTestUtils.setField(s, "rowTolerance", 0.001);
+        return s;
+    }
+
+    private static byte[] json(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertRejected(Candidate c, String problem) {
+        assertFalse(c.ok());
+        assertNull(c.snapshot(), "invalid candidates are not compiled");
+        assertTrue(c.report().problems().stream().anyMatch(p -> p.contains(problem)), c.report().problems()::toString);
+    }
+
+    @Test
+    void weightsWithoutSectorsList() {
+        assertRejected(cfg.candidate(null, json("{}")), "weights: missing sectors list");
+    }
+
+    @Test
+    void gatesWithoutSectorsList() {
+        assertRejected(cfg.candidate(json("{\"sectors\":null}"), null), "gates: missing sectors list");
+    }
+
+    @Test
+    void weightRowWithoutWeights() {
+        assertRejected(cfg.candidate(null, json("{\"sectors\":[{\"id\":\"healthcare_nursing\",\"weights\":null}]}")),
+                "healthcare_nursing has no weights");
+    }
+
+    @Test
+    void rowsWithoutIdsOrNull() {
+        assertRejected(cfg.candidate(json("{\"sectors\":[{\"req\":{}}, null]}"), null), "gates: sector without id");
+        assertRejected(cfg.candidate(null, json("{\"sectors\":[{\"weights\":{\"T01\":1.0}}]}")), "weights: sector without id");
+    }
+
+    @Test
+    void duplicateIds() {
+        assertRejected(cfg.candidate(json("{\"sectors\":[{\"id\":\"a\"},{\"id\":\"a\"}]}"), null), "gates: duplicate sector ids [a]");
+    }
+
+    @Test
+    void liveFilesAsCandidateAreValidAndCompiled() {
+        SectorConfigSnapshot live = cfg.snapshot();
+        Candidate c = cfg.candidate(null, null);
+        assertTrue(c.ok(), c.report().problems()::toString);
+        assertEquals(live.matrix().size(), c.snapshot().matrix().size());
+        assertNotEquals(live.version(), c.version());
+    }
+
+    @Test
+    void unparseableJsonIsStillAParseError() {
+        assertThrows(IllegalStateException.class, () -> cfg.candidate(json("{not json"), null));
+    }
+}
@@ -0,0 +1,122 @@
+package com.acf.careerfinder.sector;
+
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.sector.SectorRankingService.RankedResult;
+import com.acf.careerfinder.sector.SectorRankingService.SectorView;
+import com.acf.careerfinder.sector.model1.SectorCatalog;
+import com.acf.careerfinder.sector.model1.SectorGates;
+import com.acf.careerfinder.sector.model1.SectorWeights;
+import com.acf.careerfinder.service.StageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The one-pass heap ranking must return what the previous stable sorts did: Top-N eligible
+ * by score desc with ties in weights-file order, cutoff = lowest Top-N score (0.0 when none),
+ * near-miss = every ineligible row at or above the cutoff, same order. Scores are drawn from a
+ * few values so ties are the common case; sector counts run below and above topN.
+ */
+class SectorRankingServiceTest {
+
+    private static final int[] TOP_N = {1, 3, 5, 10};
+
+    private final EligibilityService eligibility = new EligibilityService();
+    private final SectorRankingService ranking =
+            new SectorRankingService(null, eligibility, new StageMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void heapRankingMatchesStableSortReference() {
+        Random rnd = new Random(97L);
+        for (int n = 0; n < 5_000; n++) {
+            int topN = TOP_N[rnd.nextInt(TOP_N.length)];
+            ReflectionTestUtils.setField(ranking, "topN", topN);
+            SectorConfigSnapshot snap = randomConfig(rnd, 1 + rnd.nextInt(14));
+            Map<String, String> gate = SyntheticBank.gateAnswers(rnd);
+            Map<String, Double> traits = randomTraits(rnd);
+
+            RankedResult expected = reference(snap, gate, traits, topN);
+            RankedResult actual = ranking.build(snap, gate, traits);
+
+            String ctx = "case #" + n + " topN=" + topN + " sectors=" + snap.matrix().size();
+            assertEquals(Double.doubleToLongBits(expected.eligibleCutoff), Double.doubleToLongBits(actual.eligibleCutoff), ctx);
+            assertEquals(rows(expected.topEligible), rows(actual.topEligible), ctx);
+            assertEquals(rows(expected.nearMiss), rows(actual.nearMiss), ctx);
+        }
+    }
+
+    /** The previous build(): stable sorts over all rows in file order. */
+    private RankedResult reference(SectorConfigSnapshot snap, Map<String, String> gate,
+                                   Map<String, Double> traits, int topN) {
+        var cand = eligibility.encode(eligibility.deriveCand(gate));
+        SectorScoreMatrix m = snap.matrix();
+        double[] score = m.score(SectorScoringService.vectorFromCodes(traits));
+
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < m.size(); i++) all.add(i);
+        all.sort((a, b) -> Double.compare(score[b], score[a])); // List.sort is stable
+
+        List<SectorView> top = all.stream()
+                .filter(i -> eligibility.eligible(cand, snap.gate(i)))
+                .limit(Math.max(1, topN))
+                .map(i -> new SectorView(m.id(i), m.name(i), score[i], true, List.of(), m.topContrib(i)))
+                .toList();
+        double cutoff = top.stream().mapToDouble(v -> v.score).min().orElse(0.0);
+        List<SectorView> near = all.stream()
+                .filter(i -> !eligibility.eligible(cand, snap.gate(i)) && score[i] >= cutoff)
+                .map(i -> new SectorView(m.id(i), m.name(i), score[i], false,
+                        eligibility.reasons(cand, snap.gate(i)), m.topContrib(i)))
+                .toList();
+        return new RankedResult(top, near, cutoff);
+    }
+
+    private static List<String> rows(List<SectorView> views) {
+        return views.stream()
+                .map(v -> v.id + "|" + v.name + "|" + v.score + "|" + v.eligible + "|" + v.reasons + "|" + v.topContrib)
+                .toList();
+    }
+
+    /* -------------------- generators -------------------- */
+
+    /** Each sector weighs one of three traits, so scores collide often. */
+    private static SectorConfigSnapshot randomConfig(Random r, int sectors) {
+        List<SectorCatalog.Sector> catalog = new ArrayList<>();
+        List<SectorWeights.Row> weights = new ArrayList<>();
+        List<SectorGates.SectorGate> gates = new ArrayList<>();
+        for (int i = 0; i < sectors; i++) {
+            String id = "s" + i;
+            catalog.add(new SectorCatalog.Sector(id, "Sector " + i));
+            weights.add(new SectorWeights.Row(id, Map.of("T0" + (1 + r.nextInt(3)), 1.0)));
+            if (r.nextInt(4) != 0) gates.add(new SectorGates.SectorGate(id, randomReq(r)));
+        }
+        return SectorConfigSnapshot.build(new SectorCatalog(catalog), new SectorGates(gates),
+                new SectorWeights(weights), "test");
+    }
+
+    private static SectorGates.Requirements randomReq(Random r) {
+        return new SectorGates.Requirements(
+                maybe(r, 0, 5), maybe(r, 16, 22), null, maybe(r, 5, 25), null,
+                flag(r), flag(r), flag(r), null, null,
+                flag(r), flag(r), flag(r), null, null, null, null,
+                flag(r), null, null, null, null, null,
+                maybe(r, 10, 40));
+    }
+
+    private static Map<String, Double> randomTraits(Random r) {
+        Map<String, Double> t = new HashMap<>();
+        for (int c = 1; c <= 12; c++) t.put(String.format("T%02d", c), 50.0 * r.nextInt(3));
+        return t;
+    }
+
+    private static Integer maybe(Random r, int lo, int hi) {
+        return r.nextInt(3) == 0 ? lo + r.nextInt(hi - lo + 1) : null;
+    }
+
+    private static Boolean flag(Random r) {
+        return r.nextInt(4) == 0 ? Boolean.TRUE : null;
+    }
+}
@@ -0,0 +1,169 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.service.ChatService.LlmUnavailableException;
+import com.acf.careerfinder.support.StubLlmServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Bulkhead, circuit breaker, async pool and stream timeouts around real HTTP calls to {@link StubLlmServer}. */
+class ChatServiceGuardTest {
+
+    private StubLlmServer stub;
+    private ChatService chat;
+
+    @BeforeEach
+    void start() throws Exception {
+        stub = new StubLlmServer(0, 0);
+        chat = new ChatService();
+        ReflectionTestUtils.setField(chat, "meters", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(chat, "openaiUrl", stub.url());
+        ReflectionTestUtils.setField(chat, "openAiApiKey", "test");
+        ReflectionTestUtils.setField(chat, "openAiModel", "stub");
+        ReflectionTestUtils.setField(chat, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(chat, "readTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(chat, "streamIdleTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(chat, "streamTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(chat, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(chat, "acquireTimeout", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(chat, "batchMaxConcurrent", 1);
+        ReflectionTestUtils.setField(chat, "batchAcquireTimeout", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(chat, "asyncQueue", 1);
+        ReflectionTestUtils.setField(chat, "breakerFailures", 2);
+        ReflectionTestUtils.setField(chat, "breakerOpenFor", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(chat, "init");
+    }
+
+    @AfterEach
+    void stop() {
+        stub.release();
+        ReflectionTestUtils.invokeMethod(chat, "shutdown");
+        stub.close();
+    }
+
+    private CircuitBreaker.State breaker() {
+        return ((CircuitBreaker) ReflectionTestUtils.getField(chat, "breaker")).state();
+    }
+
+    private void awaitRequests(long n) throws InterruptedException {
+        for (int i = 0; i < 500 && stub.requests() < n; i++) Thread.sleep(10);
+        assertEquals(n, stub.requests());
+    }
+
+    @Test
+    void fullBulkheadRejectsAfterAcquireTimeout() throws Exception {
+        stub.hold();
+        CompletableFuture<String> inFlight = chat.askJsonAsync("sys", "user");
+        awaitRequests(1);
+
+        assertThrows(LlmUnavailableException.class, () -> chat.askJson("sys", "user"));
+        assertEquals(1, stub.requests(), "rejected call never reached upstream");
+
+        stub.release();
+        assertFalse(inFlight.join().isBlank());
+        assertFalse(chat.askJson("sys", "user").isBlank());
+    }
+
+    @Test
+    void batchCallsUseTheirOwnBulkhead() throws Exception {
+        stub.hold();
+        CompletableFuture<String> batch = CompletableFuture.supplyAsync(() -> chat.askJsonBatch("sys", "user"));
+        awaitRequests(1);
+
+        assertThrows(LlmUnavailableException.class, () -> chat.askJsonBatch("sys", "user"));
+        CompletableFuture<String> live = chat.askJsonAsync("sys", "user");
+        awaitRequests(2); // the live slot was still free
+
+        stub.release();
+        assertFalse(batch.join().isBlank());
+        assertFalse(live.join().isBlank());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheBreaker() {
+        stub.failWith(400);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.class, () -> chat.askJson("sys", "user"));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker());
+        assertEquals(3, stub.requests());
+    }
+
+    @Test
+    void serverErrorsOpenTheBreakerAndShortCircuit() {
+        stub.failWith(500);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpServerErrorException.class, () -> chat.askJson("sys", "user"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker());
+
+        stub.failWith(0);
+        assertThrows(LlmUnavailableException.class, () -> chat.askJson("sys", "user"));
+        assertEquals(2, stub.requests(), "open breaker does not call upstream");
+    }
+
+    @Test
+    void fullAsyncQueueFailsTheFuture() throws Exception {
+        stub.hold();
+        CompletableFuture<String> running = chat.askJsonAsync("sys", "user");   // the one worker
+        CompletableFuture<String> queued = chat.askJsonAsync("sys", "user");    // the one queue slot
+        CompletableFuture<String> rejected = chat.askJsonAsync("sys", "user");
+
+        assertTrue(rejected.isCompletedExceptionally());
+        CompletionException e = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(LlmUnavailableException.class, e.getCause());
+
+        awaitRequests(1);
+        stub.release();
+        assertFalse(running.join().isBlank());
+        assertFalse(queued.join().isBlank());
+    }
+
+    @Test
+    void streamPassesDeltasAndReturnsTheWholeText() {
+        List<String> deltas = new CopyOnWriteArrayList<>();
+        String text = chat.askJsonStreaming("sys", "user", deltas::add);
+        assertTrue(deltas.size() > 1);
+        assertEquals(text, String.join("", deltas));
+    }
+
+    @Test
+    void stalledStreamFailsAfterIdleTimeout() {
+        ReflectionTestUtils.setField(chat, "streamIdleTimeout", Duration.ofMillis(200));
+        stub.stallStreams(5_000);
+        List<String> deltas = new CopyOnWriteArrayList<>();
+
+        long t0 = System.nanoTime();
+        ResourceAccessException e = assertThrows(ResourceAccessException.class,
+                () -> chat.askJsonStreaming("sys", "user", deltas::add));
+        assertTrue(e.getMessage().contains("idle"), e.getMessage());
+        assertEquals(1, deltas.size(), "first chunk arrived before the stall");
+        assertTrue(Duration.ofNanos(System.nanoTime() - t0).toMillis() < 3_000);
+    }
+
+    @Test
+    void slowStreamFailsAtOverallDeadline() {
+        ReflectionTestUtils.setField(chat, "streamIdleTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(chat, "streamTimeout", Duration.ofMillis(300));
+        stub.stallStreams(5_000);
+
+        long t0 = System.nanoTime();
+        ResourceAccessException e = assertThrows(ResourceAccessException.class,
+                () -> chat.askJsonStreaming("sys", "user", d -> {}));
+        assertTrue(e.getMessage().contains("not finished"), e.getMessage());
+        assertTrue(Duration.ofNanos(System.nanoTime() - t0).toMillis() < 3_000);
+    }
+}
@@ -0,0 +1,88 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.service.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** State transitions on a hand-driven clock. */
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 500, now::get);
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.failure();
+        }
+    }
+
+    @Test
+    void opensAfterThresholdConsecutiveFailures() {
+        fail(2);
+        assertEquals(State.CLOSED, breaker.state());
+        fail(1);
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        fail(2);
+        assertTrue(breaker.tryAcquire());
+        breaker.success();
+        fail(2);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void letsOneTrialThroughAfterOpenFor() {
+        fail(3);
+        now.addAndGet(499);
+        assertFalse(breaker.tryAcquire());
+        now.addAndGet(1);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(), "only one trial while half-open");
+    }
+
+    @Test
+    void trialSuccessCloses() {
+        fail(3);
+        now.addAndGet(500);
+        assertTrue(breaker.tryAcquire());
+        breaker.success();
+        assertEquals(State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void trialFailureReopensForAnotherPeriod() {
+        fail(3);
+        now.addAndGet(500);
+        assertTrue(breaker.tryAcquire());
+        breaker.failure();
+        assertEquals(State.OPEN, breaker.state());
+        now.addAndGet(499);
+        assertFalse(breaker.tryAcquire());
+        now.addAndGet(1);
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void ignoreLeavesClosedCountAndFreesTrial() {
+        fail(2);
+        assertTrue(breaker.tryAcquire());
+        breaker.ignore();                       // a 4xx: neither success nor failure
+        fail(1);
+        assertEquals(State.OPEN, breaker.state());
+
+        now.addAndGet(500);
+        assertTrue(breaker.tryAcquire());
+        breaker.ignore();
+        assertEquals(State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,155 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.admin.QuestionAdminService;
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.model.UserProgress.Section;
+import com.acf.careerfinder.psychometrics.ScoringService;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.sector.SectorConfigService;
+import com.acf.careerfinder.sector.SectorRankingService;
+import com.acf.careerfinder.service.CohortRankingService.RunStatus;
+import com.acf.careerfinder.service.CohortRankingService.State;
+import com.acf.careerfinder.support.EmbeddedPg;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Cohort re-ranking against embedded PostgreSQL: completed users are streamed through the cursor,
+ * scored on the pool and written to sector_ranking_run in several batches; a run whose scorers
+ * outlast the drain timeout ends FAILED without its partial buffer being written.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=",
+        "admin.secret=test",
+        "progress.write-behind.flush-interval-ms=3600000",
+        "cohort.threads=3",
+        "cohort.batch-size=7",      // 40 users -> 6 batches
+        "cohort.max-in-flight=4"    // cursor back-pressure kicks in
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CohortRankingServiceTest {
+
+    private static final int USERS = 40;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "cohort_ranking");
+    }
+
+    @Autowired QuestionAdminService admin;
+    @Autowired QuestionnaireService questionnaire;
+    @Autowired ProgressService progress;
+    @Autowired ScoringService scoringService;
+    @Autowired SectorConfigService cfg;
+    @Autowired SectorRankingService ranking;
+    @Autowired CohortRankingService cohort;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+
+    private final Map<String, Map<String, String>> seeded = new TreeMap<>();
+
+    @BeforeAll
+    void seedUsers() {
+        List<QItem> items = SyntheticBank.items(10, 6, false);
+        for (QItem q : items) admin.upsert(SyntheticBank.adminDto(q));
+        Random rnd = new Random(5);
+        for (int u = 0; u < USERS; u++) {
+            String email = String.format("cohort%02d@test.local", u);
+            Map<String, String> answers = new HashMap<>(SyntheticBank.answers(items, rnd));
+            answers.putAll(SyntheticBank.gateAnswers(rnd));
+            questionnaire.saveAnswers(email, answers);
+            progress.markCompleted(email, Section.QUESTIONNAIRE);
+            seeded.put(email, answers);
+        }
+        questionnaire.saveAnswers("unfinished@test.local", SyntheticBank.answers(items, rnd));
+    }
+
+    @Test
+    void runScoresEveryCompletedUserOnce() {
+        RunStatus st = awaitFinished(cohort, cohort.start());
+
+        assertEquals(State.DONE, st.state(), st.error());
+        assertEquals(USERS, st.users());
+        assertEquals(0, st.failed());
+        assertEquals(ranking.version(), st.sectorVersion);
+        assertEquals(scoringService.plan().version(), st.scoringVersion);
+
+        List<String> emails = jdbc.queryForList(
+                "SELECT user_email FROM sector_ranking_run WHERE run_id = ? ORDER BY user_email",
+                String.class, st.runId);
+        assertEquals(new ArrayList<>(seeded.keySet()), emails, "each completed user exactly once");
+
+        // Stored Top-N is what the result page would show
+        String email = emails.get(0);
+        Map<String, String> answers = seeded.get(email);
+        Map<String, Double> t = ResultSnapshotService.toTCodeMap(
+                scoringService.scoreAnswers(scoringService.plan(), answers).traitFinal0to100());
+        String expected = String.join(",",
+                ranking.build(answers, t).topEligible.stream().map(v -> v.id).toList());
+        assertEquals(expected, jdbc.queryForObject(
+                "SELECT top_sectors FROM sector_ranking_run WHERE run_id = ? AND user_email = ?",
+                String.class, st.runId, email));
+    }
+
+    @Test
+    void runsAreKeptApart() {
+        RunStatus a = awaitFinished(cohort, cohort.start());
+        RunStatus b = awaitFinished(cohort, cohort.start());
+
+        assertNotEquals(a.runId, b.runId);
+        for (RunStatus st : List.of(a, b)) {
+            assertEquals(USERS, jdbc.queryForObject(
+                    "SELECT count(*) FROM sector_ranking_run WHERE run_id = ?", Integer.class, st.runId));
+        }
+    }
+
+    @Test
+    void scorersOutlastingDrainTimeoutFailTheRun() {
+        // Same wiring as the bean, but every user takes a second to score and the drain waits 200 ms
+        ScoringService slow = spy(scoringService);
+        doAnswer(inv -> {
+            LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            return inv.callRealMethod();
+        }).when(slow).scoreAnswers(any(), any());
+        CohortRankingService service = new CohortRankingService(jdbc, txManager, slow, cfg, ranking,
+                2, 100, 1000, 0, Duration.ofMillis(200));
+        try {
+            RunStatus st = awaitFinished(service, service.start());
+
+            assertEquals(State.FAILED, st.state());
+            assertTrue(st.error().contains("Workers still running"), st.error());
+            assertEquals(0, st.users(), "partial buffer is not flushed");
+            assertEquals(0, jdbc.queryForObject(
+                    "SELECT count(*) FROM sector_ranking_run WHERE run_id = ?", Integer.class, st.runId));
+            assertNotNull(st.finishedAt());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static RunStatus awaitFinished(CohortRankingService service, RunStatus st) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (st.state() == State.RUNNING || st.finishedAt() == null) {
+            assertTrue(System.nanoTime() < deadline, "run " + st.runId + " did not finish");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        return service.status(st.runId).orElseThrow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.model.Recommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Successful narratives are kept for the TTL; fallbacks (pool full, LLM failure) for the short
+ * fallback TTL, so the reload after DONE renders them instead of starting another job.
+ */
+class NarrativeJobServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean fail;
+
+    private final RecommendationService recommendations = new RecommendationService(null, null) {
+        @Override
+        public Recommendation computeStreaming(Locale locale, Map<String, String> answers, Consumer<String> onDelta) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) throw new ChatService.LlmUnavailableException("down");
+            Recommendation r = new Recommendation();
+            r.setTitle("llm");
+            return r;
+        }
+    };
+
+    private static final Duration FALLBACK_TTL = Duration.ofMillis(300);
+
+    private final NarrativeJobService jobs =
+            new NarrativeJobService(recommendations, 1, 1, Duration.ofMinutes(30), FALLBACK_TTL);
+
+    private static void outliveFallbackTtl() throws InterruptedException {
+        Thread.sleep(FALLBACK_TTL.toMillis() + 200);
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        jobs.shutdown();
+    }
+
+    @Test
+    void successIsReusedUntilTtl() {
+        var first = jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1"));
+        release.countDown();
+        assertEquals("llm", first.result().join().getTitle());
+        assertSame(first, jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1")));
+    }
+
+    @Test
+    void rejectedJobKeepsItsFallbackUntilFallbackTtl() throws Exception {
+        var running = jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1"));
+        var queued = jobs.attach("b@x", Locale.ENGLISH, Map.of("k", "1"));
+        var rejected = jobs.attach("c@x", Locale.ENGLISH, Map.of("k", "1"));
+
+        assertTrue(rejected.result().isDone());
+        assertNotEquals("llm", rejected.result().join().getTitle()); // local result
+        assertEquals(NarrativeJobService.Status.DONE, jobs.status("c@x", Locale.ENGLISH, Map.of("k", "1")));
+        // the reload after DONE renders the fallback instead of submitting again
+        assertSame(rejected, jobs.attach("c@x", Locale.ENGLISH, Map.of("k", "1")));
+
+        release.countDown();
+        running.result().join();
+        queued.result().join();
+        outliveFallbackTtl();
+        var again = jobs.attach("c@x", Locale.ENGLISH, Map.of("k", "1"));
+        assertNotSame(rejected, again);
+        assertEquals("llm", again.result().join().getTitle());
+    }
+
+    @Test
+    void failedJobKeepsItsFallbackUntilFallbackTtl() throws Exception {
+        fail = true;
+        release.countDown();
+        var failed = jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1"));
+        assertNotEquals("llm", failed.result().join().getTitle()); // local result
+        assertEquals(NarrativeJobService.Status.DONE, jobs.status("a@x", Locale.ENGLISH, Map.of("k", "1")));
+        assertSame(failed, jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1")));
+
+        fail = false;
+        outliveFallbackTtl();
+        var again = jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1"));
+        assertNotSame(failed, again);
+        assertEquals("llm", again.result().join().getTitle());
+    }
+
+    @Test
+    void successOutlivesFallbackTtl() throws Exception {
+        release.countDown();
+        var ok = jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1"));
+        assertEquals("llm", ok.result().join().getTitle());
+        outliveFallbackTtl();
+        assertSame(ok, jobs.attach("a@x", Locale.ENGLISH, Map.of("k", "1")));
+    }
+}
@@ -0,0 +1,170 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.admin.QuestionAdminService;
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.model.UserProgress.Section;
+import com.acf.careerfinder.psychometrics.ScoringPlan;
+import com.acf.careerfinder.psychometrics.ScoringService;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.sector.SectorConfigService;
+import com.acf.careerfinder.sector.SectorConfigSnapshot;
+import com.acf.careerfinder.sector.SectorRankingService;
+import com.acf.careerfinder.service.SectorWhatIfService.SectorDelta;
+import com.acf.careerfinder.service.SectorWhatIfService.WhatIfReport;
+import com.acf.careerfinder.support.EmbeddedPg;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * What-if diff against embedded PostgreSQL: completed users are seeded through the services the
+ * questionnaire uses, and every count in the report is checked against ranking each user with
+ * {@link SectorRankingService#build} under both configs.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=",
+        "progress.write-behind.flush-interval-ms=3600000",
+        "admin.secret=test"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SectorWhatIfServiceTest {
+
+    private static final int USERS = 40;
+    private static final String GATES = "config_sectors_v1/SectorGates_v1.json";
+    private static final String WEIGHTS = "config_sectors_v1/SectorWeights_v2_3.json";
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "sector_what_if");
+    }
+
+    @Autowired QuestionAdminService admin;
+    @Autowired QuestionnaireService questionnaire;
+    @Autowired ProgressService progress;
+    @Autowired ScoringService scoringService;
+    @Autowired SectorConfigService cfg;
+    @Autowired SectorRankingService ranking;
+    @Autowired SectorWhatIfService whatIf;
+
+    private final ObjectMapper M = new ObjectMapper();
+    private final Map<String, Map<String, String>> seeded = new LinkedHashMap<>();
+
+    @BeforeAll
+    void seedUsers() {
+        List<QItem> items = SyntheticBank.items(10, 6, false);
+        for (QItem q : items) admin.upsert(SyntheticBank.adminDto(q));
+        Random rnd = new Random(11);
+        for (int u = 0; u < USERS; u++) {
+            String email = String.format("whatif%02d@test.local", u);
+            Map<String, String> answers = new HashMap<>(SyntheticBank.answers(items, rnd));
+            answers.putAll(SyntheticBank.gateAnswers(rnd));
+            questionnaire.saveAnswers(email, answers);
+            progress.markCompleted(email, Section.QUESTIONNAIRE);
+            seeded.put(email, answers);
+        }
+        // In progress, not completed: never part of a diff
+        questionnaire.saveAnswers("unfinished@test.local", SyntheticBank.answers(items, rnd));
+    }
+
+    @Test
+    void liveFilesAsCandidateChangeNothing() throws Exception {
+        WhatIfReport r = whatIf.diff(cfg.candidate(bytes(GATES), bytes(WEIGHTS)), 100);
+
+        assertTrue(r.valid());
+        assertEquals(USERS, r.users());
+        assertEquals(0, r.topChanged());
+        assertEquals(0, r.top1Changed());
+        assertEquals(USERS, r.topChurnHistogram()[0]);
+        for (SectorDelta d : r.sectors()) {
+            assertEquals(d.liveTop(), d.candidateTop(), d.id());
+            assertEquals(d.liveEligible(), d.candidateEligible(), d.id());
+            assertEquals(0.0, d.meanRankShift(), d.id());
+            assertEquals(0.0, d.meanScoreDelta(), 1e-12, d.id());
+        }
+    }
+
+    @Test
+    void diffMatchesRankingEveryUserUnderBothConfigs() throws Exception {
+        SectorConfigService.Candidate candidate = cfg.candidate(bytes(GATES), rotatedWeights());
+        assertTrue(candidate.ok(), () -> candidate.report().problems().toString());
+
+        WhatIfReport r = whatIf.diff(candidate, 100);
+
+        // Expected, the slow way: the result page's ranking per user and config
+        SectorConfigSnapshot live = cfg.snapshot();
+        ScoringPlan plan = scoringService.plan();
+        Map<String, Integer> liveTop = new HashMap<>(), candTop = new HashMap<>();
+        int topChanged = 0, top1Changed = 0;
+        for (Map<String, String> answers : seeded.values()) {
+            Map<String, Double> t = ResultSnapshotService.toTCodeMap(
+                    scoringService.scoreAnswers(plan, answers).traitFinal0to100());
+            List<String> l = ranking.build(live, answers, t).topEligible.stream().map(v -> v.id).toList();
+            List<String> c = ranking.build(candidate.snapshot(), answers, t).topEligible.stream().map(v -> v.id).toList();
+            l.forEach(id -> liveTop.merge(id, 1, Integer::sum));
+            c.forEach(id -> candTop.merge(id, 1, Integer::sum));
+            if (!new HashSet<>(l).equals(new HashSet<>(c))) topChanged++;
+            if (!Objects.equals(l.isEmpty() ? null : l.get(0), c.isEmpty() ? null : c.get(0))) top1Changed++;
+        }
+
+        assertEquals(USERS, r.users());
+        assertTrue(topChanged > 0, "rotated weights should move someone's Top-N");
+        assertEquals(topChanged, r.topChanged());
+        assertEquals(top1Changed, r.top1Changed());
+        assertEquals(USERS, Arrays.stream(r.topChurnHistogram()).sum());
+        for (SectorDelta d : r.sectors()) {
+            assertEquals(liveTop.getOrDefault(d.id(), 0), d.liveTop(), d.id());
+            assertEquals(candTop.getOrDefault(d.id(), 0), d.candidateTop(), d.id());
+            assertEquals(d.liveEligible(), d.candidateEligible(), d.id()); // gates unchanged
+        }
+    }
+
+    @Test
+    void sampleIsAStableSubset() throws Exception {
+        SectorConfigService.Candidate candidate = cfg.candidate(bytes(GATES), bytes(WEIGHTS));
+        int a = whatIf.diff(candidate, 30).users();
+        assertEquals(a, whatIf.diff(candidate, 30).users());
+        assertTrue(a < USERS);
+    }
+
+    @Test
+    void invalidCandidateIsReportedNotDiffed() throws Exception {
+        ObjectNode w = (ObjectNode) M.readTree(bytes(WEIGHTS));
+        ((ArrayNode) w.get("sectors")).remove(0);
+
+        WhatIfReport r = whatIf.diff(cfg.candidate(bytes(GATES), M.writeValueAsBytes(w)), 100);
+
+        assertFalse(r.valid());
+        assertFalse(r.validation().problems().isEmpty());
+        assertEquals(0, r.users());
+    }
+
+    /** Each sector takes the next one's weights: valid rows, different rankings. */
+    private byte[] rotatedWeights() throws Exception {
+        ObjectNode w = (ObjectNode) M.readTree(bytes(WEIGHTS));
+        ArrayNode sectors = (ArrayNode) w.get("sectors");
+        var first = sectors.get(0).get("weights").deepCopy();
+        for (int i = 0; i < sectors.size(); i++) {
+            var next = i + 1 < sectors.size() ? sectors.get(i + 1).get("weights").deepCopy() : first;
+            ((ObjectNode) sectors.get(i)).set("weights", next);
+        }
+        return M.writeValueAsBytes(w);
+    }
+
+    private static byte[] bytes(String path) throws Exception {
+        try (var in = new ClassPathResource(path).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
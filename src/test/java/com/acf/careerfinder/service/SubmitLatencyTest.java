@@ -0,0 +1,130 @@
+package com.acf.careerfinder.service;
+
+import com.acf.careerfinder.model.QItem;
+import com.acf.careerfinder.model.QuestionnaireResponse;
+import com.acf.careerfinder.psychometrics.SyntheticBank;
+import com.acf.careerfinder.repository.QuestionnaireResponseRepository;
+import com.acf.careerfinder.support.EmbeddedPg;
+import com.acf.careerfinder.support.QueryCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static com.acf.careerfinder.support.QueryCounter.expectAtMost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Submit latency before/after the single-statement upsert, on embedded PostgreSQL.
+ *
+ * "Before" is the old saveAnswers loop (find by user+key, then save, per answer) kept here as
+ * the reference; "after" is {@link QuestionnaireService#saveAnswers}. Both write the same full
+ * submit (gates + IPIP + SJT of the large synthetic bank) for fresh users (all inserts) and then
+ * resubmit it with a tenth of the answers changed. p50/p95 per case are printed; the test fails if
+ * the upsert stops being one statement or stops beating the loop.
+ */
+@SpringBootTest(properties = {
+        "openai.api.key=",
+        "admin.secret=test"
+})
+@Import(QueryCounter.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SubmitLatencyTest {
+
+    private static final int WARMUP = 3;
+    private static final int USERS = 12;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry r) {
+        EmbeddedPg.register(r, "submit_latency");
+    }
+
+    @Autowired QuestionnaireService questionnaire;
+    @Autowired QuestionnaireResponseRepository repo;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void upsertBeatsPerKeyLoop() throws Exception {
+        List<QItem> items = SyntheticBank.items(10, 30, false);
+        Random rnd = new Random(3);
+        List<Map<String, String>> submits = new ArrayList<>();
+        for (int u = 0; u < WARMUP + USERS; u++) {
+            Map<String, String> m = new LinkedHashMap<>(SyntheticBank.gateAnswers(rnd));
+            for (QItem q : items) m.put(q.getQkey(), String.valueOf(1 + rnd.nextInt(5)));
+            submits.add(m);
+        }
+        int keys = submits.get(0).size();
+
+        double[][] before = run("before", submits, rnd, this::perKeyLoop);
+        double[][] after = run("after", submits, rnd, (email, answers) ->
+                expectAtMost(1, "saveAnswers (" + answers.size() + " keys)", () -> {
+                    questionnaire.saveAnswers(email, answers);
+                    return null;
+                }));
+
+        System.out.printf(Locale.ROOT, "%nSubmit of %d answers, ms (p50 / p95), %d users each:%n", keys, USERS);
+        System.out.printf(Locale.ROOT, "  %-10s %22s %22s%n", "", "before (find+save/key)", "after (one upsert)");
+        String[] cases = { "first", "resubmit" };
+        for (int c = 0; c < 2; c++) {
+            System.out.printf(Locale.ROOT, "  %-10s %10.1f / %-9.1f %10.1f / %-9.1f%n", cases[c],
+                    pct(before[c], 50), pct(before[c], 95), pct(after[c], 50), pct(after[c], 95));
+            assertTrue(pct(after[c], 50) < pct(before[c], 50), cases[c] + ": upsert slower than the per-key loop");
+        }
+        assertEquals(keys, questionnaire.loadAnswersMap("after-0@test.local").size());
+    }
+
+    private interface Save {
+        void save(String email, Map<String, String> answers) throws Exception;
+    }
+
+    /** [0] = first submit, [1] = resubmit with 10% changed; warm-up users are not recorded. */
+    private static double[][] run(String tag, List<Map<String, String>> submits, Random rnd, Save save) throws Exception {
+        double[][] ms = new double[2][USERS];
+        for (int u = 0; u < submits.size(); u++) {
+            String email = tag + "-" + u + "@test.local";
+            Map<String, String> answers = submits.get(u);
+            Map<String, String> changed = new LinkedHashMap<>(answers);
+            List<String> keys = new ArrayList<>(changed.keySet());
+            for (int i = 0; i < keys.size() / 10; i++) {
+                changed.put(keys.get(rnd.nextInt(keys.size())), String.valueOf(1 + rnd.nextInt(5)));
+            }
+
+            long t0 = System.nanoTime();
+            save.save(email, answers);
+            long t1 = System.nanoTime();
+            save.save(email, changed);
+            long t2 = System.nanoTime();
+            if (u >= WARMUP) {
+                ms[0][u - WARMUP] = (t1 - t0) / 1e6;
+                ms[1][u - WARMUP] = (t2 - t1) / 1e6;
+            }
+        }
+        return ms;
+    }
+
+    /** saveAnswers as it was before the upsert: a SELECT and a save() per answer, in one transaction. */
+    private void perKeyLoop(String email, Map<String, String> answers) {
+        new TransactionTemplate(txManager).executeWithoutResult(s -> {
+            for (Map.Entry<String, String> e : answers.entrySet()) {
+                QuestionnaireResponse row = repo.findByUserEmailAndQuestionKey(email, e.getKey())
+                        .orElseGet(() -> new QuestionnaireResponse(email, e.getKey()));
+                row.setAnswerValue(e.getValue() == null ? "" : e.getValue());
+                repo.save(row);
+            }
+        });
+    }
+
+    private static double pct(double[] v, int p) {
+        double[] s = v.clone();
+        Arrays.sort(s);
+        return s[Math.min(s.length - 1, (int) Math.ceil(p / 100.0 * s.length) - 1)];
+    }
+}
@@ -0,0 +1,49 @@
+package com.acf.careerfinder.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * One embedded PostgreSQL for the whole test run, with a fresh database per test class so
+ * classes do not see each other's rows. Call from a {@code @DynamicPropertySource} method:
+ * {@code EmbeddedPg.register(r, "query_budget")}.
+ */
+public final class EmbeddedPg {
+    private EmbeddedPg() {}
+
+    private static EmbeddedPostgres pg;
+    private static final Set<String> created = new HashSet<>();
+
+    /** Point spring.datasource.* at database {@code name}, creating it on first use. */
+    public static synchronized void register(DynamicPropertyRegistry r, String name) {
+        try {
+            if (pg == null) {
+                pg = EmbeddedPostgres.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try { pg.close(); } catch (IOException ignore) { }
+                }));
+            }
+            if (created.add(name)) {
+                try (Connection c = pg.getPostgresDatabase().getConnection(); Statement s = c.createStatement()) {
+                    s.execute("CREATE DATABASE " + name);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create test database " + name, e);
+        }
+        String url = pg.getJdbcUrl("postgres", name);
+        r.add("spring.datasource.url", () -> url);
+        r.add("spring.datasource.username", () -> "postgres");
+        r.add("spring.datasource.password", () -> "");
+    }
+}
@@ -0,0 +1,109 @@
+package com.acf.careerfinder.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * JDBC round-trip counter for query-budget tests.
+ *
+ * {@link Config} wraps the application DataSource; every execute / executeQuery / executeUpdate /
+ * executeBatch on the current thread is recorded while a {@link #expectAtMost} block runs (JPA,
+ * Spring Data and JdbcTemplate alike). Background threads (write-behind flush, LLM jobs) are not
+ * counted, so MockMvc requests, which run on the test thread, measure only their own statements.
+ */
+public final class QueryCounter {
+    private QueryCounter() {}
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws Exception;
+    }
+
+    /** Run {@code call}; fail with the statements issued if there were more than {@code budget}. */
+    public static <T> T expectAtMost(int budget, String what, Call<T> call) throws Exception {
+        List<String> sql = new ArrayList<>();
+        RECORDED.set(sql);
+        T out;
+        try {
+            out = call.run();
+        } finally {
+            RECORDED.remove();
+        }
+        if (sql.size() > budget) {
+            fail(what + ": " + sql.size() + " statements, budget " + budget + "\n  " + String.join("\n  ", sql));
+        }
+        return out;
+    }
+
+    private static void record(String sql) {
+        List<String> sink = RECORDED.get();
+        if (sink != null) sink.add(sql);
+    }
+
+    /** Import into a Spring test to count statements on the application DataSource. */
+    @TestConfiguration
+    public static class Config {
+        @Bean
+        static BeanPostProcessor queryCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? proxy(DataSource.class, ds, null) : bean;
+                }
+            };
+        }
+    }
+
+    /* -------------------- proxies -------------------- */
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, String sql) {
+        return (T) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[] { type },
+                new Handler(target, sql));
+    }
+
+    private record Handler(Object target, String sql) implements InvocationHandler {
+        @Override
+        public Object invoke(Object p, Method m, Object[] args) throws Throwable {
+            Object out;
+            try {
+                out = m.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            String name = m.getName();
+            if (out instanceof Connection c && name.equals("getConnection")) {
+                return proxy(Connection.class, c, null);
+            }
+            if (target instanceof Connection) {
+                String text = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                if (out instanceof CallableStatement cs) return proxy(CallableStatement.class, cs, text);
+                if (out instanceof PreparedStatement ps) return proxy(PreparedStatement.class, ps, text);
+                if (out instanceof Statement st) return proxy(Statement.class, st, null);
+            }
+            if (target instanceof Statement && name.startsWith("execute")) {
+                String text = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                record((name.equals("executeBatch") || name.equals("executeLargeBatch") ? "[batch] " : "")
+                        + (text == null ? "?" : text.strip().replaceAll("\\s+", " ")));
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.acf.careerfinder.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the OpenAI chat-completions endpoint (point openai.api.url at {@link #url()}).
+ *
+ * Answers every request after a fixed latency with canned JSON content: sector advice when the
+ * system prompt is the advice prompt, otherwise a result narrative. Honours "stream": true with
+ * the same "data: {chunk}" / "data: [DONE]" framing the real API uses, and reports approximate
+ * "usage" (in a final chunk when stream_options.include_usage is set).
+ *
+ * Tests can also inject faults: {@link #failWith} answers every request with an HTTP error,
+ * {@link #hold} parks requests until {@link #release}, {@link #stallStreams} stops a stream after
+ * its first chunk.
+ *
+ * Standalone: {@code java ... StubLlmServer [port] [latencyMs]}, e.g. to run the advice precompute.
+ */
+public final class StubLlmServer implements AutoCloseable {
+
+    private static final ObjectMapper M = new ObjectMapper();
+
+    private static final String ADVICE = """
+            {"sectorId":"%s","sectorName":"Sector","language":"en","userDistrict":"Pune",
+             "cityFocus":["Pune","Mumbai"],
+             "whyFit":["Matches your strengths","Entry roles need no degree"],
+             "entryRoles":[{"title":"Trainee","notes":"On-the-job training"}],
+             "startingSalaryINR":{"district":"₹12k–₹18k / month","nearby":[{"city":"Mumbai","range":"₹14k–₹20k / month"}],"note":"Varies by shift"},
+             "whereToApply":[{"label":"MahaSwayam","url":"https://rojgar.mahaswayam.gov.in/"}],
+             "nearbyIfSparse":{"explanation":"Consider nearby hubs.","suggestedCities":["Pune","Mumbai"]},
+             "gatingReminders":["Carry ID documents"],
+             "checklistWeek1":["Update your resume","Apply to 5 openings","Finish one Skill India module"],
+             "disclaimers":["Salaries are indicative"]}
+            """;
+
+    private static final String NARRATIVE = """
+            {"title":"Your result","summary":"You enjoy hands-on, people-facing work.",
+             "careersTitle":"Suggested careers/trades",
+             "suggestedCareers":[{"label":"Retail associate","href":"https://www.nsdcindia.org/"}],
+             "nextTitle":"Next steps","nextSteps":["Visit MahaSwayam","Talk to your teacher"],
+             "answersTitle":"Your answers","answersEcho":[{"label":"District","value":"Pune"}]}
+            """;
+
+    private final HttpServer server;
+    private final long latencyMs;
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile int failStatus;                 // 0 = answer normally
+    private volatile CountDownLatch gate;            // non-null = park requests until released
+    private volatile long stallMs;                   // > 0 = pause streams after the first chunk
+
+    public StubLlmServer(int port, long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-llm");
+            t.setDaemon(true);
+            return t;
+        }));
+        this.server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    /** Answer every request with this HTTP status (0 = back to normal answers). */
+    public void failWith(int status) {
+        this.failStatus = status;
+    }
+
+    /** Park incoming requests (before any response bytes) until {@link #release()}. */
+    public void hold() {
+        this.gate = new CountDownLatch(1);
+    }
+
+    public void release() {
+        CountDownLatch g = gate;
+        gate = null;
+        if (g != null) g.countDown();
+    }
+
+    /** After the first chunk of a streamed answer, send nothing for {@code ms} (0 = off). */
+    public void stallStreams(long ms) {
+        this.stallMs = ms;
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        requests.incrementAndGet();
+        try {
+            CountDownLatch g = gate;
+            if (g != null) await(g);
+            JsonNode req = M.readTree(ex.getRequestBody());   // read first: the client is still sending
+            if (failStatus > 0) {
+                ex.sendResponseHeaders(failStatus, -1);
+                return;
+            }
+            String system = req.path("messages").path(0).path("content").asText("");
+            String user = req.path("messages").path(1).path("content").asText("");
+            String content = system.contains("jobs advisor")
+                    ? ADVICE.formatted(field(user, "sectorId"))
+                    : NARRATIVE;
+            sleep(latencyMs);
+
+            if (req.path("stream").asBoolean(false)) {
+                ex.getResponseHeaders().add("Content-Type", "text/event-stream");
+                ex.sendResponseHeaders(200, 0);
+                OutputStream out = ex.getResponseBody();
+                // ~8 chunks, as a real model would trickle tokens
+                int step = Math.max(1, content.length() / 8);
+                for (int i = 0; i < content.length(); i += step) {
+                    String piece = content.substring(i, Math.min(content.length(), i + step));
+                    String chunk = M.writeValueAsString(Map.of("choices",
+                            List.of(Map.of("delta", Map.of("content", piece)))));
+                    out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    if (i == 0) sleep(stallMs);
+                }
+                if (req.path("stream_options").path("include_usage").asBoolean(false)) {
+                    String last = M.writeValueAsString(Map.of("choices", List.of(), "usage", usage(system, user, content)));
+                    out.write(("data: " + last + "\n\n").getBytes(StandardCharsets.UTF_8));
+                }
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } else {
+                byte[] body = M.writeValueAsBytes(Map.of(
+                        "choices", List.of(Map.of("message", Map.of("role", "assistant", "content", content))),
+                        "usage", usage(system, user, content)));
+                ex.getResponseHeaders().add("Content-Type", "application/json");
+                ex.sendResponseHeaders(200, body.length);
+                ex.getResponseBody().write(body);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    /** Rough token counts (~4 chars per token), shaped like the real "usage" object. */
+    private static Map<String, Integer> usage(String system, String user, String content) {
+        int prompt = (system.length() + user.length()) / 4;
+        int completion = content.length() / 4;
+        return Map.of("prompt_tokens", prompt, "completion_tokens", completion, "total_tokens", prompt + completion);
+    }
+
+    /** Value of a "name: value" line in the advice user prompt. */
+    private static String field(String prompt, String name) {
+        for (String line : prompt.split("\n")) {
+            String l = line.trim();
+            if (l.startsWith(name + ":")) return l.substring(name.length() + 1).trim();
+        }
+        return "";
+    }
+
+    private static void await(CountDownLatch g) {
+        try {
+            g.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18080;
+        long latency = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        StubLlmServer s = new StubLlmServer(port, latency);
+        System.out.println("Stub LLM listening on " + s.url() + " (latency " + latency + " ms)");
+        Thread.currentThread().join();
+    }
+}